@@ -0,0 +1,164 @@
+import java.io.FileWriter;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import benchmarks.Fixture;
+import benchmarks.Fixtures;
+
+/**
+ * CoreFixtures builds the benchmark fixtures from the simulation core. It sits in the unnamed package with
+ * the core, so it can call it directly, and the benchmarks reach it through the Fixtures interface.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class CoreFixtures implements Fixtures {
+
+	/**
+	 * Returns one step of a rule on a random generation.
+	 */
+	public Fixture step(String type, int rule, int width, long seed) throws Exception {
+		Rule r = Automaton.createAutomaton(CellularAutomaton.parse(type), rule, new Generation()).getRule();
+		Generation gen = random(width, seed);
+		return () -> r.evolve(gen);
+	}
+
+	/**
+	 * Returns a run of an automaton from one cell, recording its history.
+	 */
+	public Fixture history(String history, int width, int steps) throws Exception {
+		Generation initial = single(width);
+		// Fail now rather than in the benchmark if the kind is unknown.
+		createHistory(history, width);
+		return () -> {
+			Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30, initial);
+			automaton.setHistory(createHistory(history, width));
+			automaton.evolve(steps);
+			return automaton.getCurrentGeneration();
+		};
+	}
+
+	/**
+	 * Returns the rendering of a random generation to text.
+	 */
+	public Fixture render(int width, long seed) {
+		Generation gen = random(width, seed);
+		return () -> gen.getStates('0', '1');
+	}
+
+	/**
+	 * Returns the saving of an evolution to a file.
+	 */
+	public Fixture save(String format, String filename, int width, int steps) throws Exception {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30, single(width));
+		automaton.evolve(steps);
+		switch(format) {
+		case "text":
+			return () -> {
+				automaton.saveEvolution(filename);
+				return automaton;
+			};
+		case "binary":
+			return () -> {
+				automaton.saveBinary(filename);
+				return automaton;
+			};
+		case "compressed":
+			return () -> {
+				automaton.saveCompressed(filename);
+				return automaton;
+			};
+		default:
+			throw new IllegalArgumentException("Unknown format " + format + ".");
+		}
+	}
+
+	/**
+	 * Returns the loading of an evolution, reading every generation.
+	 */
+	public Fixture load(String format, String filename, int width, int steps) throws Exception {
+		if(format.equals("text")) {
+			try (FileWriter out = new FileWriter(filename)) {
+				out.write("30" + System.lineSeparator() + "0 1" + System.lineSeparator()
+						+ single(width).getStates('0', '1') + System.lineSeparator());
+			}
+			return () -> new ElementaryAutomaton(filename).getCurrentGeneration();
+		}
+		save(format, filename, width, steps).run();
+		return () -> {
+			try (EvolutionFile file = new EvolutionFile(filename)) {
+				int ones = 0;
+				for(int step = file.getFirstStep(); step <= file.getLastStep(); ++step)
+					ones += file.getGeneration(step).countTrue();
+				return ones;
+			}
+		};
+	}
+
+	/**
+	 * Returns a whole run of the command line application, with its output discarded.
+	 */
+	public Fixture application(String... args) {
+		PrintStream discard = new PrintStream(OutputStream.nullOutputStream());
+		return () -> {
+			PrintStream out = System.out;
+			System.setOut(discard);
+			try {
+				new Application(args).run();
+			} finally {
+				System.setOut(out);
+			}
+			return args;
+		};
+	}
+
+	/**
+	 * Creates a history of the given kind.
+	 *
+	 * @param history  The kind of history: list, tail, delta or checkpoint.
+	 * @param width  The number of cells.
+	 * @return Returns the history.
+	 */
+	private static GenerationHistory createHistory(String history, int width) {
+		switch(history) {
+		case "list":
+			return new ListHistory();
+		case "tail":
+			return new TailHistory(1);
+		case "delta":
+			return new DeltaHistory();
+		case "checkpoint":
+			return CheckpointHistory.adaptive(64, 16);
+		default:
+			throw new IllegalArgumentException("Unknown history " + history + ".");
+		}
+	}
+
+	/**
+	 * Returns a generation with only its middle cell true.
+	 *
+	 * @param width  The number of cells.
+	 * @return Returns the generation.
+	 */
+	static Generation single(int width) {
+		boolean[] states = new boolean[width];
+		states[width / 2] = true;
+		return new Generation(states);
+	}
+
+	/**
+	 * Returns a generation of random cells.
+	 *
+	 * @param width  The number of cells.
+	 * @param seed  The seed of the random cells.
+	 * @return Returns the generation.
+	 */
+	static Generation random(int width, long seed) {
+		Random random = new Random(seed);
+		boolean[] states = new boolean[width];
+		for(int i = 0; i < width; ++i)
+			states[i] = random.nextBoolean();
+		return new Generation(states);
+	}
+}
@@ -0,0 +1,56 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * ApplicationBenchmark measures Application.run() end to end: parsing the arguments, evolving, rendering and
+ * printing, with the printed output discarded.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ApplicationBenchmark {
+
+	@Param({"ECA", "TCA"})
+	public String type;
+
+	@Param({"1024"})
+	public int width;
+
+	@Param({"1000"})
+	public int steps;
+
+	private Fixture application;
+
+	@Setup
+	public void setup() throws Exception {
+		StringBuilder initial = new StringBuilder();
+		for(int i = 0; i < width; ++i)
+			initial.append(i == width / 2 ? '1' : '0');
+		application = Fixtures.load().application(type, type.equals("ECA") ? "30" : "22", "0", "1",
+				initial.toString(), String.valueOf(steps));
+	}
+
+	@Benchmark
+	public Object run() throws Exception {
+		return application.run();
+	}
+}
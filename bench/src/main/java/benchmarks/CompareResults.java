@@ -0,0 +1,156 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CompareResults diffs two JMH result files written with -rf csv, such as the checked-in baseline and a
+ * fresh run. Each benchmark and parameter combination found in both is printed with its change in score,
+ * and the run fails if any of them is slower than the baseline by more than the threshold. All the
+ * benchmarks report average time, so a higher score is slower.
+ * <p>
+ * Each score comes with the half-width of its 99.9% confidence interval, and noise is not a regression.
+ * When both errors are below the threshold, a change of more than the threshold is a regression. When
+ * either is not, the intervals themselves must separate by more than the threshold: the fastest the
+ * current run may be has to be that much slower than the slowest the baseline may be. JMH reports a NaN
+ * error for a single sample, which counts as no error.
+ * <p>
+ * Usage: java -cp benchmarks.jar benchmarks.CompareResults baseline.csv current.csv [threshold-percent]
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class CompareResults {
+
+	/**
+	 * The default slowdown, in percent, that counts as a regression.
+	 */
+	public static final double DEFAULT_THRESHOLD = 10;
+
+	/**
+	 * Compares the two files and exits with status 1 if there is a regression.
+	 *
+	 * @param args  The baseline file, the current file and an optional threshold in percent.
+	 * @throws IOException If a file cannot be read.
+	 */
+	public static void main(String[] args) throws IOException {
+		if(args.length < 2 || args.length > 3) {
+			System.err.println("Usage: java benchmarks.CompareResults baseline.csv current.csv [threshold-percent]");
+			System.exit(2);
+		}
+		double threshold = args.length == 3 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD;
+		Map<String, String[]> baseline = read(args[0]);
+		Map<String, String[]> current = read(args[1]);
+		int regressions = 0;
+		System.out.printf("%-72s %25s %25s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+		for(Map.Entry<String, String[]> entry : current.entrySet()) {
+			String[] before = baseline.get(entry.getKey());
+			if(before == null)
+				continue;
+			double was = Double.parseDouble(before[0]);
+			double wasError = error(before[1]);
+			double now = Double.parseDouble(entry.getValue()[0]);
+			double nowError = error(entry.getValue()[1]);
+			double change = (now - was) / was * 100;
+			boolean regressed = isRegression(was, wasError, now, nowError, threshold);
+			if(regressed)
+				++regressions;
+			System.out.printf("%-72s %12.3f +- %9.3f %12.3f +- %9.3f %+8.1f%% %s%s%n", entry.getKey(), was,
+					wasError, now, nowError, change, entry.getValue()[2], regressed ? "  REGRESSION" : "");
+		}
+		System.out.println(regressions + " regression(s) over " + threshold + "%.");
+		if(regressions > 0)
+			System.exit(1);
+	}
+
+	/**
+	 * Returns whether the current score is slower than the baseline by more than the threshold, once the
+	 * errors of both are taken into account.
+	 *
+	 * @param was  The baseline score.
+	 * @param wasError  The half-width of the baseline's confidence interval.
+	 * @param now  The current score.
+	 * @param nowError  The half-width of the current confidence interval.
+	 * @param threshold  The slowdown, in percent, that counts as a regression.
+	 * @return Returns true if the benchmark regressed.
+	 */
+	static boolean isRegression(double was, double wasError, double now, double nowError, double threshold) {
+		double limit = was * threshold / 100;
+		if(wasError < limit && nowError < now * threshold / 100)
+			return now - was > limit;
+		return (now - nowError) - (was + wasError) > limit;
+	}
+
+	/**
+	 * Parses the error of a score.
+	 *
+	 * @param field  The field of the Score Error column.
+	 * @return Returns the error, or 0 if JMH could not compute it.
+	 */
+	private static double error(String field) {
+		double error = Double.parseDouble(field);
+		return Double.isNaN(error) ? 0 : error;
+	}
+
+	/**
+	 * Reads a JMH CSV result file.
+	 *
+	 * @param filename  The name of the file.
+	 * @return Returns the score, error and unit of each benchmark, keyed by its name and parameters.
+	 * @throws IOException If the file cannot be read.
+	 */
+	static Map<String, String[]> read(String filename) throws IOException {
+		List<String> lines = Files.readAllLines(Paths.get(filename));
+		List<String> header = split(lines.get(0));
+		int score = header.indexOf("Score");
+		int error = header.indexOf("Score Error (99.9%)");
+		int unit = header.indexOf("Unit");
+		Map<String, String[]> results = new LinkedHashMap<String, String[]>();
+		for(String line : lines.subList(1, lines.size())) {
+			if(line.isBlank())
+				continue;
+			List<String> fields = split(line);
+			StringBuilder key = new StringBuilder(fields.get(0));
+			for(int i = unit + 1; i < fields.size(); ++i)
+				if(!fields.get(i).isEmpty())
+					key.append(' ').append(header.get(i).replace("Param: ", "")).append('=').append(fields.get(i));
+			results.put(key.toString(), new String[] {fields.get(score), error < 0 ? "NaN" : fields.get(error),
+					fields.get(unit)});
+		}
+		return results;
+	}
+
+	/**
+	 * Splits a line of CSV, whose fields may be quoted.
+	 *
+	 * @param line  The line.
+	 * @return Returns the fields without their quotes.
+	 */
+	static List<String> split(String line) {
+		List<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for(int i = 0; i < line.length(); ++i) {
+			char c = line.charAt(i);
+			if(c == '"') {
+				if(quoted && i + 1 < line.length() && line.charAt(i + 1) == '"')
+					field.append(line.charAt(++i));
+				else
+					quoted = !quoted;
+			}
+			else if(c == ',' && !quoted) {
+				fields.add(field.toString());
+				field.setLength(0);
+			}
+			else
+				field.append(c);
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * FileBenchmark measures saving a recorded evolution in each format and loading it back. Loading the text
+ * format reads an input file, which holds only the initial generation; loading the binary formats reads
+ * every generation of the file.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class FileBenchmark {
+
+	@Param({"text", "binary", "compressed"})
+	public String format;
+
+	@Param({"1024"})
+	public int width;
+
+	@Param({"1000"})
+	public int steps;
+
+	private File file;
+
+	private Fixture save;
+
+	private Fixture load;
+
+	@Setup
+	public void setup() throws Exception {
+		file = File.createTempFile("FileBenchmark", ".out");
+		Fixtures fixtures = Fixtures.load();
+		save = fixtures.save(format, file.getPath(), width, steps);
+		load = fixtures.load(format, file.getPath(), width, steps);
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public Object save() throws Exception {
+		return save.run();
+	}
+
+	@Benchmark
+	public Object load() throws Exception {
+		return load.run();
+	}
+}
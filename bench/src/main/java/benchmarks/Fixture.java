@@ -0,0 +1,21 @@
+package benchmarks;
+
+/**
+ * Fixture is one prepared operation on the simulation core. The core lives in the unnamed package, which
+ * code in a named package cannot import, and JMH only accepts benchmarks in a named package. So the core is
+ * driven through fixtures built by CoreFixtures, which sits in the unnamed package beside it, and each
+ * benchmark pays one interface call per operation.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public interface Fixture {
+
+	/**
+	 * Runs the operation once.
+	 *
+	 * @return Returns the result, for the benchmark to consume.
+	 * @throws Exception If the operation fails.
+	 */
+	Object run() throws Exception;
+}
@@ -0,0 +1,92 @@
+package benchmarks;
+
+/**
+ * Fixtures builds the operations the benchmarks measure. Every fixture is fully prepared when it is
+ * returned, so the benchmarks time only the operation itself.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public interface Fixtures {
+
+	/**
+	 * The name of the class in the unnamed package that implements this interface.
+	 */
+	String IMPLEMENTATION = "CoreFixtures";
+
+	/**
+	 * Returns one step of a rule on a random generation, as Rule.evolve(Generation).
+	 *
+	 * @param type  The cellular automaton type, ECA or TCA.
+	 * @param rule  The rule number.
+	 * @param width  The number of cells.
+	 * @param seed  The seed of the random generation.
+	 * @return Returns the fixture.
+	 * @throws Exception If the rule cannot be created.
+	 */
+	Fixture step(String type, int rule, int width, long seed) throws Exception;
+
+	/**
+	 * Returns a run of an automaton from one cell for a number of steps, recording its history.
+	 *
+	 * @param history  The kind of history: list, tail, delta or checkpoint.
+	 * @param width  The number of cells.
+	 * @param steps  The number of steps.
+	 * @return Returns the fixture.
+	 * @throws Exception If the automaton cannot be created.
+	 */
+	Fixture history(String history, int width, int steps) throws Exception;
+
+	/**
+	 * Returns the rendering of a random generation to text, as Generation.getStates(char, char).
+	 *
+	 * @param width  The number of cells.
+	 * @param seed  The seed of the random generation.
+	 * @return Returns the fixture.
+	 */
+	Fixture render(int width, long seed);
+
+	/**
+	 * Returns the saving of an evolution to a file.
+	 *
+	 * @param format  The format: text for saveEvolution, binary for saveBinary or compressed for
+	 *        saveCompressed.
+	 * @param filename  The name of the file.
+	 * @param width  The number of cells.
+	 * @param steps  The number of steps.
+	 * @return Returns the fixture.
+	 * @throws Exception If the automaton cannot be created.
+	 */
+	Fixture save(String format, String filename, int width, int steps) throws Exception;
+
+	/**
+	 * Returns the loading of an evolution saved the same way save does, reading every generation.
+	 *
+	 * @param format  The format: text to read the input file format, binary or compressed to open an
+	 *        evolution file.
+	 * @param filename  The name of the file, which is written first.
+	 * @param width  The number of cells.
+	 * @param steps  The number of steps.
+	 * @return Returns the fixture.
+	 * @throws Exception If the file cannot be prepared.
+	 */
+	Fixture load(String format, String filename, int width, int steps) throws Exception;
+
+	/**
+	 * Returns a whole run of the command line application, with its output discarded.
+	 *
+	 * @param args  The command line arguments.
+	 * @return Returns the fixture.
+	 */
+	Fixture application(String... args);
+
+	/**
+	 * Creates the implementation in the unnamed package.
+	 *
+	 * @return Returns the fixtures.
+	 * @throws ReflectiveOperationException If the implementation cannot be created.
+	 */
+	static Fixtures load() throws ReflectiveOperationException {
+		return (Fixtures) Class.forName(IMPLEMENTATION).getDeclaredConstructor().newInstance();
+	}
+}
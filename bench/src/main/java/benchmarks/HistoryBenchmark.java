@@ -0,0 +1,52 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * HistoryBenchmark measures an automaton growing its history over a run, for each kind of history, so
+ * the cost of recording shows up next to the cost of evolving.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class HistoryBenchmark {
+
+	@Param({"list", "tail", "delta", "checkpoint"})
+	public String history;
+
+	@Param({"4096"})
+	public int width;
+
+	@Param({"2000"})
+	public int steps;
+
+	private Fixture run;
+
+	@Setup
+	public void setup() throws Exception {
+		run = Fixtures.load().history(history, width, steps);
+	}
+
+	@Benchmark
+	public Object evolve() throws Exception {
+		return run.run();
+	}
+}
@@ -0,0 +1,49 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * StepBenchmark measures one step of the ECA and TCA word kernels, Rule.evolve(Generation), from one
+ * word to ten million cells. Rule 30 and TCA rule 22 are both irregular, so no step can be skipped.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class StepBenchmark {
+
+	@Param({"ECA", "TCA"})
+	public String type;
+
+	@Param({"64", "1024", "65536", "1048576", "10000000"})
+	public int width;
+
+	private Fixture step;
+
+	@Setup
+	public void setup() throws Exception {
+		step = Fixtures.load().step(type, type.equals("ECA") ? 30 : 22, width, 42);
+	}
+
+	@Benchmark
+	public Object evolve() throws Exception {
+		return step.run();
+	}
+}
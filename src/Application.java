@@ -1,3 +1,5 @@
+import java.io.IOException;
+import java.nio.charset.Charset;
 
 /**
  * The Application class includes a main method accepting command line arguments to create and simulate an appropriate CA.
@@ -88,7 +90,9 @@ public class Application {
 
 	/**
 	 * Parses each of the six arguments, constructs the appropriate Automaton,
-	 * and prints out the full evolution to System.out.
+	 * and prints out the full evolution to System.out as it evolves. If the rule number is "all" or a
+	 * list such as "30,90,100-110", every listed rule is swept instead: each evolution is saved to its own
+	 * file in the working directory, named like eca-30.txt, and the throughput is printed.
 	 * @param args  The arguments the make an application (automaton with other added parts).
 	 */
 	private void parseArgs(String[] args){
@@ -97,16 +101,54 @@ public class Application {
 				CellularAutomaton.parse(appArgs[0]);
 				Integer.parseInt(appArgs[5]);
 				Generation gen = new Generation(appArgs[4], appArgs[3].charAt(0));
+				if(isSweep(appArgs[1])) {
+					RuleSweep sweep = new RuleSweep(CellularAutomaton.parse(appArgs[0]), gen);
+					sweep.setRules(RuleSweep.parseRules(appArgs[1], CellularAutomaton.parse(appArgs[0])));
+					sweep.falseSymbol = appArgs[2].charAt(0);
+					sweep.trueSymbol = appArgs[3].charAt(0);
+					System.out.println(sweep.saveEvolutions(".", Integer.parseInt(appArgs[5])));
+					return;
+				}
 				auto = Automaton.createAutomaton(CellularAutomaton.parse(appArgs[0]), Integer.parseInt(appArgs[1]), gen);
 				auto.falseSymbol = appArgs[2].charAt(0);
 				auto.trueSymbol = appArgs[3].charAt(0);
-				auto.evolve(Integer.parseInt(appArgs[5]));
-				System.out.println(auto);
-			} catch (NumberFormatException | RuleNumException | CellularAutomatonNotFoundException e) {
+				// Each generation is printed while the next ones evolve, so only the latest is kept.
+				auto.setHistory(new TailHistory(1));
+				new EvolutionPipeline().run(auto, Integer.parseInt(appArgs[5]), System.out, getStdoutCharset());
+			} catch (NumberFormatException | RuleNumException | CellularAutomatonNotFoundException | IOException e) {
 				throw new RuntimeException(e.getMessage());
 			}
 	}
 
+	/**
+	 * Returns the charset System.out encodes with. The JVM picks it from stdout.encoding or
+	 * sun.stdout.encoding when they are set, as they are for a Windows console, and otherwise uses the
+	 * default charset; a name it cannot use falls back to the default as well.
+	 * @return Returns the charset of System.out.
+	 */
+	static Charset getStdoutCharset() {
+		for(String property : new String[] {"stdout.encoding", "sun.stdout.encoding"}) {
+			String name = System.getProperty(property);
+			if(name == null)
+				continue;
+			try {
+				return Charset.forName(name);
+			} catch (IllegalArgumentException e) {
+				// System.out ignores a charset it cannot use, and so does this.
+			}
+		}
+		return Charset.defaultCharset();
+	}
+
+	/**
+	 * Returns whether the rule number argument asks for a sweep over several rules.
+	 * @param ruleArg  The rule number argument.
+	 * @return Returns true if the argument is "all" or a list or range of rules.
+	 */
+	private static boolean isSweep(String ruleArg) {
+		return ruleArg.equalsIgnoreCase("all") || ruleArg.indexOf(',') >= 0 || ruleArg.indexOf('-', 1) >= 0;
+	}
+
 	/**
 	 * Calls the parseArgs(String[] args) method using the previously given arguments.
 	 */
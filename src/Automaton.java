@@ -1,10 +1,9 @@
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.math.BigInteger;
+import java.util.stream.Stream;
 
 /**
  * The abstract Automaton class represents any 1D, two-state CA that evolves according to a rule represented by the Rule class.
@@ -20,9 +19,34 @@ public abstract class Automaton {
 	private Rule rule;
 	
 	/**
-	 * The array list of generations.
+	 * The recorded generations.
 	 */
-	private ArrayList<Generation> generations;
+	private GenerationHistory generations = new ListHistory();
+	
+	/**
+	 * The step number of the first recorded generation.
+	 */
+	private int firstStep;
+	
+	/**
+	 * Whether every generation is recorded.
+	 */
+	private boolean recordHistory = true;
+	
+	/**
+	 * The cycle detector, or null if cycles are not being detected.
+	 */
+	private CycleDetector cycleDetector;
+	
+	/**
+	 * The evolver that spreads wide generations over several threads, or null if evolution is serial.
+	 */
+	private ParallelEvolver parallelEvolver;
+	
+	/**
+	 * The listener told about each evolve call and save, or null if nothing is listening.
+	 */
+	private MetricsListener metrics;
 	
 	/**
 	 * The false value of the Automaton.
@@ -41,11 +65,21 @@ public abstract class Automaton {
 	 * @throws RuleNumException If the ruleNum is not between the range of rules.
 	 */
 	protected Automaton(int ruleNum, Generation initial) throws RuleNumException {
-		generations = new ArrayList<Generation>();
 		generations.add(initial);
 		rule = createRule(ruleNum);
 	}
 	
+	/**
+	 * Constructs an automaton that evolves by a rule built elsewhere, for rules that an int does not number.
+	 * 
+	 * @param rule  The rule.
+	 * @param initial  The initial generation.
+	 */
+	protected Automaton(Rule rule, Generation initial) {
+		generations.add(initial);
+		this.rule = rule;
+	}
+	
 	/**
 	 * Reads a file and turns it into a Automaton.
 	 * 
@@ -56,28 +90,69 @@ public abstract class Automaton {
 	 * @throws RuleNumException If the ruleNum is not between the range of rules.
 	 */
 	protected Automaton(String filename) throws FileNotFoundException, IOException, NumberFormatException, RuleNumException {
+		LoadEvent event = LoadEvent.start();
 		try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
 			rule = createRule(Integer.parseInt(br.readLine()));
 			falseSymbol = (char) br.read();
 			br.read();
 			trueSymbol = (char) br.read();
 			br.readLine();
-			generations = new ArrayList<Generation>();
 			generations.add(new Generation(br.readLine(), trueSymbol));
 		}
-
+		if(event != null && event.finish(this, 0, 0)) {
+			event.filename = filename;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Evolves the generation baised on the rule type given. If history is not being recorded, the
+	 * rule jumps straight to the last generation and only that generation is kept. A history that can
+	 * evolve into its own buffers, such as TailHistory, is left to do so. A metrics listener, if one is
+	 * set, is told how many steps were taken, how long they took and how much the history now holds.
+	 * Each call is recorded as one EvolveEvent when Flight Recorder is recording.
+	 * 
+	 * @param numSteps  How many times the generation should evolve.
+	 * @return Returns the number of times the generation evolved.
+	 */
+	public int evolve(int numSteps) {
+		if(numSteps <= 0)
+			return 0;
+		int first = getTotalSteps();
+		EvolveEvent event = EvolveEvent.start();
+		long start = metrics == null ? 0 : System.nanoTime();
+		int evolved = evolveSteps(numSteps);
+		if(metrics != null) {
+			long nanos = System.nanoTime() - start;
+			metrics.stepsEvolved(evolved, (long) evolved * getCurrentGeneration().size(), nanos);
+			metrics.historyRetained(generations.getRetainedBytes());
+		}
+		if(event != null && event.finish(this, first, getTotalSteps())) {
+			event.steps = evolved;
+			event.commit();
+		}
+		return evolved;
 	}
 	
 	/**
-	 * Evolves the generation baised on the rule type given.
+	 * Evolves the generation without telling the metrics listener.
 	 * 
 	 * @param numSteps  How many times the generation should evolve.
 	 * @return Returns the number of times the generation evolved.
 	 */
-	public int evolve(int numSteps) {		
+	private int evolveSteps(int numSteps) {
 		if(numSteps > 0) {
+			if(!recordHistory) {
+				Generation next = advance(numSteps);
+				generations.clear();
+				generations.add(next);
+				firstStep += numSteps;
+				return numSteps;
+			}
+			if(cycleDetector == null && parallelEvolver == null && generations.evolveInPlace(rule, numSteps))
+				return numSteps;
             for(int i = 0; i < numSteps; ++i) {
-            	generations.add(rule.evolve(getCurrentGeneration()));
+            	generations.add(advance(1));
             }
             return numSteps; 
         }
@@ -87,14 +162,70 @@ public abstract class Automaton {
 	}
 	
 	/**
-	 * Gets the generation of the input.
+	 * Returns the generation numSteps after the current one. While cycles are being detected, the steps
+	 * are taken one at a time and shown to the detector until it finds the cycle; after that the
+	 * generation is looked up in the cycle instead of computed.
+	 * 
+	 * @param numSteps  How many times the current generation should evolve.
+	 * @return Returns the evolved generation.
+	 */
+	private Generation advance(int numSteps) {
+		Generation gen = getCurrentGeneration();
+		if(cycleDetector == null) {
+			if(parallelEvolver != null)
+				return parallelEvolver.evolve(gen, numSteps);
+			return numSteps == 1 ? rule.evolve(gen) : rule.evolve(gen, numSteps);
+		}
+		int step = getTotalSteps();
+		for(; numSteps > 0 && !cycleDetector.isCycleFound(); --numSteps, ++step) {
+			gen = rule.evolve(gen);
+			cycleDetector.add(gen);
+		}
+		if(numSteps == 0)
+			return gen;
+		return cycleDetector.getGeneration(step + numSteps);
+	}
+	
+	/**
+	 * Gets the generation of the input. Once a cycle has been detected, generations in the cycle that are
+	 * past the current one or no longer recorded are looked up in the cycle without being evolved or recorded.
 	 * 
 	 * @param stepNum  The generation number of the generation.
 	 * @return Returns the generation of number given.
+	 * @throws IndexOutOfBoundsException If the generation was evolved past without being recorded.
 	 */
 	public Generation getGeneration(int stepNum) {
-		evolve((stepNum + 1) - generations.size());
-		return generations.get(stepNum);
+		if(cycleDetector != null && cycleDetector.isCycleFound()
+				&& (stepNum > getTotalSteps() || stepNum < getFirstRetainedStep())
+				&& stepNum >= cycleDetector.getTransientLength())
+			return cycleDetector.getGeneration(stepNum);
+		evolve(stepNum - getTotalSteps());
+		if(stepNum < getFirstRetainedStep() && stepNum >= 0)
+			throw new IndexOutOfBoundsException("Generation " + stepNum + " was not recorded.");
+		return generations.get(stepNum - firstStep);
+	}
+	
+	/**
+	 * Returns an iterator over the generations from the current one on, computed as they are asked for.
+	 * The automaton itself does not evolve and records none of them, so a run of any length can be walked
+	 * in constant memory.
+	 * 
+	 * @return Returns the iterator, whose first generation is the current one.
+	 */
+	public GenerationIterator iterator() {
+		// The current generation is copied in case the history rewrites it in place later.
+		return new GenerationIterator(rule, parallelEvolver, copy(getCurrentGeneration()), getTotalSteps());
+	}
+	
+	/**
+	 * Returns a lazy stream of the generations from the current one on. The stream never ends by itself, so
+	 * it is cut short with limit or takeWhile, as in stream().takeWhile(gen -> gen.countTrue() > 0). To
+	 * start far ahead, iterator().skip(n).stream() jumps there faster than skip on the stream does.
+	 * 
+	 * @return Returns the stream, whose first generation is the current one.
+	 */
+	public Stream<Generation> stream() {
+		return iterator().stream();
 	}
 	
 	/**
@@ -103,7 +234,16 @@ public abstract class Automaton {
 	 * @return Returns the most recent generation evolved.
 	 */
 	public Generation getCurrentGeneration() {
-		return generations.get(generations.size()-1);
+		return generations.getLast();
+	}
+	
+	/**
+	 * Gets the type of the automaton.
+	 * 
+	 * @return Returns the type, or null if the automaton is not one of the CellularAutomaton types.
+	 */
+	public CellularAutomaton getCellularAutomaton() {
+		return null;
 	}
 	
 	/**
@@ -115,48 +255,288 @@ public abstract class Automaton {
 		return rule.getRuleNum();
 	}
 	
+	/**
+	 * Gets the number of the rule, however large it is.
+	 * 
+	 * @return Returns the number of the rule.
+	 */
+	public BigInteger getRuleNumber() {
+		return rule.getRuleNumber();
+	}
+	
+	/**
+	 * Gets the Rule of the automaton.
+	 * 
+	 * @return Returns the rule.
+	 */
+	protected Rule getRule() {
+		return rule;
+	}
+	
 	/**
 	 * Gets the number of evolutions made.
 	 * 
 	 * @return Returns the number of evolutions made.
 	 */
 	public int getTotalSteps() {
-		return generations.size()-1;
+		return firstStep + generations.size()-1;
 	}
 	
 	/**
-	 * Prints out every generation.
+	 * Moves the recorded generations into the given history, which then records every later generation.
+	 * The old history is closed. A MappedHistory keeps long runs off the heap, a CheckpointHistory
+	 * keeps only some generations and recomputes the rest when they are read, a DeltaHistory keeps them
+	 * all compressed, and a TailHistory keeps only the last few and evolves into reused buffers.
+	 * 
+	 * @param history  The new history, which should be empty.
+	 * @throws IOException If the old history cannot be closed.
+	 */
+	public void setHistory(GenerationHistory history) throws IOException {
+		history.setRule(rule);
+		for(int i = generations.getFirstRetained(); i < generations.size(); ++i)
+			history.add(generations.get(i));
+		firstStep += generations.getFirstRetained();
+		generations.close();
+		generations = history;
+	}
+	
+	/**
+	 * Returns the history that holds the recorded generations.
+	 * 
+	 * @return Returns the history.
+	 */
+	public GenerationHistory getHistory() {
+		return generations;
+	}
+	
+	/**
+	 * Returns the step number of the earliest generation still retained.
+	 * 
+	 * @return Returns the first retained step.
+	 */
+	public int getFirstRetainedStep() {
+		return firstStep + generations.getFirstRetained();
+	}
+	
+	/**
+	 * Returns a copy of a generation that does not share its words.
+	 * 
+	 * @param gen  The generation to copy.
+	 * @return Returns the copy.
+	 */
+	private static Generation copy(Generation gen) {
+		return Generation.wrap(gen.words().clone(), gen.size());
+	}
+	
+	/**
+	 * Sets whether every generation is recorded. When recording is turned off, the generations before the
+	 * current one are dropped, and later evolutions jump ahead without computing the generations in
+	 * between one at a time, which is much faster for long runs that only need the final row.
+	 * 
+	 * @param record  Whether to record every generation.
+	 */
+	public void setRecordHistory(boolean record) {
+		if(!record && generations.size() > 1) {
+			Generation current = getCurrentGeneration();
+			firstStep = getTotalSteps();
+			generations.clear();
+			generations.add(current);
+		}
+		recordHistory = record;
+	}
+	
+	/**
+	 * Turns cycle detection on or off. Every run on the wrapping lattice ends up repeating itself; with
+	 * detection on, each new generation is checked against an earlier one until the cycle is found.
+	 * Detection starts from the first recorded generation.
+	 * 
+	 * @param detect  Whether to detect cycles.
+	 */
+	public void setCycleDetection(boolean detect) {
+		if(!detect) {
+			cycleDetector = null;
+			return;
+		}
+		if(cycleDetector == null) {
+			// The detector keeps some of the generations, so it gets copies of any the history may rewrite.
+			int first = generations.getFirstRetained();
+			cycleDetector = new CycleDetector(rule, copy(generations.get(first)), getFirstRetainedStep());
+			for(int i = first + 1; i < generations.size() && !cycleDetector.isCycleFound(); ++i)
+				cycleDetector.add(copy(generations.get(i)));
+		}
+	}
+	
+	/**
+	 * Returns whether cycles are being detected.
+	 * 
+	 * @return Returns true if cycles are being detected.
+	 */
+	public boolean isDetectingCycles() {
+		return cycleDetector != null;
+	}
+	
+	/**
+	 * Returns the step at which the detected cycle starts, which is the length of the transient when
+	 * detection started at step zero. When detection started later, the cycle starts no earlier than the
+	 * step detection started at.
+	 * 
+	 * @return Returns the start of the cycle, or -1 if no cycle has been detected.
+	 */
+	public int getTransientLength() {
+		return cycleDetector == null ? -1 : cycleDetector.getTransientLength();
+	}
+	
+	/**
+	 * Returns the number of generations in the detected cycle.
+	 * 
+	 * @return Returns the period, or -1 if no cycle has been detected.
+	 */
+	public int getPeriod() {
+		return cycleDetector == null ? -1 : cycleDetector.getPeriod();
+	}
+	
+	/**
+	 * Sets the number of threads used to evolve generations of at least ParallelEvolver.DEFAULT_MIN_CELLS
+	 * cells. Each thread evolves its own tiles of the lattice, and the result is the same as evolving
+	 * on one thread. Parallel evolution takes the place of the rule's own multi-step engines.
+	 * 
+	 * @param threads  The number of threads; 1 or less evolves on the calling thread.
+	 */
+	public void setParallelism(int threads) {
+		if(parallelEvolver != null)
+			parallelEvolver.shutdown();
+		parallelEvolver = threads > 1 ? new ParallelEvolver(rule, threads) : null;
+	}
+	
+	/**
+	 * Returns the number of threads used to evolve wide generations.
+	 * 
+	 * @return Returns the number of threads.
+	 */
+	public int getParallelism() {
+		return parallelEvolver == null ? 1 : parallelEvolver.getParallelism();
+	}
+	
+	/**
+	 * Sets the listener told about each evolve call and each saveEvolution. With no listener, which is
+	 * the default, evolution is not timed at all.
+	 * 
+	 * @param listener  The listener, such as an AutomatonMetrics, or null to stop listening.
+	 */
+	public void setMetricsListener(MetricsListener listener) {
+		metrics = listener;
+	}
+	
+	/**
+	 * Returns the listener told about each evolve call and save.
+	 * 
+	 * @return Returns the listener, or null if nothing is listening.
+	 */
+	public MetricsListener getMetricsListener() {
+		return metrics;
+	}
+	
+	/**
+	 * Returns whether every generation is recorded.
+	 * 
+	 * @return Returns true if every generation is recorded.
+	 */
+	public boolean isRecordingHistory() {
+		return recordHistory;
+	}
+	
+	/**
+	 * Prints out every recorded generation. The rendering is recorded as a RenderEvent when Flight
+	 * Recorder is recording.
 	 */
 	public String toString() {
-		String output = "";
-		if(getTotalSteps() > 0) {
-			for(int i = 0; i < getTotalSteps(); ++i) {
-				output += generations.get(i).getStates(falseSymbol, trueSymbol);
-				output += System.lineSeparator();
-			}
+		RenderEvent event = RenderEvent.start();
+		StringBuilder output = new StringBuilder();
+		for(int i = generations.getFirstRetained(); i < generations.size() - 1; ++i) {
+			output.append(generations.get(i).getStates(falseSymbol, trueSymbol));
+			output.append(System.lineSeparator());
 		}
-		else {
-			return generations.get(0).getStates(falseSymbol, trueSymbol);
+		output.append(getCurrentGeneration().getStates(falseSymbol, trueSymbol));
+		if(event != null && event.finish(this, getFirstRetainedStep(), getTotalSteps())) {
+			event.size = output.length();
+			event.commit();
 		}
-		output += getCurrentGeneration().getStates(falseSymbol, trueSymbol);
-		return output;
+		return output.toString();
 	}
 	
 	/**
-	 * Saves the printed out Automaton into a file.
+	 * Saves the printed out Automaton into a file. Each recorded generation is streamed to the file as
+	 * it is read from the history.
 	 * 
 	 * @param filename  The name of the file.
 	 * @throws IOException If program can't read the given file.
 	 */
 	public void saveEvolution(String filename) throws IOException {
-		
-		BufferedWriter bw = new BufferedWriter(new FileWriter(filename));
-		bw.flush();
-		for(int i = 0; i <= getTotalSteps(); ++i) {
-			bw.write(getGeneration(i).getStates(falseSymbol, trueSymbol));
-			bw.newLine();
+		saveEvolution(filename, 0);
+	}
+	
+	/**
+	 * Saves the printed out Automaton into a file, then evolves it numSteps more times and writes each new
+	 * generation as soon as it is computed. Writing holds only one generation's worth of bytes, so with a
+	 * TailHistory, or with history recording off, memory stays constant however many steps are run.
+	 * A metrics listener, if one is set, is told how many bytes were written, and the save is recorded
+	 * as a RenderEvent when Flight Recorder is recording.
+	 * 
+	 * @param filename  The name of the file.
+	 * @param numSteps  How many more times the generation should evolve.
+	 * @throws IOException If program can't write the given file.
+	 */
+	public void saveEvolution(String filename, int numSteps) throws IOException {
+		RenderEvent event = RenderEvent.start();
+		int first = getFirstRetainedStep();
+		EvolutionWriter writer = new EvolutionWriter(filename, falseSymbol, trueSymbol);
+		try (writer) {
+			for(int i = getFirstRetainedStep(); i <= getTotalSteps(); ++i)
+				writer.write(getGeneration(i));
+			for(int i = 0; i < numSteps; ++i) {
+				evolve(1);
+				writer.write(getCurrentGeneration());
+			}
+		}
+		if(metrics != null)
+			metrics.bytesWritten(writer.getBytesWritten());
+		if(event != null && event.finish(this, first, getTotalSteps())) {
+			event.filename = filename;
+			event.size = writer.getBytesWritten();
+			event.commit();
 		}
-		bw.close();
+	}
+	
+	/**
+	 * Saves the recorded generations into a binary evolution file, which EvolutionFile reads back.
+	 * 
+	 * @param filename  The name of the file.
+	 * @throws IOException If program can't write the given file.
+	 */
+	public void saveBinary(String filename) throws IOException {
+		EvolutionFile.save(this, filename);
+	}
+	
+	/**
+	 * Saves the recorded generations into a compressed binary evolution file, in which each generation is
+	 * stored as its deflated difference from the one before, with a whole generation every
+	 * DeltaHistory.DEFAULT_KEYFRAME_INTERVAL generations.
+	 * 
+	 * @param filename  The name of the file.
+	 * @throws IOException If program can't write the given file.
+	 */
+	public void saveCompressed(String filename) throws IOException {
+		EvolutionFile.saveCompressed(this, filename, DeltaHistory.DEFAULT_KEYFRAME_INTERVAL);
+	}
+	
+	/**
+	 * Numbers the current generation as the given step, so that a run restored from a file carries on
+	 * counting from where it was saved. Only the current generation may be recorded.
+	 * 
+	 * @param stepNum  The step number of the current generation.
+	 */
+	void resumeAt(int stepNum) {
+		firstStep = stepNum - (generations.size() - 1);
 	}
 	
 	/**
@@ -178,7 +558,8 @@ public abstract class Automaton {
 	protected abstract Rule createRule(int ruleNum) throws RuleNumException;
 	
 	/**
-	 * Returns an instance of the appropriate Automaton child given a CellularAutomaton value (ECA or TCA).
+	 * Returns an instance of the appropriate Automaton child given a CellularAutomaton value. GCA and GTCA
+	 * rules get the radius ca.getRadius(), at which they are numbered like ECA and TCA rules.
 	 * This static method returns null if ca is null.
 	 * 
 	 * @param ca  CellularAutomaton type.
@@ -195,6 +576,36 @@ public abstract class Automaton {
 		if(ca == CellularAutomaton.TCA) {
 			return new TotalisticAutomaton(ruleNum, initial);
 		}
+		if(ca == CellularAutomaton.GCA || ca == CellularAutomaton.GTCA) {
+			return createAutomaton(ca, ca.getRadius(), BigInteger.valueOf(ruleNum), initial);
+		}
 		return null;
 	}
+	
+	/**
+	 * Returns an automaton whose rule has the given radius and a rule number of any size. ECA and TCA
+	 * rules only have the radius ca.getRadius() and numbers that fit in an int; GCA rules may have a
+	 * radius up to GeneralRule.MAX_RADIUS and GTCA rules up to GeneralTotalisticRule.MAX_RADIUS.
+	 * This static method returns null if ca is null.
+	 * 
+	 * @param ca  CellularAutomaton type.
+	 * @param radius  The number of cells to the left/right of a cell in its neighborhood.
+	 * @param ruleNumber  Number of the rule.
+	 * @param initial  The initial generation.
+	 * @return Returns an Automaton with the input given.
+	 * @throws RuleNumException If the ruleNumber is not between the range of rules.
+	 * @throws IllegalArgumentException If the radius is out of range for the type.
+	 */
+	public static Automaton createAutomaton(CellularAutomaton ca, int radius, BigInteger ruleNumber, Generation initial) throws RuleNumException {
+		if(ca == CellularAutomaton.GCA || ca == CellularAutomaton.GTCA) {
+			return new GeneralAutomaton(GeneralAutomaton.createRule(ca, radius, ruleNumber), initial);
+		}
+		if(ca != null && radius != ca.getRadius()) {
+			throw new IllegalArgumentException(ca + " rules have radius " + ca.getRadius() + ".");
+		}
+		if(ca != null && ruleNumber.bitLength() >= Integer.SIZE) {
+			throw new RuleNumException(0, ca == CellularAutomaton.ECA ? 255 : 63);
+		}
+		return createAutomaton(ca, ruleNumber.intValue(), initial);
+	}
 }
@@ -0,0 +1,241 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * AutomatonMetrics counts what the automata it listens to do, so a long run can be watched while it is
+ * happening. It counts generations, cells updated and bytes written, keeps the bytes the history held after
+ * the last step, and sorts the time per generation into a histogram of power-of-two buckets. An evolve
+ * call that computes several generations at once is timed as a whole, so each of its generations is
+ * counted at the mean time. The counters are safe to read from any thread, which is what a JMX console
+ * does once the metrics are registered with the platform MBean server. One instance may listen to any
+ * number of automata, and then it counts them all together.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class AutomatonMetrics implements MetricsListener, AutomatonMetricsMBean {
+
+	/**
+	 * The domain of the names the metrics are registered under.
+	 */
+	public static final String DOMAIN = "cellularautomaton";
+
+	/**
+	 * The number of buckets in the histogram, enough for any time a long holds.
+	 */
+	static final int BUCKETS = Long.SIZE;
+
+	/**
+	 * The number of generations computed.
+	 */
+	private LongAdder generations = new LongAdder();
+
+	/**
+	 * The number of cells updated.
+	 */
+	private LongAdder cells = new LongAdder();
+
+	/**
+	 * The number of evolve calls.
+	 */
+	private LongAdder calls = new LongAdder();
+
+	/**
+	 * The total time spent evolving in nanoseconds.
+	 */
+	private LongAdder nanos = new LongAdder();
+
+	/**
+	 * The number of bytes written.
+	 */
+	private LongAdder written = new LongAdder();
+
+	/**
+	 * The number of bytes the history held after the last evolve call.
+	 */
+	private volatile long historyBytes;
+
+	/**
+	 * The counts of the histogram buckets; bucket b counts steps that took less than 2^b nanoseconds.
+	 */
+	private AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+	/**
+	 * The name the metrics are registered under, or null if they are not registered.
+	 */
+	private ObjectName name;
+
+	/**
+	 * Counts the generations and cells and adds the mean time per generation to the histogram.
+	 */
+	public void stepsEvolved(int numSteps, long cellsUpdated, long nanos) {
+		if(numSteps <= 0)
+			return;
+		generations.add(numSteps);
+		cells.add(cellsUpdated);
+		calls.increment();
+		this.nanos.add(nanos);
+		histogram.addAndGet(bucket(nanos / numSteps), numSteps);
+	}
+
+	/**
+	 * Keeps the number of bytes the history holds.
+	 */
+	public void historyRetained(long bytes) {
+		historyBytes = bytes;
+	}
+
+	/**
+	 * Counts the bytes written.
+	 */
+	public void bytesWritten(long bytes) {
+		written.add(bytes);
+	}
+
+	/**
+	 * Returns the bucket of the histogram a time falls in.
+	 *
+	 * @param nanos  The time in nanoseconds.
+	 * @return Returns the index of the bucket.
+	 */
+	static int bucket(long nanos) {
+		return Math.min(BUCKETS - 1, BUCKETS - Long.numberOfLeadingZeros(Math.max(0, nanos)));
+	}
+
+	/**
+	 * Returns the number of generations computed.
+	 */
+	public long getGenerationsComputed() {
+		return generations.sum();
+	}
+
+	/**
+	 * Returns the number of cells updated.
+	 */
+	public long getCellsUpdated() {
+		return cells.sum();
+	}
+
+	/**
+	 * Returns the number of evolve calls that computed at least one generation.
+	 */
+	public long getEvolveCalls() {
+		return calls.sum();
+	}
+
+	/**
+	 * Returns the total time spent evolving in nanoseconds.
+	 */
+	public long getEvolveNanos() {
+		return nanos.sum();
+	}
+
+	/**
+	 * Returns the mean time per generation in nanoseconds.
+	 */
+	public double getMeanStepNanos() {
+		long steps = generations.sum();
+		return steps == 0 ? 0 : (double) nanos.sum() / steps;
+	}
+
+	/**
+	 * Returns a copy of the counts of the histogram buckets.
+	 */
+	public long[] getStepNanosHistogram() {
+		long[] counts = new long[BUCKETS];
+		for(int b = 0; b < BUCKETS; ++b)
+			counts[b] = histogram.get(b);
+		return counts;
+	}
+
+	/**
+	 * Returns the upper bound of the bucket the percentile falls in.
+	 *
+	 * @throws IllegalArgumentException If the percentile is not between 0 and 100.
+	 */
+	public long getStepNanosPercentile(double percentile) {
+		if(!(percentile >= 0 && percentile <= 100))
+			throw new IllegalArgumentException("percentile must be between 0 and 100.");
+		long[] counts = getStepNanosHistogram();
+		long total = 0;
+		for(long count : counts)
+			total += count;
+		if(total == 0)
+			return 0;
+		long rank = Math.max(1, (long) Math.ceil(percentile * total / 100));
+		int b = 0;
+		long seen = counts[0];
+		while(seen < rank)
+			seen += counts[++b];
+		return b == BUCKETS - 1 ? Long.MAX_VALUE : 1L << b;
+	}
+
+	/**
+	 * Returns the number of bytes the history held after the last evolve call.
+	 */
+	public long getHistoryBytesRetained() {
+		return historyBytes;
+	}
+
+	/**
+	 * Returns the number of bytes written by saveEvolution.
+	 */
+	public long getBytesWritten() {
+		return written.sum();
+	}
+
+	/**
+	 * Sets every counter back to zero. Steps counted while it runs may be partly kept.
+	 */
+	public void reset() {
+		generations.reset();
+		cells.reset();
+		calls.reset();
+		nanos.reset();
+		written.reset();
+		historyBytes = 0;
+		for(int b = 0; b < BUCKETS; ++b)
+			histogram.set(b, 0);
+	}
+
+	/**
+	 * Registers the metrics with the platform MBean server under
+	 * cellularautomaton:type=Automaton,name=the given name, replacing any earlier registration of them.
+	 *
+	 * @param automatonName  The name that tells these metrics apart from others.
+	 * @return Returns the name the metrics are registered under.
+	 * @throws JMException If the name is malformed or already taken.
+	 */
+	public synchronized ObjectName register(String automatonName) throws JMException {
+		unregister();
+		ObjectName objectName = new ObjectName(DOMAIN + ":type=Automaton,name=" + ObjectName.quote(automatonName));
+		ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+		name = objectName;
+		return name;
+	}
+
+	/**
+	 * Removes the metrics from the platform MBean server if they are registered.
+	 *
+	 * @throws JMException If the metrics cannot be removed.
+	 */
+	public synchronized void unregister() throws JMException {
+		if(name != null) {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+			name = null;
+		}
+	}
+
+	/**
+	 * Returns the name the metrics are registered under.
+	 *
+	 * @return Returns the name, or null if the metrics are not registered.
+	 */
+	public synchronized ObjectName getObjectName() {
+		return name;
+	}
+}
@@ -0,0 +1,81 @@
+
+/**
+ * The management interface of AutomatonMetrics, which JMX consoles such as JConsole show as attributes
+ * and operations.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public interface AutomatonMetricsMBean {
+
+	/**
+	 * Returns the number of generations computed.
+	 *
+	 * @return Returns the number of generations.
+	 */
+	long getGenerationsComputed();
+
+	/**
+	 * Returns the number of cells updated.
+	 *
+	 * @return Returns the number of cells.
+	 */
+	long getCellsUpdated();
+
+	/**
+	 * Returns the number of evolve calls that computed at least one generation.
+	 *
+	 * @return Returns the number of calls.
+	 */
+	long getEvolveCalls();
+
+	/**
+	 * Returns the total time spent evolving.
+	 *
+	 * @return Returns the time in nanoseconds.
+	 */
+	long getEvolveNanos();
+
+	/**
+	 * Returns the mean time per generation.
+	 *
+	 * @return Returns the time in nanoseconds, or 0 if no generation has been computed.
+	 */
+	double getMeanStepNanos();
+
+	/**
+	 * Returns the histogram of the time per generation.
+	 *
+	 * @return Returns the counts of the buckets; bucket b counts steps that took less than 2^b nanoseconds
+	 *         and at least half that.
+	 */
+	long[] getStepNanosHistogram();
+
+	/**
+	 * Returns an upper bound on the given percentile of the time per generation, read from the histogram.
+	 *
+	 * @param percentile  The percentile, from 0 to 100.
+	 * @return Returns the upper bound of the bucket the percentile falls in, in nanoseconds, or 0 if no
+	 *         generation has been computed.
+	 */
+	long getStepNanosPercentile(double percentile);
+
+	/**
+	 * Returns the number of bytes the history held after the last evolve call.
+	 *
+	 * @return Returns the number of bytes.
+	 */
+	long getHistoryBytesRetained();
+
+	/**
+	 * Returns the number of bytes written by saveEvolution.
+	 *
+	 * @return Returns the number of bytes.
+	 */
+	long getBytesWritten();
+
+	/**
+	 * Sets every counter back to zero.
+	 */
+	void reset();
+}
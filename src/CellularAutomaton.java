@@ -12,18 +12,54 @@ public enum CellularAutomaton {
 	/**
 	 * The cellular automaton type ECA.
 	 */
-	ECA,
+	ECA(1),
 	
 	/**
 	 * The cellular automaton type TCA.
 	 */
-	TCA;
+	TCA(2),
 	
 	/**
+	 * The general cellular automaton type GCA, any rule table of a neighborhood of any radius. At radius
+	 * 1 its rules are the elementary rules.
+	 */
+	GCA(1),
+	
+	/**
+	 * The general totalistic cellular automaton type GTCA, any totalistic rule of a neighborhood of any
+	 * radius. At radius 2 its rules are the totalistic rules.
+	 */
+	GTCA(2);
+	
+	/**
+	 * The radius of the rules of the type that are numbered with an int.
+	 */
+	private int radius;
+	
+	/**
+	 * Constructs the type.
 	 * 
-	 * @param s  The string input which is parsed to be either ECA or TCA.
+	 * @param radius  The radius of the rules of the type that are numbered with an int.
+	 */
+	CellularAutomaton(int radius) {
+		this.radius = radius;
+	}
+	
+	/**
+	 * Returns the radius of the rules Automaton.createAutomaton builds from an int rule number, which is
+	 * the only radius ECA and TCA rules have.
+	 * 
+	 * @return Returns the radius.
+	 */
+	public int getRadius() {
+		return radius;
+	}
+	
+	/**
+	 * 
+	 * @param s  The string input which is parsed to be ECA, TCA, GCA or GTCA.
 	 * @return Returns the cellular automaton type.
-	 * @throws CellularAutomatonNotFoundException If the cellular automaton type is not ECA or TCA.
+	 * @throws CellularAutomatonNotFoundException If the cellular automaton type is not ECA, TCA, GCA or GTCA.
 	 */
 	public static CellularAutomaton parse(String s) throws CellularAutomatonNotFoundException {
 		if (s.equalsIgnoreCase("ECA")) { 
@@ -32,6 +68,12 @@ public enum CellularAutomaton {
 		else if (s.equalsIgnoreCase("TCA")) {
 			return TCA;
 		}
+		else if (s.equalsIgnoreCase("GCA")) {
+			return GCA;
+		}
+		else if (s.equalsIgnoreCase("GTCA")) {
+			return GTCA;
+		}
 		else {
 			throw new CellularAutomatonNotFoundException(s);
 		}
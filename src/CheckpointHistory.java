@@ -0,0 +1,225 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * CheckpointHistory keeps only every K-th generation, plus the last one, and recomputes the generations in
+ * between from the checkpoint before them when they are read. Recomputed generations go into a small cache
+ * of the most recently read ones, and a read just after an earlier one evolves on from it instead of going
+ * back to the checkpoint, so reading the history in order costs one step per generation. Memory is
+ * O(steps / K). An adaptive history starts with K = 1 and doubles K, dropping every other checkpoint,
+ * whenever it would hold more than a set number of checkpoints.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class CheckpointHistory extends GenerationHistory {
+
+	/**
+	 * The rule that recomputes the generations between checkpoints.
+	 */
+	private Rule rule;
+
+	/**
+	 * The number of generations from one checkpoint to the next.
+	 */
+	private int interval;
+
+	/**
+	 * The interval the history started with, restored when it is cleared.
+	 */
+	private int initialInterval;
+
+	/**
+	 * The most checkpoints kept before the interval doubles.
+	 */
+	private int maxCheckpoints;
+
+	/**
+	 * The checkpoints; checkpoint j is the generation at index j * interval.
+	 */
+	private ArrayList<Generation> checkpoints = new ArrayList<Generation>();
+
+	/**
+	 * The last generation added.
+	 */
+	private Generation last;
+
+	/**
+	 * The number of generations in the history.
+	 */
+	private int size;
+
+	/**
+	 * The most recently read generations, by index.
+	 */
+	private LinkedHashMap<Integer, Generation> cache;
+
+	/**
+	 * The index of the generation read last, or -1.
+	 */
+	private int recentIndex = -1;
+
+	/**
+	 * The generation read last.
+	 */
+	private Generation recent;
+
+	/**
+	 * Creates a history that keeps every interval-th generation.
+	 *
+	 * @param interval  The number of generations from one checkpoint to the next.
+	 * @param cacheSize  The number of recomputed generations to cache.
+	 * @throws IllegalArgumentException If interval is not positive or cacheSize is negative.
+	 */
+	public CheckpointHistory(int interval, int cacheSize) {
+		this(interval, Integer.MAX_VALUE, cacheSize);
+	}
+
+	/**
+	 * Creates a history.
+	 *
+	 * @param interval  The number of generations from one checkpoint to the next.
+	 * @param maxCheckpoints  The most checkpoints kept before the interval doubles.
+	 * @param cacheSize  The number of recomputed generations to cache.
+	 * @throws IllegalArgumentException If an argument is out of range.
+	 */
+	private CheckpointHistory(int interval, int maxCheckpoints, int cacheSize) {
+		if(interval < 1)
+			throw new IllegalArgumentException("interval must be positive.");
+		if(maxCheckpoints < 2)
+			throw new IllegalArgumentException("maxCheckpoints must be at least 2.");
+		if(cacheSize < 0)
+			throw new IllegalArgumentException("cacheSize must not be negative.");
+		this.interval = interval;
+		initialInterval = interval;
+		this.maxCheckpoints = maxCheckpoints;
+		cache = new LinkedHashMap<Integer, Generation>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Generation> eldest) {
+				return size() > cacheSize;
+			}
+		};
+	}
+
+	/**
+	 * Creates a history that keeps at most maxCheckpoints checkpoints, spacing them further apart as it grows.
+	 *
+	 * @param maxCheckpoints  The most checkpoints kept before the interval doubles.
+	 * @param cacheSize  The number of recomputed generations to cache.
+	 * @return Returns the history.
+	 * @throws IllegalArgumentException If maxCheckpoints is less than 2 or cacheSize is negative.
+	 */
+	public static CheckpointHistory adaptive(int maxCheckpoints, int cacheSize) {
+		return new CheckpointHistory(1, maxCheckpoints, cacheSize);
+	}
+
+	/**
+	 * Returns the number of generations from one checkpoint to the next.
+	 *
+	 * @return Returns the interval.
+	 */
+	public int getInterval() {
+		return interval;
+	}
+
+	/**
+	 * Returns the number of checkpoints kept.
+	 *
+	 * @return Returns the number of checkpoints.
+	 */
+	public int getCheckpointCount() {
+		return checkpoints.size();
+	}
+
+	/**
+	 * Gives the history the rule that recomputes its generations.
+	 */
+	void setRule(Rule rule) {
+		this.rule = rule;
+	}
+
+	/**
+	 * Adds a generation, keeping it if it falls on a checkpoint.
+	 */
+	public void add(Generation gen) {
+		if(size % interval == 0) {
+			checkpoints.add(gen);
+			if(checkpoints.size() > maxCheckpoints)
+				thin();
+		}
+		last = gen;
+		++size;
+	}
+
+	/**
+	 * Doubles the interval and drops the checkpoints that no longer fall on it.
+	 */
+	private void thin() {
+		int kept = 0;
+		for(int j = 0; j < checkpoints.size(); j += 2)
+			checkpoints.set(kept++, checkpoints.get(j));
+		checkpoints.subList(kept, checkpoints.size()).clear();
+		interval *= 2;
+	}
+
+	/**
+	 * Returns the generation at the given index, recomputing it if it is not stored or cached.
+	 *
+	 * @throws IllegalStateException If the generation must be recomputed and no rule has been set.
+	 */
+	public Generation get(int index) {
+		checkIndex(index);
+		if(index == size - 1)
+			return last;
+		if(index % interval == 0)
+			return checkpoints.get(index / interval);
+		Generation gen = cache.get(index);
+		if(gen != null)
+			return gen;
+		if(rule == null)
+			throw new IllegalStateException("No rule has been set.");
+		int start = index - index % interval;
+		gen = checkpoints.get(start / interval);
+		if(recent != null && recentIndex > start && recentIndex < index) {
+			start = recentIndex;
+			gen = recent;
+		}
+		gen = rule.evolve(gen, index - start);
+		cache.put(index, gen);
+		recentIndex = index;
+		recent = gen;
+		return gen;
+	}
+
+	/**
+	 * Returns the bytes of the checkpoints, the cached generations and the last generation.
+	 */
+	public long getRetainedBytes() {
+		if(last == null)
+			return 0;
+		return (long) (checkpoints.size() + cache.size() + 1) * last.getWordCount() * Long.BYTES;
+	}
+
+	/**
+	 * Returns the number of generations in the history.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every generation from the history and restores the starting interval.
+	 */
+	public void clear() {
+		checkpoints.clear();
+		cache.clear();
+		last = null;
+		recent = null;
+		recentIndex = -1;
+		size = 0;
+		interval = initialInterval;
+	}
+}
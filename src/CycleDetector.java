@@ -0,0 +1,195 @@
+
+/**
+ * CycleDetector watches the generations of a run and finds the cycle every run on a finite, wrapping lattice
+ * eventually falls into. It uses Brent's algorithm, so while it is looking it keeps only one earlier generation
+ * and compares each new generation against it by hash and then by cells. Once the period is known, the
+ * transient is found by replaying the rule from the first generation, and the cycle is kept so that any later
+ * generation can be looked up instead of computed.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class CycleDetector {
+
+	/**
+	 * The most words of cycle generations kept for lookups. Longer cycles are recomputed from their start.
+	 */
+	static final long MAX_STORED_WORDS = 1L << 22;
+
+	/**
+	 * The rule that evolves the generations.
+	 */
+	private Rule rule;
+
+	/**
+	 * The first generation the detector saw.
+	 */
+	private Generation first;
+
+	/**
+	 * The step number of the first generation.
+	 */
+	private int firstStep;
+
+	/**
+	 * The step number of the last generation the detector saw.
+	 */
+	private int lastStep;
+
+	/**
+	 * The generation every new generation is compared against.
+	 */
+	private Generation tortoise;
+
+	/**
+	 * The number of steps the tortoise stays put before it jumps ahead.
+	 */
+	private int power = 1;
+
+	/**
+	 * The number of steps since the tortoise last jumped.
+	 */
+	private int lambda;
+
+	/**
+	 * The step number at which the cycle starts, or -1 if no cycle has been found.
+	 */
+	private int cycleStart = -1;
+
+	/**
+	 * The length of the cycle, or -1 if no cycle has been found.
+	 */
+	private int period = -1;
+
+	/**
+	 * The generations of the cycle, or null if the cycle is too long to keep.
+	 */
+	private Generation[] cycle;
+
+	/**
+	 * The first generation of the cycle.
+	 */
+	private Generation cycleBase;
+
+	/**
+	 * Creates a detector that starts at the given generation.
+	 *
+	 * @param rule  The rule that evolves the generations.
+	 * @param first  The first generation.
+	 * @param firstStep  The step number of the first generation.
+	 */
+	public CycleDetector(Rule rule, Generation first, int firstStep) {
+		this.rule = rule;
+		this.first = first;
+		this.firstStep = firstStep;
+		lastStep = firstStep;
+		tortoise = first;
+	}
+
+	/**
+	 * Shows the detector the generation after the last one it saw.
+	 *
+	 * @param gen  The next generation.
+	 * @return Returns true if a cycle has been found.
+	 */
+	public boolean add(Generation gen) {
+		if(isCycleFound())
+			return true;
+		++lastStep;
+		++lambda;
+		if(gen.equals(tortoise)) {
+			findCycle(lambda);
+			return true;
+		}
+		if(lambda == power) {
+			tortoise = gen;
+			power *= 2;
+			lambda = 0;
+		}
+		return false;
+	}
+
+	/**
+	 * Finds where the cycle of the given period starts by stepping a second run period steps ahead of the
+	 * first until they meet, then keeps the generations of the cycle.
+	 *
+	 * @param cycleLength  The period of the cycle.
+	 */
+	private void findCycle(int cycleLength) {
+		Generation behind = first;
+		Generation ahead = rule.evolve(first, cycleLength);
+		int start = firstStep;
+		while(!behind.equals(ahead)) {
+			behind = rule.evolve(behind);
+			ahead = rule.evolve(ahead);
+			++start;
+		}
+		cycleBase = behind;
+		if((long) cycleLength * behind.getWordCount() <= MAX_STORED_WORDS) {
+			cycle = new Generation[cycleLength];
+			cycle[0] = behind;
+			for(int i = 1; i < cycleLength; ++i)
+				cycle[i] = rule.evolve(cycle[i - 1]);
+		}
+		period = cycleLength;
+		cycleStart = start;
+		first = null;
+		tortoise = null;
+	}
+
+	/**
+	 * Returns whether a cycle has been found.
+	 *
+	 * @return Returns true if a cycle has been found.
+	 */
+	public boolean isCycleFound() {
+		return period > 0;
+	}
+
+	/**
+	 * Returns the step number at which the cycle starts, which is the length of the transient when the
+	 * detector started at step zero.
+	 *
+	 * @return Returns the start of the cycle, or -1 if no cycle has been found.
+	 */
+	public int getTransientLength() {
+		return cycleStart;
+	}
+
+	/**
+	 * Returns the number of generations in the cycle.
+	 *
+	 * @return Returns the period, or -1 if no cycle has been found.
+	 */
+	public int getPeriod() {
+		return period;
+	}
+
+	/**
+	 * Returns the step number of the last generation the detector saw.
+	 *
+	 * @return Returns the last step.
+	 */
+	public int getLastStep() {
+		return lastStep;
+	}
+
+	/**
+	 * Returns the generation at the given step from the cycle.
+	 *
+	 * @param stepNum  The step number, no earlier than the start of the cycle.
+	 * @return Returns the generation.
+	 * @throws IllegalStateException If no cycle has been found.
+	 * @throws IllegalArgumentException If the step is before the start of the cycle.
+	 */
+	public Generation getGeneration(int stepNum) {
+		if(!isCycleFound())
+			throw new IllegalStateException("No cycle has been found.");
+		if(stepNum < cycleStart)
+			throw new IllegalArgumentException("Generation " + stepNum + " is before the cycle starts.");
+		int offset = (int) (((long) stepNum - cycleStart) % period);
+		if(cycle != null)
+			return cycle[offset];
+		return rule.evolve(cycleBase, offset);
+	}
+}
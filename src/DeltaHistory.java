@@ -0,0 +1,302 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * DeltaHistory keeps every generation compressed. Consecutive generations of most rules differ in few cells,
+ * so each row is stored as the XOR of its packed words with the row before it, which is mostly zero words,
+ * and deflated. Every K-th row is a keyframe stored whole, so reading a row inflates at most K rows. The last
+ * generation is also kept as it is, since it is read every step and the next delta is taken against it, and
+ * the row read last is remembered so reading in order inflates one row per generation.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class DeltaHistory extends GenerationHistory {
+
+	/**
+	 * The default number of rows from one keyframe to the next.
+	 */
+	public static final int DEFAULT_KEYFRAME_INTERVAL = 64;
+
+	/**
+	 * The number of rows from one keyframe to the next.
+	 */
+	private int keyframeInterval;
+
+	/**
+	 * The deflated rows.
+	 */
+	private ArrayList<byte[]> rows = new ArrayList<byte[]>();
+
+	/**
+	 * The number of cells in every generation.
+	 */
+	private int width = -1;
+
+	/**
+	 * The last generation, or null until it is decoded after loading rows.
+	 */
+	private Generation last;
+
+	/**
+	 * The index of the row read last, or -1.
+	 */
+	private int recentIndex = -1;
+
+	/**
+	 * The words of the row read last.
+	 */
+	private long[] recent;
+
+	/**
+	 * The total size of the deflated rows in bytes.
+	 */
+	private long compressedBytes;
+
+	/**
+	 * The compressor, reused for every row.
+	 */
+	private Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+
+	/**
+	 * The decompressor, reused for every row.
+	 */
+	private Inflater inflater = new Inflater(true);
+
+	/**
+	 * The bytes of the row being compressed or decompressed.
+	 */
+	private ByteBuffer rowBytes = ByteBuffer.allocate(0);
+
+	/**
+	 * The buffer the deflater writes into.
+	 */
+	private byte[] output = new byte[0];
+
+	/**
+	 * Creates a history with the default keyframe interval.
+	 */
+	public DeltaHistory() {
+		this(DEFAULT_KEYFRAME_INTERVAL);
+	}
+
+	/**
+	 * Creates a history.
+	 *
+	 * @param keyframeInterval  The number of rows from one keyframe to the next.
+	 * @throws IllegalArgumentException If keyframeInterval is not positive.
+	 */
+	public DeltaHistory(int keyframeInterval) {
+		if(keyframeInterval < 1)
+			throw new IllegalArgumentException("keyframeInterval must be positive.");
+		this.keyframeInterval = keyframeInterval;
+	}
+
+	/**
+	 * Returns the number of rows from one keyframe to the next.
+	 *
+	 * @return Returns the keyframe interval.
+	 */
+	public int getKeyframeInterval() {
+		return keyframeInterval;
+	}
+
+	/**
+	 * Returns the total size of the deflated rows.
+	 *
+	 * @return Returns the number of bytes.
+	 */
+	public long getCompressedBytes() {
+		return compressedBytes;
+	}
+
+	/**
+	 * Adds a generation as a keyframe or as the delta from the last one.
+	 *
+	 * @throws IllegalArgumentException If the generation has a different number of cells from the others.
+	 */
+	public void add(Generation gen) {
+		if(width < 0)
+			width = gen.size();
+		else if(gen.size() != width)
+			throw new IllegalArgumentException("Generation must have " + width + " cells.");
+		long[] words = gen.words();
+		long[] delta = words;
+		if(rows.size() % keyframeInterval != 0) {
+			long[] previous = getLast().words();
+			delta = new long[words.length];
+			for(int i = 0; i < words.length; ++i)
+				delta[i] = words[i] ^ previous[i];
+		}
+		addRow(deflate(delta));
+		last = gen;
+	}
+
+	/**
+	 * Adds a row that is already deflated, as stored by getRow.
+	 *
+	 * @param row  The deflated row.
+	 * @param size  The number of cells in every generation.
+	 */
+	void addRow(byte[] row, int size) {
+		width = size;
+		addRow(row);
+		last = null;
+	}
+
+	/**
+	 * Appends a deflated row.
+	 *
+	 * @param row  The deflated row.
+	 */
+	private void addRow(byte[] row) {
+		rows.add(row);
+		compressedBytes += row.length;
+	}
+
+	/**
+	 * Returns a deflated row, a keyframe if its index is a multiple of the keyframe interval and a delta
+	 * from the row before it otherwise.
+	 *
+	 * @param index  The index of the row.
+	 * @return Returns the deflated row.
+	 */
+	byte[] getRow(int index) {
+		checkIndex(index);
+		return rows.get(index);
+	}
+
+	/**
+	 * Returns the generation at the given index, inflating it from the keyframe before it, or from the
+	 * row read last if that is nearer.
+	 *
+	 * @throws IllegalStateException If a row is corrupt.
+	 */
+	public Generation get(int index) {
+		checkIndex(index);
+		if(index == rows.size() - 1 && last != null)
+			return last;
+		int start = index - index % keyframeInterval;
+		long[] words;
+		if(recent != null && recentIndex >= start && recentIndex <= index) {
+			words = recent.clone();
+			start = recentIndex + 1;
+		}
+		else {
+			words = inflate(rows.get(start));
+			++start;
+		}
+		for(int i = start; i <= index; ++i) {
+			long[] delta = inflate(rows.get(i));
+			for(int j = 0; j < words.length; ++j)
+				words[j] ^= delta[j];
+		}
+		recentIndex = index;
+		recent = words.clone();
+		Generation gen = Generation.wrap(words, width);
+		if(index == rows.size() - 1)
+			last = gen;
+		return gen;
+	}
+
+	/**
+	 * Returns the total size of the deflated rows, which is all the history holds of its generations.
+	 */
+	public long getRetainedBytes() {
+		return compressedBytes;
+	}
+
+	/**
+	 * Returns the number of generations in the history.
+	 */
+	public int size() {
+		return rows.size();
+	}
+
+	/**
+	 * Removes every generation from the history.
+	 */
+	public void clear() {
+		rows.clear();
+		width = -1;
+		last = null;
+		recent = null;
+		recentIndex = -1;
+		compressedBytes = 0;
+	}
+
+	/**
+	 * Releases the compressor and decompressor.
+	 */
+	public void close() {
+		deflater.end();
+		inflater.end();
+	}
+
+	/**
+	 * Deflates packed words.
+	 *
+	 * @param words  The words.
+	 * @return Returns the deflated bytes.
+	 */
+	private byte[] deflate(long[] words) {
+		ByteBuffer bytes = rowBuffer(words.length);
+		bytes.asLongBuffer().put(words);
+		deflater.reset();
+		deflater.setInput(bytes.array(), 0, words.length * Long.BYTES);
+		deflater.finish();
+		int length = 0;
+		while(!deflater.finished()) {
+			if(length == output.length)
+				output = Arrays.copyOf(output, Math.max(64, output.length * 2));
+			length += deflater.deflate(output, length, output.length - length);
+		}
+		return Arrays.copyOf(output, length);
+	}
+
+	/**
+	 * Inflates a row into packed words.
+	 *
+	 * @param row  The deflated row.
+	 * @return Returns the words.
+	 * @throws IllegalStateException If the row is corrupt.
+	 */
+	private long[] inflate(byte[] row) {
+		int wordCount = Generation.wordsFor(width);
+		ByteBuffer bytes = rowBuffer(wordCount);
+		inflater.reset();
+		inflater.setInput(row);
+		try {
+			int length = 0;
+			while(length < wordCount * Long.BYTES) {
+				int n = inflater.inflate(bytes.array(), length, wordCount * Long.BYTES - length);
+				if(n == 0 && (inflater.finished() || inflater.needsInput()))
+					throw new IllegalStateException("A history row is corrupt.");
+				length += n;
+			}
+		} catch (DataFormatException e) {
+			throw new IllegalStateException("A history row is corrupt.", e);
+		}
+		long[] words = new long[wordCount];
+		bytes.asLongBuffer().get(words);
+		return words;
+	}
+
+	/**
+	 * Returns the reusable byte buffer, big enough for the given number of words.
+	 *
+	 * @param wordCount  The number of words.
+	 * @return Returns the buffer, positioned at zero.
+	 */
+	private ByteBuffer rowBuffer(int wordCount) {
+		if(rowBytes.capacity() < wordCount * Long.BYTES)
+			rowBytes = ByteBuffer.allocate(wordCount * Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		rowBytes.clear();
+		return rowBytes;
+	}
+}
@@ -33,6 +33,42 @@ public class ElementaryAutomaton extends Automaton{
 		super(filename);
 	}
 	
+	/**
+	 * Selects the engine the rule uses to jump many steps ahead. Jumps happen while history is not being
+	 * recorded, so HASHLIFE pays off together with setRecordHistory(false).
+	 * 
+	 * @param engine  The engine to use.
+	 */
+	public void setEngine(ElementaryEngine engine) {
+		((ElementaryRule) getRule()).setEngine(engine);
+	}
+	
+	/**
+	 * Returns the engine the rule uses to jump many steps ahead.
+	 * 
+	 * @return Returns the engine.
+	 */
+	public ElementaryEngine getEngine() {
+		return ((ElementaryRule) getRule()).getEngine();
+	}
+	
+	/**
+	 * Sets the most nodes the HashLife engine keeps before evicting the least recently used ones.
+	 * 
+	 * @param maxNodes  The most nodes to keep.
+	 * @throws IllegalArgumentException If maxNodes is not positive.
+	 */
+	public void setMaxNodes(int maxNodes) {
+		((ElementaryRule) getRule()).setMaxNodes(maxNodes);
+	}
+	
+	/**
+	 * Returns the type ECA.
+	 */
+	public CellularAutomaton getCellularAutomaton() {
+		return CellularAutomaton.ECA;
+	}
+	
 	/**
 	 * Creates a rule in type ECA.
 	 */
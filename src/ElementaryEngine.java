@@ -0,0 +1,21 @@
+
+/**
+ * ElementaryEngine is an enum representing the ways an ElementaryRule can jump a generation many steps ahead.
+ * Single steps always use the word engine.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public enum ElementaryEngine {
+
+	/**
+	 * Steps the word engine once per generation, with multi-step tables for narrow generations.
+	 */
+	STANDARD,
+
+	/**
+	 * Jumps ahead in powers of two through a memoized HashLife tree, which pays off on structured
+	 * patterns and very large step counts.
+	 */
+	HASHLIFE;
+}
@@ -1,4 +1,6 @@
+import java.lang.ref.SoftReference;
 import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * ElementaryRule represents any one of the 256 rules that govern the evolution of elementary CAs.
@@ -13,6 +15,54 @@ public class ElementaryRule extends Rule {
 	 */
 	private String binary;
 	
+	/**
+	 * The rule bits expanded into word masks, indexed by the neighborhood value 4 * left + 2 * center + right.
+	 */
+	private long[] masks;
+	
+	/**
+	 * Generations no wider than this many words are advanced through the multi-step table.
+	 */
+	static final int MAX_TABLE_WORDS = 4;
+	
+	/**
+	 * The table that advances narrow generations several steps per lookup, built on first use.
+	 */
+	private MultiStepTable multiStepTable;
+	
+	/**
+	 * The engine used to jump many steps ahead.
+	 */
+	private ElementaryEngine engine = ElementaryEngine.STANDARD;
+	
+	/**
+	 * The most nodes the HashLife engine keeps.
+	 */
+	private int maxNodes = HashLife.DEFAULT_MAX_NODES;
+	
+	/**
+	 * The HashLife engine of the canonical rule, found or built on first use.
+	 */
+	private HashLife hashLife;
+	
+	/**
+	 * The transform between this rule and its canonical rule.
+	 */
+	private RuleTransform canonicalTransform;
+	
+	/**
+	 * The multi-step tables of the canonical rules, shared by every rule in their class. They are only
+	 * softly reachable from here, so the collector may drop the tables no rule is using.
+	 */
+	private static final AtomicReferenceArray<SoftReference<MultiStepTable>> SHARED_TABLES =
+			new AtomicReferenceArray<SoftReference<MultiStepTable>>(256);
+	
+	/**
+	 * The HashLife engines of the canonical rules, shared by every rule in their class, held the same way.
+	 */
+	private static final AtomicReferenceArray<SoftReference<HashLife>> SHARED_ENGINES =
+			new AtomicReferenceArray<SoftReference<HashLife>>(256);
+	
 	/**
 	 * Rule must be between 0 & 255
 	 * 
@@ -23,6 +73,8 @@ public class ElementaryRule extends Rule {
 		super(ruleNum);
 		if(ruleNum < 0 || ruleNum > 255)
 			throw new RuleNumException(0, 255);
+		masks = ruleMasks(ruleNum, 8);
+		canonicalTransform = getCanonicalTransform(ruleNum);
 	}
 	
 	/**
@@ -37,6 +89,226 @@ public class ElementaryRule extends Rule {
 		return false;
 	}
 	
+	/**
+	 * Evolves the generation 64 cells at a time, writing the words of the next generation into next. Each
+	 * word is the rule applied bitwise to the word and its copies shifted one cell to the left and right.
+	 * The first and last words wrap around the ends of the generation; every other word takes its
+	 * neighbors straight from the adjacent words in the WordKernel of the rule.
+	 * 
+	 * @param gen  The generation which is going to evolve, with at least one cell.
+	 * @param next  The array which receives the packed next generation.
+	 */
+	void evolveInto(Generation gen, long[] next) {
+		long[] words = gen.words();
+		int last = words.length - 1;
+		next[0] = evolveWord(gen.getWindow(-1), words[0], gen.getWindow(1));
+		getKernel().evolveElementary(masks, words, next, 1, last);
+		if(last > 0) {
+			int start = last * Generation.WORD_SIZE;
+			next[last] = evolveWord(gen.getWindow(start - 1), words[last], gen.getWindow(start + 1));
+		}
+	}
+	
+	/**
+	 * Evolves the generation numSteps times without keeping the generations in between, using the
+	 * selected ElementaryEngine. The HashLife engine belongs to the canonical rule, so the generation is
+	 * transformed into the canonical rule's terms and the result transformed back.
+	 */
+	public Generation evolve(Generation gen, int numSteps) {
+		if(engine == ElementaryEngine.HASHLIFE) {
+			HashLife life = getHashLife();
+			Generation result;
+			// Every rule in the class shares the engine, and they may be evolving on other threads.
+			synchronized(life) {
+				result = life.evolve(canonicalTransform.apply(gen), numSteps);
+			}
+			return canonicalTransform.apply(result);
+		}
+		return evolveStandard(gen, numSteps);
+	}
+	
+	/**
+	 * Evolves the generation numSteps times with the standard engine. Narrow generations jump six steps
+	 * per lookup in the MultiStepTable of the canonical rule, transformed into its terms and back; wider
+	 * ones are stepped by the word engine, which is faster than the table once the generation spans a
+	 * few words.
+	 * 
+	 * @param gen  The generation which is going to evolve.
+	 * @param numSteps  How many times the generation should evolve.
+	 * @return Returns the evolved generation.
+	 */
+	Generation evolveStandard(Generation gen, int numSteps) {
+		if(numSteps <= 0 || gen.size() == 0 || gen.getWordCount() > MAX_TABLE_WORDS)
+			return super.evolve(gen, numSteps);
+		MultiStepTable table = getMultiStepTable();
+		int jumps = numSteps / table.getSteps();
+		if(jumps == 0)
+			return super.evolve(gen, numSteps);
+		long[] current = new long[gen.getWordCount()];
+		long[] spare = new long[current.length];
+		table.evolveInto(canonicalTransform.apply(gen), current);
+		for(int jump = 1; jump < jumps; ++jump) {
+			table.evolveInto(Generation.wrap(current, gen.size()), spare);
+			long[] words = current;
+			current = spare;
+			spare = words;
+		}
+		return super.evolve(canonicalTransform.apply(Generation.wrap(current, gen.size())), numSteps % table.getSteps());
+	}
+	
+	/**
+	 * Selects the engine used to jump many steps ahead.
+	 * 
+	 * @param engine  The engine to use.
+	 */
+	public void setEngine(ElementaryEngine engine) {
+		this.engine = engine;
+	}
+	
+	/**
+	 * Returns the engine used to jump many steps ahead.
+	 * 
+	 * @return Returns the engine.
+	 */
+	public ElementaryEngine getEngine() {
+		return engine;
+	}
+	
+	/**
+	 * Sets the most nodes the HashLife engine keeps before evicting the least recently used ones. This
+	 * discards everything the engine has memoized so far.
+	 * 
+	 * @param maxNodes  The most nodes to keep.
+	 * @throws IllegalArgumentException If maxNodes is not positive.
+	 */
+	public void setMaxNodes(int maxNodes) {
+		if(maxNodes < 1)
+			throw new IllegalArgumentException("maxNodes must be positive.");
+		this.maxNodes = maxNodes;
+		hashLife = null;
+	}
+	
+	/**
+	 * Returns the HashLife engine of the canonical rule, sharing the one any rule in the class has built
+	 * with the same maxNodes, so results memoized for one rule serve all of them.
+	 * 
+	 * @return Returns the HashLife engine.
+	 */
+	HashLife getHashLife() {
+		if(hashLife == null) {
+			int canonical = getCanonicalRuleNum();
+			SoftReference<HashLife> shared = SHARED_ENGINES.get(canonical);
+			HashLife life = shared == null ? null : shared.get();
+			if(life == null || life.getMaxNodes() != maxNodes) {
+				life = new HashLife(getCanonicalRule(canonical), maxNodes);
+				SHARED_ENGINES.set(canonical, new SoftReference<HashLife>(life));
+			}
+			hashLife = life;
+		}
+		return hashLife;
+	}
+	
+	/**
+	 * Returns the table that advances the canonical rule six generations per lookup, sharing the one any
+	 * rule in the class has built.
+	 * 
+	 * @return Returns the multi-step table.
+	 */
+	MultiStepTable getMultiStepTable() {
+		if(multiStepTable == null) {
+			int canonical = getCanonicalRuleNum();
+			SoftReference<MultiStepTable> shared = SHARED_TABLES.get(canonical);
+			MultiStepTable table = shared == null ? null : shared.get();
+			if(table == null) {
+				table = new MultiStepTable(getCanonicalRule(canonical), 6, 4);
+				SHARED_TABLES.set(canonical, new SoftReference<MultiStepTable>(table));
+			}
+			multiStepTable = table;
+		}
+		return multiStepTable;
+	}
+	
+	/**
+	 * Returns the canonical rule, which is this rule itself if it is canonical.
+	 * 
+	 * @param canonical  The number of the canonical rule.
+	 * @return Returns the canonical rule.
+	 */
+	private ElementaryRule getCanonicalRule(int canonical) {
+		if(canonical == getRuleNum())
+			return this;
+		try {
+			return new ElementaryRule(canonical);
+		} catch (RuleNumException e) {
+			// Canonical rule numbers are always in range.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Applies the rule to 64 cells at once.
+	 * 
+	 * @param left  The left neighbors of the cells.
+	 * @param center  The cells.
+	 * @param right  The right neighbors of the cells.
+	 * @return Returns the next states of the cells.
+	 */
+	long evolveWord(long left, long center, long right) {
+		return select(masks, left, center, right);
+	}
+	
+	/**
+	 * Returns the canonical rule of the class this rule belongs to under mirroring and complementing,
+	 * which is the lowest numbered rule in the class.
+	 * 
+	 * @return Returns the number of the canonical rule.
+	 */
+	public int getCanonicalRuleNum() {
+		return getCanonicalRuleNum(getRuleNum());
+	}
+	
+	/**
+	 * Returns the transform that maps the canonical rule onto this one, so this rule run from a
+	 * generation g gives the transform of what the canonical rule gives from the transform of g.
+	 * 
+	 * @return Returns the transform from the canonical rule.
+	 */
+	public RuleTransform getCanonicalTransform() {
+		return canonicalTransform;
+	}
+	
+	/**
+	 * Returns the lowest numbered rule equivalent to the given one under mirroring and complementing.
+	 * 
+	 * @param ruleNum  The rule number, between 0 and 255.
+	 * @return Returns the number of the canonical rule.
+	 */
+	static int getCanonicalRuleNum(int ruleNum) {
+		return getCanonicalTransform(ruleNum).apply(ruleNum);
+	}
+	
+	/**
+	 * Returns the first transform that maps the given rule onto its canonical rule. Every transform undoes
+	 * itself, so it also maps the canonical rule back onto the given one.
+	 * 
+	 * @param ruleNum  The rule number, between 0 and 255.
+	 * @return Returns the transform between the rule and the canonical rule.
+	 */
+	static RuleTransform getCanonicalTransform(int ruleNum) {
+		RuleTransform best = RuleTransform.IDENTITY;
+		for(RuleTransform transform : RuleTransform.values())
+			if(transform.apply(ruleNum) < best.apply(ruleNum))
+				best = transform;
+		return best;
+	}
+	
+	/**
+	 * Returns the radius of the neighborhoods (ECA).
+	 */
+	public int getRadius() {
+		return 1;
+	}
+	
 	/**
 	 * Return the cell states in the neighborhood of the cell with the given index (ECA).
 	 */
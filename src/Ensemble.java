@@ -0,0 +1,308 @@
+import java.util.Random;
+
+/**
+ * Ensemble evolves up to 64 automata of the same rule and width at once, one per bit. The generations are
+ * stored bit-sliced: bit j of word i is cell i of member j, so the neighbors of a word of cells are simply
+ * the words beside it, and one bitwise evaluation of the rule advances the same cell of every member. This
+ * is the formula the word engine applies to 64 neighboring cells of one automaton, turned sideways to apply
+ * to 64 automata instead, so an ensemble of narrow automata runs as fast per cell as one wide automaton.
+ * Members go in and come out as ordinary Generations through a 64 by 64 bit transpose.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class Ensemble {
+
+	/**
+	 * The most members an ensemble holds.
+	 */
+	public static final int MAX_MEMBERS = Generation.WORD_SIZE;
+
+	/**
+	 * The rule every member evolves by.
+	 */
+	private Rule rule;
+
+	/**
+	 * The number of members.
+	 */
+	private int members;
+
+	/**
+	 * The number of cells of each member.
+	 */
+	private int width;
+
+	/**
+	 * The bit-sliced cells, bit j of word i being cell i of member j. The bits above the last member
+	 * evolve along with the others and are ignored.
+	 */
+	private long[] cells;
+
+	/**
+	 * The buffer the next generation is evolved into.
+	 */
+	private long[] spare;
+
+	/**
+	 * The number of steps the ensemble has evolved.
+	 */
+	private long steps;
+
+	/**
+	 * Creates an ensemble of the given generations.
+	 *
+	 * @param rule  The rule every member evolves by, an ElementaryRule or a TotalisticRule.
+	 * @param initial  The initial generation of each member.
+	 * @throws IllegalArgumentException If the rule is of another kind, there are no generations or more
+	 *         than MAX_MEMBERS, or they do not all have the same number of cells.
+	 */
+	public Ensemble(Rule rule, Generation... initial) {
+		this(rule, initial.length, initial.length > 0 ? initial[0].size() : 0);
+		for(Generation gen : initial)
+			if(gen.size() != width)
+				throw new IllegalArgumentException("Every member must have " + width + " cells.");
+		long[] block = new long[MAX_MEMBERS];
+		for(int w = 0; w < Generation.wordsFor(width); ++w) {
+			for(int j = 0; j < MAX_MEMBERS; ++j)
+				block[j] = j < members ? initial[j].getWord(w) : 0;
+			transpose(block);
+			int cellsInWord = Math.min(Generation.WORD_SIZE, width - w * Generation.WORD_SIZE);
+			System.arraycopy(block, 0, cells, w * Generation.WORD_SIZE, cellsInWord);
+		}
+	}
+
+	/**
+	 * Creates an ensemble with every cell false.
+	 *
+	 * @param rule  The rule every member evolves by.
+	 * @param members  The number of members.
+	 * @param width  The number of cells of each member.
+	 */
+	private Ensemble(Rule rule, int members, int width) {
+		if(!(rule instanceof ElementaryRule || rule instanceof TotalisticRule))
+			throw new IllegalArgumentException("Only ECA and TCA rules can evolve an ensemble.");
+		if(members < 1 || members > MAX_MEMBERS)
+			throw new IllegalArgumentException("An ensemble must have 1 to " + MAX_MEMBERS + " members.");
+		this.rule = rule;
+		this.members = members;
+		this.width = width;
+		cells = new long[width];
+		spare = new long[width];
+	}
+
+	/**
+	 * Creates an ensemble of random initial generations, each cell true with probability one half.
+	 *
+	 * @param rule  The rule every member evolves by, an ElementaryRule or a TotalisticRule.
+	 * @param members  The number of members.
+	 * @param width  The number of cells of each member.
+	 * @param random  The source of the random cells.
+	 * @return Returns the ensemble.
+	 * @throws IllegalArgumentException If the rule is of another kind or members is not between 1 and
+	 *         MAX_MEMBERS.
+	 */
+	public static Ensemble random(Rule rule, int members, int width, Random random) {
+		Ensemble ensemble = new Ensemble(rule, members, width);
+		long memberMask = ensemble.getMemberMask();
+		for(int i = 0; i < width; ++i)
+			ensemble.cells[i] = random.nextLong() & memberMask;
+		return ensemble;
+	}
+
+	/**
+	 * Returns the number of members.
+	 *
+	 * @return Returns the number of members.
+	 */
+	public int size() {
+		return members;
+	}
+
+	/**
+	 * Returns the number of cells of each member.
+	 *
+	 * @return Returns the width.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the number of steps the ensemble has evolved.
+	 *
+	 * @return Returns the number of steps.
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Evolves every member numSteps times.
+	 *
+	 * @param numSteps  How many times the members should evolve.
+	 */
+	public void evolve(int numSteps) {
+		if(width == 0 || numSteps <= 0)
+			return;
+		for(int step = 0; step < numSteps; ++step) {
+			if(rule instanceof ElementaryRule)
+				evolveElementary((ElementaryRule) rule, cells, spare);
+			else
+				evolveTotalistic((TotalisticRule) rule, cells, spare);
+			long[] words = cells;
+			cells = spare;
+			spare = words;
+		}
+		steps += numSteps;
+	}
+
+	/**
+	 * Evolves the bit-sliced cells of an elementary CA one step. Only the ends wrap around.
+	 *
+	 * @param rule  The rule.
+	 * @param cells  The cells.
+	 * @param next  The array which receives the next cells.
+	 */
+	private static void evolveElementary(ElementaryRule rule, long[] cells, long[] next) {
+		int last = cells.length - 1;
+		next[0] = rule.evolveWord(cells[last], cells[0], cells[Math.min(1, last)]);
+		for(int i = 1; i < last; ++i)
+			next[i] = rule.evolveWord(cells[i - 1], cells[i], cells[i + 1]);
+		if(last > 0)
+			next[last] = rule.evolveWord(cells[last - 1], cells[last], cells[0]);
+	}
+
+	/**
+	 * Evolves the bit-sliced cells of a totalistic CA one step. The two cells at each end wrap around.
+	 *
+	 * @param rule  The rule.
+	 * @param cells  The cells.
+	 * @param next  The array which receives the next cells.
+	 */
+	private static void evolveTotalistic(TotalisticRule rule, long[] cells, long[] next) {
+		int n = cells.length;
+		for(int i = 2; i < n - 2; ++i)
+			next[i] = rule.evolveWord(cells[i - 2], cells[i - 1], cells[i], cells[i + 1], cells[i + 2]);
+		for(int i = 0; i < Math.min(2, n); ++i)
+			next[i] = evolveWrapped(rule, cells, i);
+		for(int i = Math.max(2, n - 2); i < n; ++i)
+			next[i] = evolveWrapped(rule, cells, i);
+	}
+
+	/**
+	 * Evolves one word of totalistic cells, reading its neighbors around the ends.
+	 *
+	 * @param rule  The rule.
+	 * @param cells  The cells.
+	 * @param i  The index of the word.
+	 * @return Returns the next states of the cell in every member.
+	 */
+	private static long evolveWrapped(TotalisticRule rule, long[] cells, int i) {
+		int n = cells.length;
+		return rule.evolveWord(cells[Math.floorMod(i - 2, n)], cells[Math.floorMod(i - 1, n)], cells[i],
+				cells[(i + 1) % n], cells[(i + 2) % n]);
+	}
+
+	/**
+	 * Returns the current generation of one member.
+	 *
+	 * @param member  The index of the member.
+	 * @return Returns the generation.
+	 * @throws IndexOutOfBoundsException If there is no such member.
+	 */
+	public Generation getMember(int member) {
+		checkMember(member);
+		long[] words = new long[Generation.wordsFor(width)];
+		for(int i = 0; i < width; ++i)
+			words[i >>> 6] |= ((cells[i] >>> member) & 1L) << i;
+		return Generation.wrap(words, width);
+	}
+
+	/**
+	 * Returns the current generation of every member, transposing 64 cells of all the members at a time.
+	 *
+	 * @return Returns the generations, in the order of the members.
+	 */
+	public Generation[] getMembers() {
+		long[][] words = new long[members][Generation.wordsFor(width)];
+		long[] block = new long[MAX_MEMBERS];
+		for(int w = 0; w < Generation.wordsFor(width); ++w) {
+			int first = w * Generation.WORD_SIZE;
+			int cellsInWord = Math.min(Generation.WORD_SIZE, width - first);
+			System.arraycopy(cells, first, block, 0, cellsInWord);
+			for(int i = cellsInWord; i < MAX_MEMBERS; ++i)
+				block[i] = 0;
+			transpose(block);
+			for(int j = 0; j < members; ++j)
+				words[j][w] = block[j];
+		}
+		Generation[] gens = new Generation[members];
+		for(int j = 0; j < members; ++j)
+			gens[j] = Generation.wrap(words[j], width);
+		return gens;
+	}
+
+	/**
+	 * Returns the number of true cells of every member, counted without extracting the members.
+	 *
+	 * @return Returns the counts, in the order of the members.
+	 */
+	public int[] countTrue() {
+		int[] counts = new int[members];
+		long memberMask = getMemberMask();
+		for(long word : cells)
+			for(long bits = word & memberMask; bits != 0; bits &= bits - 1)
+				++counts[Long.numberOfTrailingZeros(bits)];
+		return counts;
+	}
+
+	/**
+	 * Returns the members that have at least one true cell, as a mask with bit j set for member j.
+	 *
+	 * @return Returns the mask of the living members.
+	 */
+	public long getLivingMembers() {
+		long living = 0;
+		for(long word : cells)
+			living |= word;
+		return living & getMemberMask();
+	}
+
+	/**
+	 * Returns the mask with one bit set for every member.
+	 *
+	 * @return Returns the mask of the members.
+	 */
+	private long getMemberMask() {
+		return members == MAX_MEMBERS ? -1L : (1L << members) - 1;
+	}
+
+	/**
+	 * Checks that a member exists.
+	 *
+	 * @param member  The index of the member.
+	 * @throws IndexOutOfBoundsException If there is no such member.
+	 */
+	private void checkMember(int member) {
+		if(member < 0 || member >= members)
+			throw new IndexOutOfBoundsException("Member " + member + " is outside the range [0, " + members + ").");
+	}
+
+	/**
+	 * Transposes a 64 by 64 bit matrix in place, so bit c of block[r] becomes bit r of block[c]. The
+	 * quadrants are swapped recursively, 32 by 32 first and single bits last, six passes in all.
+	 *
+	 * @param block  The 64 rows of the matrix.
+	 */
+	static void transpose(long[] block) {
+		long mask = 0x00000000FFFFFFFFL;
+		for(int j = 32; j != 0; j >>>= 1, mask ^= mask << j) {
+			for(int k = 0; k < 64; k = ((k | j) + 1) & ~j) {
+				long t = ((block[k] >>> j) ^ block[k | j]) & mask;
+				block[k | j] ^= t;
+				block[k] ^= t << j;
+			}
+		}
+	}
+}
@@ -0,0 +1,442 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * EvolutionFile reads and writes the binary evolution format. The file starts with a 32 byte header and is
+ * followed by one fixed-stride row per generation, each row the packed words of the generation, so a file
+ * takes one bit per cell where saveEvolution takes a byte or more. A compressed file instead stores the rows
+ * the way DeltaHistory does, each as an int length followed by the deflated keyframe or XOR delta, which
+ * shrinks the mostly repeated rows of typical runs far below one bit per cell. All values are little-endian.
+ * <pre>
+ * offset  size  field
+ *      0     4  magic "CAEV"
+ *      4     2  format version, 1
+ *      6     1  CellularAutomaton ordinal
+ *      7     1  flags, 1 if the rows are compressed
+ *      8     4  rule number
+ *     12     2  false symbol
+ *     14     2  true symbol
+ *     16     4  number of cells per generation
+ *     20     4  step number of the first row
+ *     24     4  number of rows
+ *     28     4  keyframe interval of compressed rows, 0 otherwise
+ *     32        rows of ceil(cells / 64) words each, or compressed rows
+ * </pre>
+ * Opening a file maps its rows in segments, so any generation is read in constant time without scanning
+ * the file. The rows of a compressed file are read in order through a small buffer into a DeltaHistory
+ * instead, which still holds them compressed. Either way, toAutomaton restores a run that carries on evolving from the last row.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class EvolutionFile implements Closeable {
+
+	/**
+	 * The first four bytes of every evolution file, "CAEV" read as a little-endian int.
+	 */
+	static final int MAGIC = 0x56454143;
+
+	/**
+	 * The version of the format written.
+	 */
+	static final short VERSION = 1;
+
+	/**
+	 * The size of the header in bytes.
+	 */
+	static final int HEADER_SIZE = 32;
+
+	/**
+	 * The flag marking a file whose rows are compressed.
+	 */
+	static final byte COMPRESSED = 1;
+
+	/**
+	 * The size of the buffer the rows of a compressed file are read through.
+	 */
+	static final int READ_BUFFER_BYTES = 1 << 16;
+
+	/**
+	 * The type of the automaton.
+	 */
+	private CellularAutomaton type;
+
+	/**
+	 * The rule number.
+	 */
+	private int ruleNum;
+
+	/**
+	 * The false symbol.
+	 */
+	private char falseSymbol;
+
+	/**
+	 * The true symbol.
+	 */
+	private char trueSymbol;
+
+	/**
+	 * The number of cells per generation.
+	 */
+	private int width;
+
+	/**
+	 * The step number of the first row.
+	 */
+	private int firstStep;
+
+	/**
+	 * The number of rows.
+	 */
+	private int rowCount;
+
+	/**
+	 * The number of words in every row.
+	 */
+	private int stride;
+
+	/**
+	 * The number of rows in every mapped segment.
+	 */
+	private int rowsPerSegment;
+
+	/**
+	 * The file.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The mapped segments of rows, viewed as words.
+	 */
+	private LongBuffer[] segments;
+
+	/**
+	 * The rows of a compressed file, or null.
+	 */
+	private DeltaHistory deltas;
+
+	/**
+	 * Opens an evolution file and maps its rows.
+	 *
+	 * @param filename  The name of the file.
+	 * @throws IOException If the file cannot be read or is not an evolution file.
+	 */
+	public EvolutionFile(String filename) throws IOException {
+		channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+		try {
+			if(readHeader()) {
+				readCompressedRows();
+				return;
+			}
+			segments = new LongBuffer[(rowCount + rowsPerSegment - 1) / rowsPerSegment];
+			long segmentBytes = (long) rowsPerSegment * stride * Long.BYTES;
+			long rowBytes = (long) rowCount * stride * Long.BYTES;
+			for(int i = 0; i < segments.length; ++i) {
+				long offset = i * segmentBytes;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + offset,
+						Math.min(segmentBytes, rowBytes - offset)).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+			}
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Reads and checks the header.
+	 *
+	 * @return Returns true if the rows are compressed.
+	 * @throws IOException If the header is not that of a complete evolution file.
+	 */
+	private boolean readHeader() throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		while(header.hasRemaining() && channel.read(header) >= 0)
+			;
+		if(header.hasRemaining() || header.getInt(0) != MAGIC)
+			throw new IOException("Not an evolution file.");
+		short version = header.getShort(4);
+		if(version != VERSION)
+			throw new IOException("Unsupported evolution file version " + version + ".");
+		int ordinal = header.get(6);
+		if(ordinal < 0 || ordinal >= CellularAutomaton.values().length)
+			throw new IOException("Unknown cellular automaton type " + ordinal + ".");
+		type = CellularAutomaton.values()[ordinal];
+		ruleNum = header.getInt(8);
+		falseSymbol = header.getChar(12);
+		trueSymbol = header.getChar(14);
+		width = header.getInt(16);
+		firstStep = header.getInt(20);
+		rowCount = header.getInt(24);
+		if(width < 0 || rowCount < 1)
+			throw new IOException("Not an evolution file.");
+		stride = Generation.wordsFor(width);
+		if((header.get(7) & COMPRESSED) != 0) {
+			int keyframeInterval = header.getInt(28);
+			if(keyframeInterval < 1)
+				throw new IOException("Not an evolution file.");
+			deltas = new DeltaHistory(keyframeInterval);
+			return true;
+		}
+		rowsPerSegment = stride == 0 ? rowCount
+				: Math.max(1, MappedHistory.SEGMENT_BYTES / (stride * Long.BYTES));
+		if(channel.size() < HEADER_SIZE + (long) rowCount * stride * Long.BYTES)
+			throw new IOException("The evolution file is truncated.");
+		return false;
+	}
+
+	/**
+	 * Reads the compressed rows that follow the header through a buffer of READ_BUFFER_BYTES, so a file of
+	 * any size is read without mapping it. A row longer than the buffer is read straight into its array.
+	 *
+	 * @throws IOException If the file cannot be read or is truncated.
+	 */
+	private void readCompressedRows() throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.flip();
+		for(int i = 0; i < rowCount; ++i) {
+			fill(buffer, Integer.BYTES);
+			int length = buffer.getInt();
+			if(length < 0)
+				throw new IOException("The evolution file is truncated.");
+			byte[] row = new byte[length];
+			int buffered = Math.min(length, buffer.remaining());
+			buffer.get(row, 0, buffered);
+			ByteBuffer rest = ByteBuffer.wrap(row, buffered, length - buffered);
+			while(rest.hasRemaining())
+				if(channel.read(rest) < 0)
+					throw new IOException("The evolution file is truncated.");
+			deltas.addRow(row, width);
+		}
+	}
+
+	/**
+	 * Reads from the file until the buffer holds at least the given number of bytes.
+	 *
+	 * @param buffer  The buffer, ready to be read from.
+	 * @param bytes  The number of bytes needed, at most the capacity of the buffer.
+	 * @throws IOException If the file cannot be read or ends first.
+	 */
+	private void fill(ByteBuffer buffer, int bytes) throws IOException {
+		if(buffer.remaining() >= bytes)
+			return;
+		buffer.compact();
+		while(buffer.position() < bytes)
+			if(channel.read(buffer) < 0)
+				throw new IOException("The evolution file is truncated.");
+		buffer.flip();
+	}
+
+	/**
+	 * Writes the recorded generations of an automaton as an evolution file.
+	 *
+	 * @param automaton  The automaton to save.
+	 * @param filename  The name of the file.
+	 * @throws IOException If the file cannot be written.
+	 * @throws IllegalArgumentException If the automaton is not one of the CellularAutomaton types.
+	 */
+	public static void save(Automaton automaton, String filename) throws IOException {
+		ByteBuffer header = header(automaton, (byte) 0, 0);
+		ByteBuffer row = ByteBuffer.allocate(automaton.getCurrentGeneration().getWordCount() * Long.BYTES)
+				.order(ByteOrder.LITTLE_ENDIAN);
+		try (FileChannel out = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(out, header);
+			for(int step = automaton.getFirstRetainedStep(); step <= automaton.getTotalSteps(); ++step) {
+				row.clear();
+				row.asLongBuffer().put(automaton.getGeneration(step).words());
+				write(out, row);
+			}
+		}
+	}
+
+	/**
+	 * Writes the recorded generations of an automaton as a compressed evolution file.
+	 *
+	 * @param automaton  The automaton to save.
+	 * @param filename  The name of the file.
+	 * @param keyframeInterval  The number of rows from one keyframe to the next.
+	 * @throws IOException If the file cannot be written.
+	 * @throws IllegalArgumentException If the automaton is not one of the CellularAutomaton types or
+	 *         keyframeInterval is not positive.
+	 */
+	public static void saveCompressed(Automaton automaton, String filename, int keyframeInterval) throws IOException {
+		ByteBuffer header = header(automaton, COMPRESSED, keyframeInterval);
+		try (DeltaHistory deltas = new DeltaHistory(keyframeInterval);
+				FileChannel out = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+						StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(out, header);
+			ByteBuffer length = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			for(int step = automaton.getFirstRetainedStep(); step <= automaton.getTotalSteps(); ++step) {
+				deltas.add(automaton.getGeneration(step));
+				byte[] row = deltas.getRow(deltas.size() - 1);
+				length.clear();
+				length.putInt(row.length).flip();
+				write(out, length);
+				write(out, ByteBuffer.wrap(row));
+			}
+		}
+	}
+
+	/**
+	 * Builds the header for the recorded generations of an automaton.
+	 *
+	 * @param automaton  The automaton to save.
+	 * @param flags  The flags.
+	 * @param keyframeInterval  The keyframe interval of compressed rows, or 0.
+	 * @return Returns the header, ready to be written.
+	 * @throws IllegalArgumentException If the automaton is not one of the CellularAutomaton types, or its
+	 *         rule has another radius than type.getRadius() or a number that does not fit in an int.
+	 */
+	private static ByteBuffer header(Automaton automaton, byte flags, int keyframeInterval) {
+		CellularAutomaton type = automaton.getCellularAutomaton();
+		if(type == null)
+			throw new IllegalArgumentException("Only ECA, TCA, GCA and GTCA automata can be saved.");
+		// The header has room for neither a radius nor a rule number larger than an int.
+		if(automaton.getRule().getRadius() != type.getRadius() || automaton.getRuleNum() < 0)
+			throw new IllegalArgumentException("Only " + type + " rules of radius " + type.getRadius()
+					+ " with int rule numbers can be saved.");
+		int first = automaton.getFirstRetainedStep();
+		ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putShort(VERSION).put((byte) type.ordinal()).put(flags)
+				.putInt(automaton.getRuleNum()).putChar(automaton.falseSymbol).putChar(automaton.trueSymbol)
+				.putInt(automaton.getCurrentGeneration().size()).putInt(first)
+				.putInt(automaton.getTotalSteps() - first + 1).putInt(keyframeInterval);
+		header.flip();
+		return header;
+	}
+
+	/**
+	 * Writes all of a buffer to the channel.
+	 *
+	 * @param out  The channel.
+	 * @param buffer  The bytes to write.
+	 * @throws IOException If the bytes cannot be written.
+	 */
+	private static void write(FileChannel out, ByteBuffer buffer) throws IOException {
+		while(buffer.hasRemaining())
+			out.write(buffer);
+	}
+
+	/**
+	 * Returns the type of the automaton.
+	 *
+	 * @return Returns the type.
+	 */
+	public CellularAutomaton getCellularAutomaton() {
+		return type;
+	}
+
+	/**
+	 * Returns the rule number.
+	 *
+	 * @return Returns the rule number.
+	 */
+	public int getRuleNum() {
+		return ruleNum;
+	}
+
+	/**
+	 * Returns the false symbol.
+	 *
+	 * @return Returns the false symbol.
+	 */
+	public char getFalseSymbol() {
+		return falseSymbol;
+	}
+
+	/**
+	 * Returns the true symbol.
+	 *
+	 * @return Returns the true symbol.
+	 */
+	public char getTrueSymbol() {
+		return trueSymbol;
+	}
+
+	/**
+	 * Returns the number of cells per generation.
+	 *
+	 * @return Returns the width.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the step number of the first row.
+	 *
+	 * @return Returns the first step.
+	 */
+	public int getFirstStep() {
+		return firstStep;
+	}
+
+	/**
+	 * Returns the step number of the last row.
+	 *
+	 * @return Returns the last step.
+	 */
+	public int getLastStep() {
+		return firstStep + rowCount - 1;
+	}
+
+	/**
+	 * Returns whether the rows of the file are compressed.
+	 *
+	 * @return Returns true if the rows are compressed.
+	 */
+	public boolean isCompressed() {
+		return deltas != null;
+	}
+
+	/**
+	 * Reads the generation of the given step straight from its mapped row, or inflates it from the
+	 * compressed rows.
+	 *
+	 * @param stepNum  The step number.
+	 * @return Returns the generation.
+	 * @throws IndexOutOfBoundsException If the file has no row for the step.
+	 */
+	public Generation getGeneration(int stepNum) {
+		if(stepNum < firstStep || stepNum > getLastStep())
+			throw new IndexOutOfBoundsException("Generation " + stepNum + " is not in the file.");
+		int row = stepNum - firstStep;
+		if(deltas != null)
+			return deltas.get(row);
+		long[] words = new long[stride];
+		if(stride > 0)
+			segments[row / rowsPerSegment].get((row % rowsPerSegment) * stride, words);
+		return Generation.wrap(words, width);
+	}
+
+	/**
+	 * Restores the automaton at its last row. The new automaton numbers that generation as the last step
+	 * in the file and carries on evolving from it; the earlier rows stay readable from this file.
+	 *
+	 * @return Returns the automaton.
+	 * @throws RuleNumException If the rule number is out of range for the type.
+	 */
+	public Automaton toAutomaton() throws RuleNumException {
+		Automaton automaton = Automaton.createAutomaton(type, ruleNum, getGeneration(getLastStep()));
+		automaton.falseSymbol = falseSymbol;
+		automaton.trueSymbol = trueSymbol;
+		automaton.resumeAt(getLastStep());
+		return automaton;
+	}
+
+	/**
+	 * Closes the file. The segments stay mapped until they are garbage collected.
+	 */
+	public void close() throws IOException {
+		if(deltas != null)
+			deltas.close();
+		channel.close();
+	}
+}
@@ -0,0 +1,338 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * EvolutionPipeline overlaps evolving an automaton with printing it. The calling thread evolves the automaton and
+ * publishes each generation's packed words into a bounded ring of slots. Renderer threads claim the published
+ * rows in turn and render them to symbols in the slot's byte buffer, and a writer thread writes the rendered
+ * slots to the output strictly in order. Each slot is free again only once the writer is done with it, so the
+ * evolution thread waits when it gets a whole ring ahead of the output. The threads hand rows to each other
+ * through sequence numbers alone: every wait spins briefly and then parks, and no locks are taken.
+ * The output is every row followed by the line separator, in the given charset, exactly as
+ * println(automaton) prints it on a PrintStream with that charset.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class EvolutionPipeline {
+
+	/**
+	 * The default number of slots in the ring.
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+
+	/**
+	 * The default number of renderer threads.
+	 */
+	public static final int DEFAULT_RENDERERS = 2;
+
+	/**
+	 * The number of times a waiting thread spins before it starts to park.
+	 */
+	private static final int SPINS = 100;
+
+	/**
+	 * How long a waiting thread parks at a time, in nanoseconds.
+	 */
+	private static final long PARK_NANOS = 10000;
+
+	/**
+	 * The number of slots in the ring.
+	 */
+	private int capacity;
+
+	/**
+	 * The number of renderer threads.
+	 */
+	private int renderers;
+
+	/**
+	 * The packed words of the row in each slot.
+	 */
+	private long[][] rows;
+
+	/**
+	 * The number of cells of the row in each slot.
+	 */
+	private int[] sizes;
+
+	/**
+	 * The rendered bytes of the row in each slot.
+	 */
+	private byte[][] lines;
+
+	/**
+	 * The number of rendered bytes in each slot.
+	 */
+	private int[] lengths;
+
+	/**
+	 * The sequence number of the last row published by the evolution thread.
+	 */
+	private AtomicLong published;
+
+	/**
+	 * The sequence number of the next row to be claimed by a renderer.
+	 */
+	private AtomicLong nextToRender;
+
+	/**
+	 * The sequence number of the row last rendered in each slot.
+	 */
+	private AtomicLongArray rendered;
+
+	/**
+	 * The sequence number of the last row written.
+	 */
+	private AtomicLong written;
+
+	/**
+	 * The first failure of any thread, which stops the others.
+	 */
+	private AtomicReference<Throwable> failure;
+
+	/**
+	 * The encoded false symbol.
+	 */
+	private byte[] falseBytes;
+
+	/**
+	 * The encoded true symbol.
+	 */
+	private byte[] trueBytes;
+
+	/**
+	 * The encoded line separator.
+	 */
+	private byte[] lineSeparator;
+
+	/**
+	 * Creates a pipeline with the default ring and number of renderers.
+	 */
+	public EvolutionPipeline() {
+		this(DEFAULT_CAPACITY, DEFAULT_RENDERERS);
+	}
+
+	/**
+	 * Creates a pipeline.
+	 *
+	 * @param capacity  The number of slots in the ring.
+	 * @param renderers  The number of renderer threads.
+	 * @throws IllegalArgumentException If capacity or renderers is not positive.
+	 */
+	public EvolutionPipeline(int capacity, int renderers) {
+		if(capacity < 1)
+			throw new IllegalArgumentException("capacity must be positive.");
+		if(renderers < 1)
+			throw new IllegalArgumentException("renderers must be positive.");
+		this.capacity = capacity;
+		this.renderers = renderers;
+	}
+
+	/**
+	 * Writes the rows as run does, encoded in the default charset. This suits a raw OutputStream; a
+	 * PrintStream such as System.out may encode with another charset, which should be passed instead.
+	 *
+	 * @param automaton  The automaton to evolve and write.
+	 * @param numSteps  How many times the automaton should evolve.
+	 * @param out  The stream the rows are written to. It is flushed but not closed.
+	 * @throws IOException If the rows cannot be written.
+	 */
+	public void run(Automaton automaton, int numSteps, OutputStream out) throws IOException {
+		run(automaton, numSteps, out, Charset.defaultCharset());
+	}
+
+	/**
+	 * Writes every retained generation of the automaton, then evolves it numSteps times and writes each new
+	 * generation, returning once everything has been written.
+	 *
+	 * @param automaton  The automaton to evolve and write.
+	 * @param numSteps  How many times the automaton should evolve.
+	 * @param out  The stream the rows are written to. It is flushed but not closed.
+	 * @param charset  The charset the symbols and line separator are encoded in.
+	 * @throws IOException If the rows cannot be written.
+	 */
+	public void run(Automaton automaton, int numSteps, OutputStream out, Charset charset) throws IOException {
+		falseBytes = String.valueOf(automaton.falseSymbol).getBytes(charset);
+		trueBytes = String.valueOf(automaton.trueSymbol).getBytes(charset);
+		lineSeparator = System.lineSeparator().getBytes(charset);
+		rows = new long[capacity][];
+		sizes = new int[capacity];
+		lines = new byte[capacity][0];
+		lengths = new int[capacity];
+		published = new AtomicLong(-1);
+		nextToRender = new AtomicLong();
+		rendered = new AtomicLongArray(capacity);
+		for(int i = 0; i < capacity; ++i)
+			rendered.set(i, -1);
+		written = new AtomicLong(-1);
+		failure = new AtomicReference<Throwable>();
+
+		int first = automaton.getFirstRetainedStep();
+		long last = (long) automaton.getTotalSteps() - first + Math.max(0, numSteps);
+		Thread[] threads = new Thread[renderers + 1];
+		for(int i = 0; i < renderers; ++i)
+			threads[i] = new Thread(() -> render(last), "EvolutionPipeline-render-" + i);
+		threads[renderers] = new Thread(() -> write(last, out), "EvolutionPipeline-write");
+		for(Thread thread : threads) {
+			thread.setDaemon(true);
+			thread.start();
+		}
+		try {
+			long seq = 0;
+			for(int step = first; step <= automaton.getTotalSteps() && failure.get() == null; ++step)
+				publish(seq++, automaton.getGeneration(step));
+			for(int step = 0; step < numSteps && failure.get() == null; ++step) {
+				automaton.evolve(1);
+				publish(seq++, automaton.getCurrentGeneration());
+			}
+		} catch (RuntimeException | Error e) {
+			failure.compareAndSet(null, e);
+		}
+		for(Thread thread : threads) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				failure.compareAndSet(null, e);
+				Thread.currentThread().interrupt();
+			}
+		}
+		Throwable cause = failure.get();
+		if(cause instanceof IOException)
+			throw (IOException) cause;
+		if(cause instanceof RuntimeException)
+			throw (RuntimeException) cause;
+		if(cause instanceof Error)
+			throw (Error) cause;
+		if(cause != null)
+			throw new IOException(cause);
+	}
+
+	/**
+	 * Copies a generation into its slot once the writer has freed it, then publishes it.
+	 *
+	 * @param seq  The sequence number of the row.
+	 * @param gen  The generation.
+	 */
+	private void publish(long seq, Generation gen) {
+		for(int spins = 0; written.get() < seq - capacity; ++spins) {
+			if(failure.get() != null)
+				return;
+			idle(spins);
+		}
+		int slot = (int) (seq % capacity);
+		if(rows[slot] == null || rows[slot].length != gen.getWordCount())
+			rows[slot] = new long[gen.getWordCount()];
+		System.arraycopy(gen.words(), 0, rows[slot], 0, gen.getWordCount());
+		sizes[slot] = gen.size();
+		published.set(seq);
+	}
+
+	/**
+	 * Claims published rows in turn and renders each into its slot, until the last row has been claimed.
+	 *
+	 * @param last  The sequence number of the last row.
+	 */
+	private void render(long last) {
+		try {
+			int spins = 0;
+			while(failure.get() == null) {
+				long seq = nextToRender.get();
+				if(seq > last)
+					return;
+				if(seq > published.get()) {
+					idle(spins++);
+					continue;
+				}
+				spins = 0;
+				if(!nextToRender.compareAndSet(seq, seq + 1))
+					continue;
+				int slot = (int) (seq % capacity);
+				renderSlot(slot);
+				rendered.set(slot, seq);
+			}
+		} catch (RuntimeException | Error e) {
+			failure.compareAndSet(null, e);
+		}
+	}
+
+	/**
+	 * Renders the row in a slot, followed by the line separator.
+	 *
+	 * @param slot  The slot.
+	 */
+	private void renderSlot(int slot) {
+		long[] words = rows[slot];
+		int size = sizes[slot];
+		int length = lineSeparator.length;
+		if(falseBytes.length == trueBytes.length)
+			length += size * falseBytes.length;
+		else {
+			int ones = 0;
+			for(long word : words)
+				ones += Long.bitCount(word);
+			length += ones * trueBytes.length + (size - ones) * falseBytes.length;
+		}
+		if(lines[slot].length < length)
+			lines[slot] = new byte[length];
+		byte[] line = lines[slot];
+		int pos = 0;
+		if(falseBytes.length == 1 && trueBytes.length == 1) {
+			byte falseByte = falseBytes[0];
+			byte trueByte = trueBytes[0];
+			for(int i = 0; i < size; ++i)
+				line[i] = ((words[i >>> 6] >>> i) & 1) != 0 ? trueByte : falseByte;
+			pos = size;
+		}
+		else {
+			for(int i = 0; i < size; ++i) {
+				byte[] symbol = ((words[i >>> 6] >>> i) & 1) != 0 ? trueBytes : falseBytes;
+				System.arraycopy(symbol, 0, line, pos, symbol.length);
+				pos += symbol.length;
+			}
+		}
+		System.arraycopy(lineSeparator, 0, line, pos, lineSeparator.length);
+		lengths[slot] = length;
+	}
+
+	/**
+	 * Writes the rendered rows in order, freeing each slot once its row is written.
+	 *
+	 * @param last  The sequence number of the last row.
+	 * @param out  The stream the rows are written to.
+	 */
+	private void write(long last, OutputStream out) {
+		try {
+			for(long seq = 0; seq <= last; ++seq) {
+				int slot = (int) (seq % capacity);
+				for(int spins = 0; rendered.get(slot) != seq; ++spins) {
+					if(failure.get() != null)
+						return;
+					idle(spins);
+				}
+				out.write(lines[slot], 0, lengths[slot]);
+				written.set(seq);
+			}
+			out.flush();
+		} catch (IOException | RuntimeException | Error e) {
+			failure.compareAndSet(null, e);
+		}
+	}
+
+	/**
+	 * Waits a moment for another thread, spinning at first and then parking.
+	 *
+	 * @param spins  The number of times the caller has already waited.
+	 */
+	private static void idle(int spins) {
+		if(spins < SPINS)
+			Thread.onSpinWait();
+		else
+			LockSupport.parkNanos(PARK_NANOS);
+	}
+}
@@ -0,0 +1,168 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * EvolutionWriter streams generations to a file, one line per generation, in the same format as
+ * Automaton.saveEvolution has always written: each cell as its symbol in the default charset, each line
+ * ended by the line separator. Each generation is rendered straight from its packed words into a reusable
+ * byte buffer, which is written through a FileChannel whenever it fills, so the writer holds the same few
+ * kilobytes however many generations pass through it.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class EvolutionWriter implements Closeable {
+
+	/**
+	 * The size of the byte buffer.
+	 */
+	static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * The file being written.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The rendered bytes waiting to be written.
+	 */
+	private byte[] bytes = new byte[BUFFER_SIZE];
+
+	/**
+	 * The buffer that writes the bytes to the channel.
+	 */
+	private ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+	/**
+	 * The number of bytes waiting to be written.
+	 */
+	private int count;
+
+	/**
+	 * The number of bytes written to the file so far.
+	 */
+	private long written;
+
+	/**
+	 * The encoded false symbol.
+	 */
+	private byte[] falseBytes;
+
+	/**
+	 * The encoded true symbol.
+	 */
+	private byte[] trueBytes;
+
+	/**
+	 * The encoded line separator.
+	 */
+	private byte[] lineSeparator;
+
+	/**
+	 * Opens the file for writing, replacing anything already in it.
+	 *
+	 * @param filename  The name of the file.
+	 * @param falseSymbol  The symbol of the false value.
+	 * @param trueSymbol  The symbol of the true value.
+	 * @throws IOException If the file cannot be opened.
+	 */
+	public EvolutionWriter(String filename, char falseSymbol, char trueSymbol) throws IOException {
+		Charset charset = Charset.defaultCharset();
+		falseBytes = String.valueOf(falseSymbol).getBytes(charset);
+		trueBytes = String.valueOf(trueSymbol).getBytes(charset);
+		lineSeparator = System.lineSeparator().getBytes(charset);
+		channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Writes the generation as one line.
+	 *
+	 * @param gen  The generation to write.
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void write(Generation gen) throws IOException {
+		if(falseBytes.length == 1 && trueBytes.length == 1)
+			writeSingleBytes(gen, falseBytes[0], trueBytes[0]);
+		else {
+			for(int i = 0; i < gen.size(); ++i)
+				put(gen.getState(i) ? trueBytes : falseBytes);
+		}
+		put(lineSeparator);
+	}
+
+	/**
+	 * Writes the cells of a generation whose symbols are one byte each, a word at a time.
+	 *
+	 * @param gen  The generation to write.
+	 * @param falseByte  The encoded false symbol.
+	 * @param trueByte  The encoded true symbol.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void writeSingleBytes(Generation gen, byte falseByte, byte trueByte) throws IOException {
+		int cell = 0;
+		for(int w = 0; w < gen.getWordCount(); ++w) {
+			long word = gen.getWord(w);
+			int cells = Math.min(Generation.WORD_SIZE, gen.size() - cell);
+			if(count + cells > bytes.length)
+				flush();
+			for(int i = 0; i < cells; ++i)
+				bytes[count + i] = ((word >>> i) & 1) != 0 ? trueByte : falseByte;
+			count += cells;
+			cell += cells;
+		}
+	}
+
+	/**
+	 * Adds bytes to the buffer, writing it out first if they do not fit.
+	 *
+	 * @param symbol  The bytes to add, fewer than BUFFER_SIZE.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private void put(byte[] symbol) throws IOException {
+		if(count + symbol.length > bytes.length)
+			flush();
+		System.arraycopy(symbol, 0, bytes, count, symbol.length);
+		count += symbol.length;
+	}
+
+	/**
+	 * Writes the buffered bytes to the file.
+	 *
+	 * @throws IOException If the file cannot be written.
+	 */
+	public void flush() throws IOException {
+		buffer.clear().limit(count);
+		while(buffer.hasRemaining())
+			channel.write(buffer);
+		written += count;
+		count = 0;
+	}
+
+	/**
+	 * Returns the number of bytes written to the file, not counting any still buffered.
+	 *
+	 * @return Returns the number of bytes.
+	 */
+	public long getBytesWritten() {
+		return written;
+	}
+
+	/**
+	 * Writes the buffered bytes and closes the file.
+	 *
+	 * @throws IOException If the file cannot be written or closed.
+	 */
+	public void close() throws IOException {
+		try {
+			flush();
+		} finally {
+			channel.close();
+		}
+	}
+}
@@ -0,0 +1,40 @@
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * EvolveEvent records one call to Automaton.evolve, a batch of steps computed together.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+@Name("cellularautomaton.Evolve")
+@Label("Evolve")
+@Description("A batch of generations computed by one call to Automaton.evolve")
+class EvolveEvent extends AutomatonEvent {
+
+	/**
+	 * The type of the event, which knows whether it is being recorded.
+	 */
+	private static final EventType TYPE = EventType.getEventType(EvolveEvent.class);
+
+	/**
+	 * The number of generations computed, which is also the number of steps after the first covered.
+	 */
+	@Label("Steps")
+	int steps;
+
+	/**
+	 * Returns a new event that has begun, if evolve events are being recorded.
+	 *
+	 * @return Returns the event, or null if evolve events are not being recorded.
+	 */
+	static EvolveEvent start() {
+		if(!TYPE.isEnabled())
+			return null;
+		EvolveEvent event = new EvolveEvent();
+		event.begin();
+		return event;
+	}
+}
@@ -0,0 +1,52 @@
+import java.math.BigInteger;
+
+/**
+ * Turns the Automaton to type GCA or GTCA, evolving by a GeneralRule or a GeneralTotalisticRule of any radius.
+ * 
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class GeneralAutomaton extends Automaton {
+	
+	/**
+	 * Constructs an Automaton that evolves by the given rule.
+	 * 
+	 * @param rule  The rule, a GeneralRule or a GeneralTotalisticRule.
+	 * @param initial  The initial generation.
+	 */
+	protected GeneralAutomaton(RadiusRule rule, Generation initial) {
+		super(rule, initial);
+	}
+	
+	/**
+	 * Returns the type GTCA for a totalistic rule and GCA otherwise.
+	 */
+	public CellularAutomaton getCellularAutomaton() {
+		return getRule() instanceof GeneralTotalisticRule ? CellularAutomaton.GTCA : CellularAutomaton.GCA;
+	}
+	
+	/**
+	 * Creates a rule of the same type and radius as the rule of the automaton.
+	 */
+	protected Rule createRule(int ruleNum) throws RuleNumException {
+		return createRule(getCellularAutomaton(), getRule().getRadius(), BigInteger.valueOf(ruleNum));
+	}
+	
+	/**
+	 * Creates a general rule.
+	 * 
+	 * @param ca  The type, GCA or GTCA.
+	 * @param radius  The number of cells to the left/right of a cell in its neighborhood.
+	 * @param ruleNumber  The rule number.
+	 * @return Returns the rule.
+	 * @throws RuleNumException If the rule number is out of range for the type and radius.
+	 * @throws IllegalArgumentException If the radius is out of range for the type.
+	 */
+	static RadiusRule createRule(CellularAutomaton ca, int radius, BigInteger ruleNumber) throws RuleNumException {
+		if(ca == CellularAutomaton.GCA)
+			return new GeneralRule(radius, ruleNumber);
+		if(ruleNumber.bitLength() >= Long.SIZE)
+			throw new RuleNumException(BigInteger.ZERO, BigInteger.valueOf(GeneralTotalisticRule.getMaxRuleNumber(radius)));
+		return new GeneralTotalisticRule(radius, ruleNumber.longValue());
+	}
+}
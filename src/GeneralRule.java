@@ -0,0 +1,111 @@
+import java.math.BigInteger;
+
+/**
+ * GeneralRule represents any rule of a two-state CA whose neighborhoods reach radius cells to either side.
+ * The rule number is the rule table read as a binary number: bit k is the next state of the neighborhood
+ * whose cells spell k in binary, leftmost cell first. A radius of 1 gives the 256 elementary rules with the
+ * same numbers, and a radius of r gives 2^(2^(2r+1)) rules, so the number is a BigInteger.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class GeneralRule extends RadiusRule {
+
+	/**
+	 * The largest radius, the largest that still has a dense table of every neighborhood.
+	 */
+	public static final int MAX_RADIUS = Rule.MAX_TABLE_RADIUS;
+
+	/**
+	 * Constructs the rule.
+	 *
+	 * @param radius  The number of cells to the left/right of a cell in its neighborhood.
+	 * @param ruleNumber  The rule number, between 0 and getMaxRuleNumber(radius).
+	 * @throws RuleNumException If the rule number is out of range.
+	 * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+	 */
+	public GeneralRule(int radius, BigInteger ruleNumber) throws RuleNumException {
+		super(checkRadius(radius), checkRuleNumber(radius, ruleNumber));
+	}
+
+	/**
+	 * Constructs the rule from a rule number that fits in a long.
+	 *
+	 * @param radius  The number of cells to the left/right of a cell in its neighborhood.
+	 * @param ruleNumber  The rule number, between 0 and getMaxRuleNumber(radius).
+	 * @throws RuleNumException If the rule number is out of range.
+	 * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+	 */
+	public GeneralRule(int radius, long ruleNumber) throws RuleNumException {
+		this(radius, BigInteger.valueOf(ruleNumber));
+	}
+
+	/**
+	 * Returns the largest rule number for the given radius, 2^(2^(2r+1)) - 1.
+	 *
+	 * @param radius  The number of cells to the left/right of a cell in its neighborhood.
+	 * @return Returns the largest rule number.
+	 * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+	 */
+	public static BigInteger getMaxRuleNumber(int radius) {
+		checkRadius(radius);
+		return BigInteger.ONE.shiftLeft(1 << (2 * radius + 1)).subtract(BigInteger.ONE);
+	}
+
+	/**
+	 * Checks that a radius is in range.
+	 *
+	 * @param radius  The radius.
+	 * @return Returns the radius.
+	 * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+	 */
+	private static int checkRadius(int radius) {
+		if(radius < 0 || radius > MAX_RADIUS)
+			throw new IllegalArgumentException("radius is outside the range [0, " + MAX_RADIUS + "].");
+		return radius;
+	}
+
+	/**
+	 * Checks that a rule number is in range for the radius.
+	 *
+	 * @param radius  The radius.
+	 * @param ruleNumber  The rule number.
+	 * @return Returns the rule number.
+	 * @throws RuleNumException If the rule number is out of range.
+	 */
+	private static BigInteger checkRuleNumber(int radius, BigInteger ruleNumber) throws RuleNumException {
+		BigInteger max = getMaxRuleNumber(radius);
+		if(ruleNumber.signum() < 0 || ruleNumber.compareTo(max) > 0)
+			throw new RuleNumException(BigInteger.ZERO, max);
+		return ruleNumber;
+	}
+
+	/**
+	 * Returns the neighborhood itself, which is the index of its bit in the rule number.
+	 */
+	int ruleBit(long code) {
+		return (int) code;
+	}
+
+	/**
+	 * Return a two-line representation of the rule table, in the layout of the elementary rule table.
+	 * The first line shows every neighborhood, all true first, separated by spaces; the second shows the
+	 * next state under the center of each neighborhood. The table has 2^(2r+1) columns.
+	 */
+	public String ruleTableString(char falseSymbol, char trueSymbol) {
+		int width = 2 * getRadius() + 1;
+		StringBuilder neighborhoods = new StringBuilder();
+		StringBuilder states = new StringBuilder();
+		for(int code = (1 << width) - 1; code >= 0; --code) {
+			for(int i = width - 1; i >= 0; --i)
+				neighborhoods.append(symbol(((code >>> i) & 1) != 0, falseSymbol, trueSymbol));
+			states.append(" ".repeat(getRadius())).append(symbol(getRuleNumber().testBit(code), falseSymbol, trueSymbol))
+					.append(" ".repeat(getRadius()));
+			if(code > 0) {
+				neighborhoods.append(' ');
+				states.append(' ');
+			}
+		}
+		return neighborhoods + System.lineSeparator() + states;
+	}
+}
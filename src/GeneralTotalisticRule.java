@@ -0,0 +1,137 @@
+import java.math.BigInteger;
+
+/**
+ * GeneralTotalisticRule represents any totalistic rule of a two-state CA whose neighborhoods reach radius
+ * cells to either side: the next state of a cell depends only on how many of the 2r + 1 cells of its
+ * neighborhood are true. Bit k of the rule number is the next state when k cells are true, so a radius of
+ * 2 gives the 64 totalistic rules with the same numbers, and a radius of r gives 2^(2r+2) rules. Rules
+ * too wide for a block table are evolved with a running count of the true cells in the neighborhood, which
+ * gains the cell entering on the right and loses the cell leaving on the left at every step.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class GeneralTotalisticRule extends RadiusRule {
+
+	/**
+	 * The largest radius, the largest whose rule numbers fit in a long.
+	 */
+	public static final int MAX_RADIUS = 30;
+
+	/**
+	 * Constructs the rule.
+	 *
+	 * @param radius  The number of cells to the left/right of a cell in its neighborhood.
+	 * @param ruleNumber  The rule number, between 0 and getMaxRuleNumber(radius).
+	 * @throws RuleNumException If the rule number is out of range.
+	 * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+	 */
+	public GeneralTotalisticRule(int radius, long ruleNumber) throws RuleNumException {
+		super(checkRadius(radius), BigInteger.valueOf(checkRuleNumber(radius, ruleNumber)));
+	}
+
+	/**
+	 * Returns the largest rule number for the given radius, 2^(2r+2) - 1.
+	 *
+	 * @param radius  The number of cells to the left/right of a cell in its neighborhood.
+	 * @return Returns the largest rule number.
+	 * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+	 */
+	public static long getMaxRuleNumber(int radius) {
+		checkRadius(radius);
+		return (1L << (2 * radius + 2)) - 1;
+	}
+
+	/**
+	 * Checks that a radius is in range.
+	 *
+	 * @param radius  The radius.
+	 * @return Returns the radius.
+	 * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+	 */
+	private static int checkRadius(int radius) {
+		if(radius < 0 || radius > MAX_RADIUS)
+			throw new IllegalArgumentException("radius is outside the range [0, " + MAX_RADIUS + "].");
+		return radius;
+	}
+
+	/**
+	 * Checks that a rule number is in range for the radius.
+	 *
+	 * @param radius  The radius.
+	 * @param ruleNumber  The rule number.
+	 * @return Returns the rule number.
+	 * @throws RuleNumException If the rule number is out of range.
+	 */
+	private static long checkRuleNumber(int radius, long ruleNumber) throws RuleNumException {
+		long max = getMaxRuleNumber(radius);
+		if(ruleNumber < 0 || ruleNumber > max)
+			throw new RuleNumException(BigInteger.ZERO, BigInteger.valueOf(max));
+		return ruleNumber;
+	}
+
+	/**
+	 * Returns the number of true cells in the neighborhood, which is the index of its bit in the rule number.
+	 */
+	int ruleBit(long code) {
+		return Long.bitCount(code);
+	}
+
+	/**
+	 * Evolves the generation through the block table if the rule has one, and otherwise with a running
+	 * count of the true cells in the neighborhood of each cell.
+	 */
+	void evolveInto(Generation gen, long[] next) {
+		if(getBlockSize() > 0) {
+			super.evolveInto(gen, next);
+			return;
+		}
+		long ruleNumber = getRuleNumber().longValue();
+		int size = gen.size();
+		int radius = getRadius();
+		int count = 0;
+		for(int i = -radius; i <= radius; ++i)
+			if(gen.getState(Math.floorMod(i, size)))
+				++count;
+		int incoming = Math.floorMod(radius + 1, size);
+		int outgoing = Math.floorMod(-radius, size);
+		long word = 0;
+		for(int i = 0; i < size; ++i) {
+			word |= ((ruleNumber >>> count) & 1L) << i;
+			if((i & 63) == 63) {
+				next[i >>> 6] = word;
+				word = 0;
+			}
+			if(gen.getState(incoming))
+				++count;
+			if(gen.getState(outgoing))
+				--count;
+			if(++incoming == size)
+				incoming = 0;
+			if(++outgoing == size)
+				outgoing = 0;
+		}
+		if((size & 63) != 0)
+			next[next.length - 1] = word;
+	}
+
+	/**
+	 * Return a two-line representation of the rule table, in the layout of the totalistic rule table. The
+	 * first line counts the true cells in a neighborhood down from 2r + 1 to 0; the second shows the next
+	 * state under each count.
+	 */
+	public String ruleTableString(char falseSymbol, char trueSymbol) {
+		StringBuilder counts = new StringBuilder();
+		StringBuilder states = new StringBuilder();
+		for(int count = 2 * getRadius() + 1; count >= 0; --count) {
+			String label = Integer.toString(count);
+			counts.append(label);
+			states.append(symbol(getRuleNumber().testBit(count), falseSymbol, trueSymbol));
+			if(count > 0) {
+				counts.append(' ');
+				states.append(" ".repeat(label.length()));
+			}
+		}
+		return counts + System.lineSeparator() + states;
+	}
+}
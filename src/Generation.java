@@ -1,125 +1,326 @@
 import java.util.Arrays;
 
 /**
- * This class represents a row of cells at a fixed time. Each Generation encapsulates a boolean array
- * that represents the cell states. The cells are indexed from left to right starting at zero, so the
- * state of the first cell is cellStates[0], the state of the second cell is cellStates[1], and so on.
- * 
+ * This class represents a row of cells at a fixed time. Each Generation encapsulates the cell states
+ * packed 64 to a long word. The cells are indexed from left to right starting at zero, so the state of
+ * cell idx is bit (idx % 64) of word (idx / 64). Bits past the last cell in the final word are always zero.
+ *
  * @author Joshua Wiseman
  * @version 0.1
  */
 public class Generation {
-	
+
+	/**
+	 * The number of cells stored in each word.
+	 */
+	static final int WORD_SIZE = 64;
+
 	/**
-	 * The boolean list of all the cells.
+	 * The packed words of all the cells.
 	 */
-	private boolean[] cellStates;
-	
+	private long[] cellWords;
+
+	/**
+	 * The number of cells.
+	 */
+	private int numCells;
+
+	/**
+	 * The hash of the cell states, or zero until it is computed.
+	 */
+	private int hash;
+
 	/**
 	 * Generation mehtod for no inputs
 	 */
 	public Generation() {
-		boolean[] nul = new boolean[1];
-		nul[0] = false;
-		cellStates = nul;
-		cellStates = Arrays.copyOf(cellStates, size());
+		this((boolean[]) null);
 	}
-	
+
 	/**
-	 * This class represents a row of cells at a fixed time. Each Generation encapsulates a boolean
-	 * array that represents the cell states. The cells are indexed from left to right starting at zero,
-	 * so the state of the first cell is cellStates[0], the state of the second cell is cellStates[1], and so on.
-	 * 
+	 * Creates a Generation with one cell for each of the given states, packed 64 to a long word. The cells
+	 * are indexed from left to right starting at zero, so cell i has the state states[i], which getState(i)
+	 * returns. If the method is given a null reference, it creates a Generation with one cell in the false state.
+	 *
 	 * @param states  A list of boolean values.
 	 */
 	public Generation(boolean... states) {
 		if(states == null) {
-			boolean[] nul = new boolean[1];
-			nul[0] = false;
-			cellStates = nul;
+			numCells = 1;
+			cellWords = new long[1];
+		}
+		else {
+			numCells = states.length;
+			cellWords = new long[wordsFor(numCells)];
+			for(int i = 0; i < numCells; ++i) {
+				if(states[i])
+					cellWords[i >>> 6] |= 1L << i;
+			}
 		}
-		else
-			cellStates = states;
-		cellStates = Arrays.copyOf(cellStates, size());
 	}
-	
+
 	/**
 	 * Creates a Generation with one cell for each character in the given String. If a character is equal to trueSymbol,
 	 * the state of the corresponding cell is true; otherwise, the state is false. If the String is empty ("") or the
 	 * method is given a null reference, this methods creates a Generation with one cell in the false state.
-	 * 
+	 *
 	 * @param states  A list of values represented as a String.
 	 * @param trueSymbol  The symbol of the true value.
 	 */
 	public Generation(String states, char trueSymbol) {
-		if(states == null || states.compareTo("") == 0) {
-			cellStates = new boolean[1];
-			cellStates[0] = false;
+		if(states == null || states.isEmpty()) {
+			numCells = 1;
+			cellWords = new long[1];
 		}
 		else {
-			cellStates = new boolean[states.length()];
-			for(int i = 0; i < size(); ++i)
-			{
-				if(states.charAt(i) == trueSymbol) {
-					cellStates[i] = true;
-				}
-				else
-					cellStates[i] = false;
+			numCells = states.length();
+			cellWords = new long[wordsFor(numCells)];
+			for(int i = 0; i < numCells; ++i) {
+				if(states.charAt(i) == trueSymbol)
+					cellWords[i >>> 6] |= 1L << i;
 			}
 		}
-		cellStates = Arrays.copyOf(cellStates, size());
 	}
-	
+
+	/**
+	 * Creates a Generation around already packed words.
+	 *
+	 * @param words  The packed cell states.
+	 * @param size  The number of cells.
+	 */
+	private Generation(long[] words, int size) {
+		numCells = size;
+		cellWords = words;
+		if(cellWords.length > 0)
+			cellWords[cellWords.length - 1] &= lastWordMask(size);
+	}
+
+	/**
+	 * Creates a Generation that takes ownership of already packed words. The array is not copied,
+	 * so the caller must not change it afterwards. Bits past the last cell are cleared.
+	 *
+	 * @param words  The packed cell states, wordsFor(size) long.
+	 * @param size  The number of cells.
+	 * @return Returns the generation backed by the words.
+	 */
+	static Generation wrap(long[] words, int size) {
+		return new Generation(words, size);
+	}
+
 	/**
 	 * Returns the state of the cell with the given index.
-	 * 
+	 *
 	 * @param idx  The index of the cell which the method checks.
 	 * @return Returns the state of the cell.
 	 */
 	public boolean getState(int idx) {
-		return Arrays.copyOf(cellStates, size())[idx];
+		if(idx < 0 || idx >= numCells)
+			throw new ArrayIndexOutOfBoundsException(idx);
+		return (cellWords[idx >>> 6] & (1L << idx)) != 0;
 	}
-	
+
 	/**
 	 * Returns an array with all of the cell states.
-	 * 
+	 *
 	 * @return Returns the array values of all the cells.
 	 */
 	public boolean[] getStates() {
-		return Arrays.copyOf(cellStates, size());
+		boolean[] states = new boolean[numCells];
+		for(int i = 0; i < numCells; ++i)
+			states[i] = (cellWords[i >>> 6] & (1L << i)) != 0;
+		return states;
 	}
-	
+
 	/**
 	 *  Returns a String representation of the cell states using falseSymbol and
 	 *  trueSymbol as the symbols for false and true, respectively.
-	 * 
+	 *
 	 * @param falseSymbol  The symbol of the false value.
 	 * @param trueSymbol  The symbol of the true value.
 	 * @return Returns the String of the states with the new symbols.
 	 */
 	public String getStates(char falseSymbol, char trueSymbol) {
-		String list = "";
-		for(int i = 0; i < size(); ++i) {
-			if(cellStates[i] == false)
-				list += falseSymbol;
-			else
-				list += trueSymbol;
-		}
-		return list;
+		char[] list = new char[numCells];
+		for(int i = 0; i < numCells; ++i)
+			list[i] = (cellWords[i >>> 6] & (1L << i)) != 0 ? trueSymbol : falseSymbol;
+		return new String(list);
 	}
-	
+
 	/**
 	 * Returns the number of cells.
 	 * @return Returns the number of cells.
 	 */
 	public int size() {
-		return cellStates.length;
+		return numCells;
+	}
+
+	/**
+	 * Returns the number of words the cells are packed into.
+	 *
+	 * @return Returns the number of words.
+	 */
+	public int getWordCount() {
+		return cellWords.length;
+	}
+
+	/**
+	 * Returns the word holding cells 64 * idx through 64 * idx + 63 without copying the generation.
+	 *
+	 * @param idx  The index of the word.
+	 * @return Returns the packed cells of the word.
+	 */
+	public long getWord(int idx) {
+		return cellWords[idx];
+	}
+
+	/**
+	 * Returns the number of cells in the true state.
+	 *
+	 * @return Returns the number of true cells.
+	 */
+	public int countTrue() {
+		int count = 0;
+		for(long word : cellWords)
+			count += Long.bitCount(word);
+		return count;
 	}
-	
+
+	/**
+	 * Returns the 64 cells starting at the given index packed into a word, wrapping around the ends
+	 * of the generation the same way Rule.getNeighborhoodByRadius does. Bit i of the result is the
+	 * state of cell (start + i) mod size().
+	 *
+	 * @param start  The index of the first cell, which may be negative or past the end.
+	 * @return Returns the packed cells.
+	 */
+	long getWindow(int start) {
+		int idx = Math.floorMod(start, numCells);
+		if(idx + WORD_SIZE <= numCells) {
+			int shift = idx & 63;
+			int word = idx >>> 6;
+			if(shift == 0)
+				return cellWords[word];
+			return (cellWords[word] >>> shift) | (cellWords[word + 1] << (WORD_SIZE - shift));
+		}
+		// Near the end the window is pieced together, restarting at cell zero each time it runs out.
+		long window = 0;
+		int filled = 0;
+		while(filled < WORD_SIZE) {
+			int take = Math.min(WORD_SIZE - filled, numCells - idx);
+			int shift = idx & 63;
+			int word = idx >>> 6;
+			long bits = cellWords[word] >>> shift;
+			if(shift + take > WORD_SIZE)
+				bits |= cellWords[word + 1] << (WORD_SIZE - shift);
+			if(take < WORD_SIZE)
+				bits &= (1L << take) - 1;
+			window |= bits << filled;
+			filled += take;
+			idx = 0;
+		}
+		return window;
+	}
+
+	/**
+	 * Returns the generation reversed from left to right, so cell i becomes cell size() - 1 - i. An
+	 * elementary rule run from the mirrored generation is the mirrored rule run from this one.
+	 *
+	 * @return Returns the mirrored generation.
+	 */
+	public Generation mirror() {
+		int wordCount = cellWords.length;
+		long[] reversed = new long[wordCount];
+		for(int i = 0; i < wordCount; ++i)
+			reversed[i] = Long.reverse(cellWords[wordCount - 1 - i]);
+		// The reversed padding now sits at the bottom of the first word, so shift it out.
+		int pad = wordCount * WORD_SIZE - numCells;
+		if(pad > 0) {
+			for(int i = 0; i < wordCount; ++i)
+				reversed[i] = (reversed[i] >>> pad) | (i + 1 < wordCount ? reversed[i + 1] << (WORD_SIZE - pad) : 0);
+		}
+		return new Generation(reversed, numCells);
+	}
+
+	/**
+	 * Returns the generation with every cell state flipped. An elementary rule run from the complemented
+	 * generation is the complemented rule run from this one.
+	 *
+	 * @return Returns the complemented generation.
+	 */
+	public Generation complement() {
+		long[] flipped = new long[cellWords.length];
+		for(int i = 0; i < flipped.length; ++i)
+			flipped[i] = ~cellWords[i];
+		return new Generation(flipped, numCells);
+	}
+
+	/**
+	 * Returns the backing words of the generation without copying them. Rule engines may read
+	 * the array but must never change it.
+	 *
+	 * @return Returns the packed words.
+	 */
+	long[] words() {
+		return cellWords;
+	}
+
+	/**
+	 * Returns the number of words needed to pack the given number of cells.
+	 *
+	 * @param size  The number of cells.
+	 * @return Returns the number of words.
+	 */
+	static int wordsFor(int size) {
+		return (size + WORD_SIZE - 1) >>> 6;
+	}
+
+	/**
+	 * Marks the words of the generation as rewritten in place: clears the padding bits and forgets the
+	 * cached hash. Only a history that owns the words of its generations may rewrite them.
+	 */
+	void refresh() {
+		if(cellWords.length > 0)
+			cellWords[cellWords.length - 1] &= lastWordMask(numCells);
+		hash = 0;
+	}
+
+	/**
+	 * Returns the mask of the bits in the last word that hold cells.
+	 *
+	 * @param size  The number of cells.
+	 * @return Returns the mask of the valid bits.
+	 */
+	static long lastWordMask(int size) {
+		int used = size & 63;
+		return used == 0 ? -1L : (1L << used) - 1;
+	}
+
+	/**
+	 * Returns whether the other object is a Generation with the same cell states.
+	 */
+	public boolean equals(Object obj) {
+		if(this == obj)
+			return true;
+		if(!(obj instanceof Generation))
+			return false;
+		Generation other = (Generation) obj;
+		return numCells == other.numCells && hashCode() == other.hashCode()
+				&& Arrays.equals(cellWords, other.cellWords);
+	}
+
+	/**
+	 * Returns a hash of the cell states, computed once.
+	 */
+	public int hashCode() {
+		if(hash == 0)
+			hash = 31 * Arrays.hashCode(cellWords) + numCells;
+		return hash;
+	}
+
 	/**
 	 * Prints out the cells states.
 	 */
 	public String toString() {
-		return Arrays.toString(cellStates);
+		return Arrays.toString(getStates());
 	}
 }
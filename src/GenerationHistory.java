@@ -0,0 +1,114 @@
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * GenerationHistory stores the recorded generations of an Automaton in order. Automaton only ever adds a
+ * generation at the end, reads generations back by index, and clears the history when it stops recording,
+ * so a store only has to support those operations. ListHistory keeps the generations on the heap; other
+ * stores keep them elsewhere so that long runs are not limited by the heap.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public abstract class GenerationHistory implements Closeable {
+
+	/**
+	 * Adds a generation after the last one.
+	 *
+	 * @param gen  The generation to add.
+	 */
+	public abstract void add(Generation gen);
+
+	/**
+	 * Returns the generation at the given index, counting from the first generation in the history.
+	 *
+	 * @param index  The index of the generation.
+	 * @return Returns the generation.
+	 * @throws IndexOutOfBoundsException If the index is not in [getFirstRetained(), size()).
+	 */
+	public abstract Generation get(int index);
+
+	/**
+	 * Returns the number of generations added to the history since it was last cleared, including any
+	 * it no longer retains.
+	 *
+	 * @return Returns the number of generations.
+	 */
+	public abstract int size();
+
+	/**
+	 * Returns the index of the first generation the history still retains. The default retains them all.
+	 *
+	 * @return Returns the first retained index.
+	 */
+	public int getFirstRetained() {
+		return 0;
+	}
+
+	/**
+	 * Removes every generation from the history.
+	 */
+	public abstract void clear();
+
+	/**
+	 * Returns the number of bytes of generation words the history holds, on the heap or off it. The
+	 * default counts one packed row for every retained generation.
+	 *
+	 * @return Returns the number of bytes retained.
+	 */
+	public long getRetainedBytes() {
+		if(size() == 0)
+			return 0;
+		return (long) (size() - getFirstRetained()) * getLast().getWordCount() * Long.BYTES;
+	}
+
+	/**
+	 * Returns the last generation in the history.
+	 *
+	 * @return Returns the last generation.
+	 */
+	public Generation getLast() {
+		return get(size() - 1);
+	}
+
+	/**
+	 * Gives the history the rule that evolves its generations. Histories that recompute generations
+	 * instead of storing them need it; the default ignores it.
+	 *
+	 * @param rule  The rule of the automaton.
+	 */
+	void setRule(Rule rule) {
+	}
+
+	/**
+	 * Adds the next numSteps generations of the rule after the last one, if the history can evolve them
+	 * into buffers of its own. The default cannot, and leaves evolution to the caller.
+	 *
+	 * @param rule  The rule of the automaton.
+	 * @param numSteps  How many generations to add.
+	 * @return Returns true if the generations were added.
+	 */
+	boolean evolveInPlace(Rule rule, int numSteps) {
+		return false;
+	}
+
+	/**
+	 * Releases whatever the history holds outside the heap. The default does nothing.
+	 *
+	 * @throws IOException If the history cannot be closed.
+	 */
+	public void close() throws IOException {
+	}
+
+	/**
+	 * Checks that an index is in [getFirstRetained(), size()).
+	 *
+	 * @param index  The index to check.
+	 * @throws IndexOutOfBoundsException If the index is out of range.
+	 */
+	protected void checkIndex(int index) {
+		if(index < getFirstRetained() || index >= size())
+			throw new IndexOutOfBoundsException("Index " + index + " is outside the range ["
+					+ getFirstRetained() + ", " + size() + ").");
+	}
+}
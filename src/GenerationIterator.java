@@ -0,0 +1,136 @@
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * GenerationIterator walks the generations of an automaton lazily. Each generation is computed only when it
+ * is asked for, and neither the iterator nor the automaton it came from keeps it, so a run of any length is
+ * consumed in constant memory. The generations never run out, so the caller decides where to stop, with
+ * a limit or takeWhile on the stream or by leaving the loop. Skipping ahead jumps straight to the later
+ * generation without computing a Generation for each step in between.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class GenerationIterator implements Iterator<Generation> {
+
+	/**
+	 * The rule that evolves the generations.
+	 */
+	private Rule rule;
+
+	/**
+	 * The evolver that spreads wide generations over several threads, or null if evolution is serial.
+	 */
+	private ParallelEvolver parallelEvolver;
+
+	/**
+	 * The generation next returns, or null if it has not been computed yet.
+	 */
+	private Generation next;
+
+	/**
+	 * The generation next returned last.
+	 */
+	private Generation previous;
+
+	/**
+	 * The step number of the generation next returns.
+	 */
+	private long step;
+
+	/**
+	 * Creates an iterator whose first generation is the given one.
+	 *
+	 * @param rule  The rule that evolves the generations.
+	 * @param parallelEvolver  The evolver for wide generations, or null.
+	 * @param first  The first generation.
+	 * @param step  The step number of the first generation.
+	 */
+	GenerationIterator(Rule rule, ParallelEvolver parallelEvolver, Generation first, long step) {
+		this.rule = rule;
+		this.parallelEvolver = parallelEvolver;
+		this.next = first;
+		this.step = step;
+	}
+
+	/**
+	 * Returns true, since an automaton can always evolve once more.
+	 */
+	public boolean hasNext() {
+		return true;
+	}
+
+	/**
+	 * Returns the next generation, evolving it from the one returned last.
+	 */
+	public Generation next() {
+		if(next == null)
+			next = evolve(previous, 1);
+		previous = next;
+		next = null;
+		++step;
+		return previous;
+	}
+
+	/**
+	 * Returns the step number of the generation the next call to next returns.
+	 *
+	 * @return Returns the step number.
+	 */
+	public long getStep() {
+		return step;
+	}
+
+	/**
+	 * Moves past the given number of generations without returning them. The generation after them is
+	 * computed in one jump, which evolves between two buffers instead of creating a Generation per step.
+	 *
+	 * @param numSteps  How many generations to skip.
+	 * @return Returns this iterator.
+	 * @throws IllegalArgumentException If numSteps is negative.
+	 */
+	public GenerationIterator skip(long numSteps) {
+		if(numSteps < 0)
+			throw new IllegalArgumentException("numSteps must not be negative.");
+		if(numSteps == 0)
+			return this;
+		Generation from = next;
+		long remaining = numSteps;
+		if(from == null) {
+			from = previous;
+			++remaining;
+		}
+		for(; remaining > Integer.MAX_VALUE; remaining -= Integer.MAX_VALUE)
+			from = evolve(from, Integer.MAX_VALUE);
+		next = evolve(from, (int) remaining);
+		step += numSteps;
+		return this;
+	}
+
+	/**
+	 * Returns a sequential stream of the generations this iterator has not returned yet. The stream
+	 * draws from this iterator, so it should not be used alongside it.
+	 *
+	 * @return Returns the stream.
+	 */
+	public Stream<Generation> stream() {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this,
+				Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+	}
+
+	/**
+	 * Evolves a generation with the parallel evolver if there is one and the rule otherwise.
+	 *
+	 * @param gen  The generation which is going to evolve.
+	 * @param numSteps  How many times the generation should evolve.
+	 * @return Returns the evolved generation.
+	 */
+	private Generation evolve(Generation gen, int numSteps) {
+		if(parallelEvolver != null)
+			return parallelEvolver.evolve(gen, numSteps);
+		return numSteps == 1 ? rule.evolve(gen) : rule.evolve(gen, numSteps);
+	}
+}
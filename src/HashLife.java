@@ -0,0 +1,374 @@
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HashLife evolves an elementary CA many steps at once by memoizing the futures of blocks of cells. A row of
+ * 2^k cells is stored as a binary tree of hash-consed nodes, so identical blocks are the same node, and each node
+ * remembers its center half 2^(k-2) steps later. A jump of 2^j steps then costs one lookup per distinct block
+ * instead of 2^j passes over the row. The nodes live in a bounded table that evicts the least recently used
+ * ones, so memory stays under control on patterns without much structure.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class HashLife {
+
+	/**
+	 * The default number of nodes kept in the table.
+	 */
+	public static final int DEFAULT_MAX_NODES = 1 << 18;
+
+	/**
+	 * Nodes up to this level hold their cells directly in a word.
+	 */
+	static final int LEAF_LEVEL = 6;
+
+	/**
+	 * Step counts below 2^MIN_JUMP are left to the word engine.
+	 */
+	static final int MIN_JUMP = 4;
+
+	/**
+	 * The work a new internal result costs, in word engine steps.
+	 */
+	private static final int RESULT_COST = 256;
+
+	/**
+	 * The rule to evolve.
+	 */
+	private ElementaryRule rule;
+
+	/**
+	 * The most nodes kept in the table.
+	 */
+	private int maxNodes;
+
+	/**
+	 * The canonical nodes, in least recently used order.
+	 */
+	private LinkedHashMap<Node, Node> nodes;
+
+	/**
+	 * The work the current evolution may still do before it falls back to the word engine.
+	 */
+	private long budget;
+
+	/**
+	 * A block of 2^level cells. Blocks up to LEAF_LEVEL keep their cells in bits, cell i in bit i; larger
+	 * blocks are split into a left and a right half.
+	 */
+	private static class Node {
+
+		private final int level;
+		private final long bits;
+		private final Node left;
+		private final Node right;
+		private final int hash;
+
+		/**
+		 * The center half of the block 2^(level-2) steps later, once computed.
+		 */
+		private Node result;
+
+		private Node(int level, long bits, Node left, Node right) {
+			this.level = level;
+			this.bits = bits;
+			this.left = left;
+			this.right = right;
+			hash = 31 * (31 * (31 * level + Long.hashCode(bits)) + System.identityHashCode(left))
+					+ System.identityHashCode(right);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if(!(obj instanceof Node))
+				return false;
+			Node other = (Node) obj;
+			return level == other.level && bits == other.bits && left == other.left && right == other.right;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	/**
+	 * Thrown when a jump runs out of budget.
+	 */
+	private static class BudgetExceededException extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public synchronized Throwable fillInStackTrace() {
+			return this;
+		}
+	}
+
+	/**
+	 * Creates a HashLife engine for the given rule with the default table size.
+	 *
+	 * @param rule  The rule to evolve.
+	 */
+	public HashLife(ElementaryRule rule) {
+		this(rule, DEFAULT_MAX_NODES);
+	}
+
+	/**
+	 * Creates a HashLife engine for the given rule.
+	 *
+	 * @param rule  The rule to evolve.
+	 * @param maxNodes  The most nodes kept in the table before the least recently used are evicted.
+	 * @throws IllegalArgumentException If maxNodes is not positive.
+	 */
+	public HashLife(ElementaryRule rule, int maxNodes) {
+		if(maxNodes < 1)
+			throw new IllegalArgumentException("maxNodes must be positive.");
+		this.rule = rule;
+		this.maxNodes = maxNodes;
+		nodes = new LinkedHashMap<Node, Node>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Node, Node> eldest) {
+				return size() > maxNodes;
+			}
+		};
+	}
+
+	/**
+	 * Returns the most nodes kept in the table before the least recently used are evicted.
+	 *
+	 * @return Returns the most nodes kept.
+	 */
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+
+	/**
+	 * Returns the number of nodes currently in the table.
+	 *
+	 * @return Returns the number of nodes.
+	 */
+	public int getNodeCount() {
+		return nodes.size();
+	}
+
+	/**
+	 * Evolves the generation numSteps times. The ends of the generation wrap around as they do in
+	 * Rule.getNeighborhoodByRadius.
+	 *
+	 * @param gen  The generation which is going to evolve.
+	 * @param numSteps  How many times the generation should evolve.
+	 * @return Returns the evolved generation.
+	 */
+	public Generation evolve(Generation gen, int numSteps) {
+		if(numSteps <= 0 || gen.size() == 0)
+			return gen;
+		budget = (long) gen.getWordCount() * numSteps;
+		int small = numSteps & ((1 << MIN_JUMP) - 1);
+		Generation current = small > 0 ? rule.evolveStandard(gen, small) : gen;
+		for(int j = MIN_JUMP; j < Integer.SIZE - 1; ++j) {
+			if(((numSteps >>> j) & 1) != 0) {
+				Generation next = jump(current, j);
+				if(next == null) {
+					// The pattern shares too few blocks to beat the word engine, so step the rest with it.
+					int rest = numSteps & -(1 << j);
+					return rule.evolveStandard(current, rest);
+				}
+				current = next;
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Evolves the generation 2^j steps. The generation is covered by blocks of 2^(j+1) cells, and each block
+	 * is the result of the node for the 2^(j+2) cells around it, read from the periodic row. Chaotic patterns
+	 * share few blocks, so once the new results have cost as much as stepping the word engine through the
+	 * whole evolution, the jump gives up.
+	 *
+	 * @param gen  The generation which is going to evolve.
+	 * @param j  The power of two of the number of steps.
+	 * @return Returns the evolved generation, or null if the jump gave up.
+	 */
+	private Generation jump(Generation gen, int j) {
+		int size = gen.size();
+		long steps = 1L << j;
+		long blockSize = steps << 1;
+		long[] next = new long[gen.getWordCount()];
+		HashMap<Long, Node> built = new HashMap<Long, Node>();
+		try {
+			for(long x = 0; x < size; x += blockSize) {
+				Node node = build(gen, Math.floorMod(x - steps, (long) size), j + 2, built);
+				write(result(node), next, (int) x, size);
+			}
+		} catch (BudgetExceededException e) {
+			return null;
+		}
+		return Generation.wrap(next, size);
+	}
+
+	/**
+	 * Returns the node for the 2^level cells of the periodic row starting at the given cell. Every block
+	 * starting at the same cell mod size() is the same, so the nodes are remembered for the whole jump.
+	 *
+	 * @param gen  The periodic row.
+	 * @param start  The first cell, in [0, gen.size()).
+	 * @param level  The level of the node.
+	 * @param built  The nodes already built during this jump, keyed by start and level.
+	 * @return Returns the node.
+	 */
+	private Node build(Generation gen, long start, int level, HashMap<Long, Node> built) {
+		if(level <= LEAF_LEVEL)
+			return leaf(level, gen.getWindow((int) start));
+		Long key = (start << 6) | level;
+		Node node = built.get(key);
+		if(node == null) {
+			long half = 1L << (level - 1);
+			node = join(build(gen, start, level - 1, built),
+					build(gen, (start + half) % gen.size(), level - 1, built));
+			built.put(key, node);
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the center half of the node 2^(level-2) steps later, computing and remembering it the first time.
+	 *
+	 * @param node  A node of level 2 or more.
+	 * @return Returns the result of the node.
+	 */
+	private Node result(Node node) {
+		if(node.result != null)
+			return node.result;
+		Node result;
+		if(node.level <= LEAF_LEVEL) {
+			int width = 1 << node.level;
+			int steps = width >>> 2;
+			spend(steps + RESULT_COST);
+			// The unknown cells beyond each edge spoil one more cell per step, never reaching the center half.
+			long row = node.bits;
+			for(int step = 0; step < steps; ++step)
+				row = rule.evolveWord(row << 1, row, row >>> 1);
+			result = leaf(node.level - 1, row >>> steps);
+		}
+		else {
+			spend(RESULT_COST);
+			Node a = left(node);
+			Node b = right(node);
+			Node r1 = result(a);
+			Node r2 = result(join(right(a), left(b)));
+			Node r3 = result(b);
+			result = join(result(join(r1, r2)), result(join(r2, r3)));
+		}
+		node.result = result;
+		return result;
+	}
+
+	/**
+	 * Takes work out of the budget of the current evolution.
+	 *
+	 * @param work  The work to take.
+	 * @throws BudgetExceededException If the budget runs out.
+	 */
+	private void spend(int work) {
+		budget -= work;
+		if(budget < 0)
+			throw new BudgetExceededException();
+	}
+
+	/**
+	 * Returns the canonical leaf holding the low 2^level bits of the given word.
+	 *
+	 * @param level  The level of the leaf.
+	 * @param bits  The cells of the leaf.
+	 * @return Returns the leaf.
+	 */
+	private Node leaf(int level, long bits) {
+		int width = 1 << level;
+		if(width < Long.SIZE)
+			bits &= (1L << width) - 1;
+		return canonical(new Node(level, bits, null, null));
+	}
+
+	/**
+	 * Returns the canonical node whose halves are the given nodes of the same level.
+	 *
+	 * @param left  The left half.
+	 * @param right  The right half.
+	 * @return Returns the joined node.
+	 */
+	private Node join(Node left, Node right) {
+		if(left.level < LEAF_LEVEL)
+			return leaf(left.level + 1, left.bits | (right.bits << (1 << left.level)));
+		return canonical(new Node(left.level + 1, 0, left, right));
+	}
+
+	/**
+	 * Returns the left half of a node.
+	 *
+	 * @param node  A node of level 1 or more.
+	 * @return Returns the left half.
+	 */
+	private Node left(Node node) {
+		if(node.level > LEAF_LEVEL)
+			return node.left;
+		return leaf(node.level - 1, node.bits);
+	}
+
+	/**
+	 * Returns the right half of a node.
+	 *
+	 * @param node  A node of level 1 or more.
+	 * @return Returns the right half.
+	 */
+	private Node right(Node node) {
+		if(node.level > LEAF_LEVEL)
+			return node.right;
+		return leaf(node.level - 1, node.bits >>> (1 << (node.level - 1)));
+	}
+
+	/**
+	 * Returns the node in the table equal to the given one, adding it if there is none.
+	 *
+	 * @param node  The node to look up.
+	 * @return Returns the canonical node.
+	 */
+	private Node canonical(Node node) {
+		Node existing = nodes.get(node);
+		if(existing != null)
+			return existing;
+		nodes.put(node, node);
+		return node;
+	}
+
+	/**
+	 * Writes the cells of a node into packed words, starting at the given cell and stopping at limit.
+	 *
+	 * @param node  The node to write.
+	 * @param words  The packed words, all zero where the node is written.
+	 * @param start  The cell of the first cell of the node.
+	 * @param limit  The number of cells in the words.
+	 */
+	private void write(Node node, long[] words, int start, int limit) {
+		if(start >= limit)
+			return;
+		if(node.level > LEAF_LEVEL) {
+			write(node.left, words, start, limit);
+			long half = 1L << (node.level - 1);
+			if(start + half < limit)
+				write(node.right, words, (int) (start + half), limit);
+			return;
+		}
+		int count = Math.min(1 << node.level, limit - start);
+		long bits = count < Long.SIZE ? node.bits & ((1L << count) - 1) : node.bits;
+		int word = start >>> 6;
+		int shift = start & 63;
+		words[word] |= bits << shift;
+		if(shift + count > Long.SIZE)
+			words[word + 1] |= bits >>> (Long.SIZE - shift);
+	}
+}
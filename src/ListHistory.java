@@ -0,0 +1,44 @@
+import java.util.ArrayList;
+
+/**
+ * ListHistory keeps every generation as an object in an ArrayList. It is the default history of Automaton.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class ListHistory extends GenerationHistory {
+
+	/**
+	 * The array list of generations.
+	 */
+	private ArrayList<Generation> generations = new ArrayList<Generation>();
+
+	/**
+	 * Adds a generation after the last one.
+	 */
+	public void add(Generation gen) {
+		generations.add(gen);
+	}
+
+	/**
+	 * Returns the generation at the given index.
+	 */
+	public Generation get(int index) {
+		checkIndex(index);
+		return generations.get(index);
+	}
+
+	/**
+	 * Returns the number of generations in the history.
+	 */
+	public int size() {
+		return generations.size();
+	}
+
+	/**
+	 * Removes every generation from the history.
+	 */
+	public void clear() {
+		generations.clear();
+	}
+}
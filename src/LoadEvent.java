@@ -0,0 +1,40 @@
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * LoadEvent records an automaton being read from a text file.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+@Name("cellularautomaton.Load")
+@Label("Load")
+@Description("An automaton read from a text file")
+class LoadEvent extends AutomatonEvent {
+
+	/**
+	 * The type of the event, which knows whether it is being recorded.
+	 */
+	private static final EventType TYPE = EventType.getEventType(LoadEvent.class);
+
+	/**
+	 * The name of the file.
+	 */
+	@Label("File")
+	String filename;
+
+	/**
+	 * Returns a new event that has begun, if load events are being recorded.
+	 *
+	 * @return Returns the event, or null if load events are not being recorded.
+	 */
+	static LoadEvent start() {
+		if(!TYPE.isEnabled())
+			return null;
+		LoadEvent event = new LoadEvent();
+		event.begin();
+		return event;
+	}
+}
@@ -0,0 +1,167 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * MappedHistory keeps the generations in a memory-mapped file instead of on the heap. Every generation of an
+ * automaton has the same number of cells, so the file is a sequence of fixed-stride rows, each holding the
+ * packed words of one generation. The file is mapped in segments of whole rows as it grows, and the operating
+ * system pages rows in and out, so the history is limited by the disk rather than by the heap. Reading a
+ * generation copies its row once, straight from the mapping into the words of a new Generation.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class MappedHistory extends GenerationHistory {
+
+	/**
+	 * The most bytes in one mapped segment by default.
+	 */
+	static final int SEGMENT_BYTES = 1 << 26;
+
+	/**
+	 * The number of cells in every generation.
+	 */
+	private int width;
+
+	/**
+	 * The number of words in every row.
+	 */
+	private int stride;
+
+	/**
+	 * The number of rows in every segment.
+	 */
+	private int rowsPerSegment;
+
+	/**
+	 * The file the rows are mapped from.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * The mapped segments, viewed as words.
+	 */
+	private ArrayList<LongBuffer> segments = new ArrayList<LongBuffer>();
+
+	/**
+	 * The number of generations in the history.
+	 */
+	private int size;
+
+	/**
+	 * Creates a history in the given file, replacing anything already in it.
+	 *
+	 * @param file  The file that holds the rows.
+	 * @param width  The number of cells in every generation.
+	 * @throws IOException If the file cannot be opened.
+	 * @throws IllegalArgumentException If the width is negative.
+	 */
+	public MappedHistory(File file, int width) throws IOException {
+		this(file, width, SEGMENT_BYTES);
+	}
+
+	/**
+	 * Creates a history in the given file with segments of at most the given size.
+	 *
+	 * @param file  The file that holds the rows.
+	 * @param width  The number of cells in every generation.
+	 * @param segmentBytes  The most bytes in one mapped segment.
+	 * @throws IOException If the file cannot be opened.
+	 * @throws IllegalArgumentException If the width is negative.
+	 */
+	MappedHistory(File file, int width, int segmentBytes) throws IOException {
+		if(width < 0)
+			throw new IllegalArgumentException("width must not be negative.");
+		this.width = width;
+		stride = Math.max(1, Generation.wordsFor(width));
+		rowsPerSegment = Math.max(1, segmentBytes / (stride * Long.BYTES));
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+	}
+
+	/**
+	 * Returns the number of cells in every generation.
+	 *
+	 * @return Returns the width.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/**
+	 * Writes the generation into the next row, mapping a new segment when the last one is full.
+	 *
+	 * @throws IllegalArgumentException If the generation does not have getWidth() cells.
+	 * @throws UncheckedIOException If the file cannot be extended.
+	 */
+	public void add(Generation gen) {
+		if(gen.size() != width)
+			throw new IllegalArgumentException("Generation must have " + width + " cells.");
+		int segment = size / rowsPerSegment;
+		if(segment == segments.size())
+			mapSegment(segment);
+		segments.get(segment).put((size % rowsPerSegment) * stride, gen.words(), 0, gen.getWordCount());
+		++size;
+	}
+
+	/**
+	 * Maps the given segment, which extends the file to cover it.
+	 *
+	 * @param segment  The index of the segment.
+	 */
+	private void mapSegment(int segment) {
+		long bytes = (long) rowsPerSegment * stride * Long.BYTES;
+		try {
+			segments.add(channel.map(FileChannel.MapMode.READ_WRITE, segment * bytes, bytes)
+					.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Reads the generation at the given index from its row.
+	 */
+	public Generation get(int index) {
+		checkIndex(index);
+		long[] words = new long[Generation.wordsFor(width)];
+		segments.get(index / rowsPerSegment).get((index % rowsPerSegment) * stride, words);
+		return Generation.wrap(words, width);
+	}
+
+	/**
+	 * Returns the bytes of the rows written to the file.
+	 */
+	public long getRetainedBytes() {
+		return (long) size * stride * Long.BYTES;
+	}
+
+	/**
+	 * Returns the number of generations in the history.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every generation from the history. The mapped segments are kept and written over.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Closes the file. The segments stay mapped until they are garbage collected.
+	 */
+	public void close() throws IOException {
+		segments.clear();
+		size = 0;
+		channel.close();
+	}
+}
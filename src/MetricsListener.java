@@ -0,0 +1,38 @@
+
+/**
+ * MetricsListener is told what an Automaton does while it runs: the steps it evolves, the bytes its history
+ * holds and the bytes saveEvolution writes. An automaton has no listener unless one is set, and then the
+ * only cost of a run is a null check. Every method does nothing by default, so a listener overrides only
+ * what it records. AutomatonMetrics is a listener that keeps counters and publishes them over JMX.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public interface MetricsListener {
+
+	/**
+	 * Called after an evolve call has computed its generations.
+	 *
+	 * @param numSteps  The number of generations computed.
+	 * @param cellsUpdated  The number of cells updated, the steps times the width.
+	 * @param nanos  The time the call took in nanoseconds.
+	 */
+	default void stepsEvolved(int numSteps, long cellsUpdated, long nanos) {
+	}
+
+	/**
+	 * Called after an evolve call with the number of bytes the history now holds.
+	 *
+	 * @param bytes  The number of bytes retained, as GenerationHistory.getRetainedBytes returns.
+	 */
+	default void historyRetained(long bytes) {
+	}
+
+	/**
+	 * Called after saveEvolution has written a file.
+	 *
+	 * @param bytes  The number of bytes written.
+	 */
+	default void bytesWritten(long bytes) {
+	}
+}
@@ -0,0 +1,120 @@
+
+/**
+ * MultiStepTable advances an elementary CA several generations per table lookup. After k steps a cell depends
+ * only on the k cells to either side of it, so a window of cells + 2k cells determines a block of cells that
+ * many generations later. The table maps every such window to its block, and is computed once per rule.
+ * Because every lookup pays for a window of neighbors, the table beats stepping with ElementaryRule's word
+ * engine only for narrow generations, where the wrapping windows dominate the word engine's cost.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class MultiStepTable {
+
+	/**
+	 * The widest input window a table may be built for.
+	 */
+	public static final int MAX_WINDOW = 24;
+
+	/**
+	 * The number of generations advanced per lookup.
+	 */
+	private int steps;
+
+	/**
+	 * The number of cells produced per lookup.
+	 */
+	private int cells;
+
+	/**
+	 * The number of cells read per lookup.
+	 */
+	private int window;
+
+	/**
+	 * The output block of every input window. Bit i of an entry is cell i of the block.
+	 */
+	private char[] table;
+
+	/**
+	 * Builds the table for the given rule.
+	 *
+	 * @param rule  The rule to advance.
+	 * @param steps  The number of generations advanced per lookup.
+	 * @param cells  The number of cells produced per lookup, which must divide 64.
+	 * @throws IllegalArgumentException If steps or cells is out of range or the window is too wide.
+	 */
+	public MultiStepTable(ElementaryRule rule, int steps, int cells) {
+		if(steps < 1)
+			throw new IllegalArgumentException("steps must be positive.");
+		if(cells < 1 || Generation.WORD_SIZE % cells != 0)
+			throw new IllegalArgumentException("cells must divide " + Generation.WORD_SIZE + ".");
+		if(cells + 2 * steps > MAX_WINDOW)
+			throw new IllegalArgumentException("cells + 2 * steps must not exceed " + MAX_WINDOW + ".");
+		this.steps = steps;
+		this.cells = cells;
+		window = cells + 2 * steps;
+		table = new char[1 << window];
+		for(int input = 0; input < table.length; ++input) {
+			// The edges fill with garbage one cell per step, which never reaches the center block.
+			long row = input;
+			for(int step = 0; step < steps; ++step)
+				row = rule.evolveWord(row << 1, row, row >>> 1);
+			table[input] = (char) ((row >>> steps) & ((1 << cells) - 1));
+		}
+	}
+
+	/**
+	 * Returns the number of generations advanced per lookup.
+	 *
+	 * @return Returns the number of steps.
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Returns the number of cells produced per lookup.
+	 *
+	 * @return Returns the number of cells.
+	 */
+	public int getCells() {
+		return cells;
+	}
+
+	/**
+	 * Returns the generation getSteps() generations after gen.
+	 *
+	 * @param gen  The generation to advance.
+	 * @return Returns the advanced generation.
+	 */
+	public Generation evolve(Generation gen) {
+		long[] next = new long[gen.getWordCount()];
+		if(gen.size() > 0)
+			evolveInto(gen, next);
+		return Generation.wrap(next, gen.size());
+	}
+
+	/**
+	 * Writes the packed generation getSteps() generations after gen into next.
+	 *
+	 * @param gen  The generation to advance, with at least one cell.
+	 * @param next  The array which receives the packed generation.
+	 */
+	void evolveInto(Generation gen, long[] next) {
+		long inputMask = (1L << window) - 1;
+		for(int i = 0; i < next.length; ++i) {
+			// The windows of a word's blocks all lie within the 128 cells starting steps cells before it.
+			int start = i * Generation.WORD_SIZE - steps;
+			long low = gen.getWindow(start);
+			long high = gen.getWindow(start + Generation.WORD_SIZE);
+			long word = table[(int) (low & inputMask)];
+			for(int offset = cells; offset < Generation.WORD_SIZE; offset += cells) {
+				long input = (low >>> offset) | (high << (Generation.WORD_SIZE - offset));
+				word |= (long) table[(int) (input & inputMask)] << offset;
+			}
+			next[i] = word;
+		}
+		next[next.length - 1] &= Generation.lastWordMask(gen.size());
+	}
+}
@@ -0,0 +1,127 @@
+
+/**
+ * NeighborhoodCursor walks the cells of a Generation from left to right and keeps the neighborhood of the
+ * current cell as a rolling window of bits. Moving to the next cell shifts one new cell into the window, so
+ * a whole generation can be visited without allocating a neighborhood array per cell. The ends of the
+ * generation wrap around the same way they do in Rule.getNeighborhoodByRadius.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class NeighborhoodCursor {
+
+	/**
+	 * The largest radius whose neighborhood still fits in the bits of an int.
+	 */
+	public static final int MAX_RADIUS = 15;
+
+	/**
+	 * The generation being walked.
+	 */
+	private Generation gen;
+
+	/**
+	 * The radius of the neighborhoods.
+	 */
+	private int radius;
+
+	/**
+	 * The mask of the 2 * radius + 1 bits of the window.
+	 */
+	private int mask;
+
+	/**
+	 * The index of the current cell.
+	 */
+	private int idx;
+
+	/**
+	 * The index of the cell that enters the window on the next advance.
+	 */
+	private int incoming;
+
+	/**
+	 * The neighborhood of the current cell, leftmost cell in the most significant bit.
+	 */
+	private int code;
+
+	/**
+	 * Places a cursor on the first cell of the generation.
+	 *
+	 * @param gen  The generation to walk.
+	 * @param radius  The number of cells to the left/right of the current cell in each neighborhood.
+	 * @throws IllegalArgumentException If the radius is negative or larger than MAX_RADIUS.
+	 */
+	public NeighborhoodCursor(Generation gen, int radius) {
+		if(radius < 0 || radius > MAX_RADIUS)
+			throw new IllegalArgumentException("radius is outside the range [0, " + MAX_RADIUS + "].");
+		this.gen = gen;
+		this.radius = radius;
+		mask = (1 << (2 * radius + 1)) - 1;
+		idx = 0;
+		code = 0;
+		if(gen.size() > 0) {
+			for(int i = -radius; i <= radius; ++i)
+				code = (code << 1) | state(Math.floorMod(i, gen.size()));
+			incoming = Math.floorMod(radius + 1, gen.size());
+		}
+	}
+
+	/**
+	 * Returns the index of the current cell.
+	 *
+	 * @return Returns the index of the current cell.
+	 */
+	public int getIndex() {
+		return idx;
+	}
+
+	/**
+	 * Returns the radius of the neighborhoods.
+	 *
+	 * @return Returns the radius.
+	 */
+	public int getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Returns the neighborhood of the current cell packed into an int. The leftmost cell of the
+	 * neighborhood is the most significant of the 2 * radius + 1 bits, so for a radius of 1 the
+	 * neighborhood 110 has the code 6.
+	 *
+	 * @return Returns the code of the current neighborhood.
+	 */
+	public int getCode() {
+		return code;
+	}
+
+	/**
+	 * Returns whether the cursor is still on a cell of the generation.
+	 *
+	 * @return Returns true if there is a current cell.
+	 */
+	public boolean hasCell() {
+		return idx < gen.size();
+	}
+
+	/**
+	 * Moves the cursor one cell to the right.
+	 */
+	public void advance() {
+		code = ((code << 1) | state(incoming)) & mask;
+		if(++incoming == gen.size())
+			incoming = 0;
+		++idx;
+	}
+
+	/**
+	 * Returns the state of a cell as a bit.
+	 *
+	 * @param cell  The index of the cell.
+	 * @return Returns 1 if the cell is true and 0 otherwise.
+	 */
+	private int state(int cell) {
+		return (int) (gen.words()[cell >>> 6] >>> cell) & 1;
+	}
+}
@@ -0,0 +1,199 @@
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * ParallelEvolver spreads the evolution of wide generations over the cores of a fork-join pool. The lattice is
+ * split into tiles, and each worker copies its tile together with a ghost zone of stepsPerExchange * radius cells
+ * on either side, read across the wrapping ends of the generation. A worker can then advance its copy
+ * stepsPerExchange steps on its own: the cells the copy is missing only spoil radius more cells of the ghost zone
+ * per step, so the tile itself comes out exactly as Rule.evolve would make it. After every round the tiles are
+ * joined and the next round copies fresh ghost zones from the result.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class ParallelEvolver {
+
+	/**
+	 * The default number of cells below which generations are evolved on the calling thread.
+	 */
+	public static final int DEFAULT_MIN_CELLS = 1 << 20;
+
+	/**
+	 * The default number of steps each worker takes between exchanges of ghost zones.
+	 */
+	public static final int DEFAULT_STEPS_PER_EXCHANGE = 32;
+
+	/**
+	 * The fewest words in a tile, so each task is worth forking.
+	 */
+	static final int MIN_TILE_WORDS = 1 << 10;
+
+	/**
+	 * The number of tiles per worker, so workers that finish early can steal more.
+	 */
+	private static final int TILES_PER_THREAD = 4;
+
+	/**
+	 * The rule that evolves the generations.
+	 */
+	private Rule rule;
+
+	/**
+	 * The pool that runs the tiles.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * The number of steps each worker takes between exchanges.
+	 */
+	private int stepsPerExchange;
+
+	/**
+	 * The number of cells below which generations are evolved on the calling thread.
+	 */
+	private int minCells;
+
+	/**
+	 * Creates an evolver that runs on a new pool with the given number of threads and the default settings.
+	 *
+	 * @param rule  The rule that evolves the generations.
+	 * @param threads  The number of worker threads.
+	 */
+	public ParallelEvolver(Rule rule, int threads) {
+		this(rule, new ForkJoinPool(threads), DEFAULT_STEPS_PER_EXCHANGE, DEFAULT_MIN_CELLS);
+	}
+
+	/**
+	 * Creates an evolver.
+	 *
+	 * @param rule  The rule that evolves the generations.
+	 * @param pool  The pool that runs the tiles.
+	 * @param stepsPerExchange  The number of steps each worker takes between exchanges of ghost zones.
+	 * @param minCells  The number of cells below which generations are evolved on the calling thread.
+	 * @throws IllegalArgumentException If stepsPerExchange is not positive.
+	 */
+	public ParallelEvolver(Rule rule, ForkJoinPool pool, int stepsPerExchange, int minCells) {
+		if(stepsPerExchange < 1)
+			throw new IllegalArgumentException("stepsPerExchange must be positive.");
+		this.rule = rule;
+		this.pool = pool;
+		this.stepsPerExchange = stepsPerExchange;
+		this.minCells = minCells;
+		// Build the lazy rule table now, so the workers only ever read it.
+		if(rule.getRadius() >= 0 && rule.getRadius() <= Rule.MAX_TABLE_RADIUS)
+			rule.getTable();
+	}
+
+	/**
+	 * Returns the number of worker threads.
+	 *
+	 * @return Returns the parallelism of the pool.
+	 */
+	public int getParallelism() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Stops the threads of the pool once the tiles already submitted are done.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Evolves the generation numSteps times, giving the same generation Rule.evolve would. Rules that do
+	 * not report their radius, and generations narrower than the minimum, are evolved on the calling thread.
+	 *
+	 * @param gen  The generation which is going to evolve.
+	 * @param numSteps  How many times the generation should evolve.
+	 * @return Returns the evolved generation.
+	 */
+	public Generation evolve(Generation gen, int numSteps) {
+		int radius = rule.getRadius();
+		if(numSteps <= 0 || radius < 0 || gen.size() < minCells)
+			return numSteps == 1 ? rule.evolve(gen) : rule.evolve(gen, numSteps);
+		int tiles = Math.max(1, Math.min(pool.getParallelism() * TILES_PER_THREAD,
+				gen.getWordCount() / MIN_TILE_WORDS));
+		int tileWords = (gen.getWordCount() + tiles - 1) / tiles;
+		while(numSteps > 0) {
+			int steps = Math.min(numSteps, stepsPerExchange);
+			long ghost = (long) steps * radius;
+			if(tiles == 1 || ghost > gen.size())
+				return rule.evolve(gen, numSteps);
+			gen = round(gen, steps, (int) ghost, tileWords);
+			numSteps -= steps;
+		}
+		return gen;
+	}
+
+	/**
+	 * Advances every tile the given number of steps in parallel and joins the results.
+	 *
+	 * @param gen  The generation which is going to evolve.
+	 * @param steps  The number of steps.
+	 * @param ghost  The width of the ghost zones.
+	 * @param tileWords  The number of words in each tile.
+	 * @return Returns the evolved generation.
+	 */
+	private Generation round(Generation gen, int steps, int ghost, int tileWords) {
+		long[] next = new long[gen.getWordCount()];
+		ArrayList<TileTask> tasks = new ArrayList<TileTask>();
+		for(int first = 0; first < next.length; first += tileWords)
+			tasks.add(new TileTask(gen, next, first, Math.min(first + tileWords, next.length), steps, ghost));
+		pool.invoke(new RecursiveAction() {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void compute() {
+				invokeAll(tasks);
+			}
+		});
+		return Generation.wrap(next, gen.size());
+	}
+
+	/**
+	 * Advances one tile, writing its words of the next generation.
+	 */
+	private class TileTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Generation gen;
+		private final long[] next;
+		private final int firstWord;
+		private final int endWord;
+		private final int steps;
+		private final int ghost;
+
+		private TileTask(Generation gen, long[] next, int firstWord, int endWord, int steps, int ghost) {
+			this.gen = gen;
+			this.next = next;
+			this.firstWord = firstWord;
+			this.endWord = endWord;
+			this.steps = steps;
+			this.ghost = ghost;
+		}
+
+		@Override
+		protected void compute() {
+			int start = firstWord * Generation.WORD_SIZE;
+			int cells = Math.min(endWord * Generation.WORD_SIZE, gen.size()) - start;
+			int localSize = cells + 2 * ghost;
+			long[] current = new long[Generation.wordsFor(localSize)];
+			for(int i = 0; i < current.length; ++i)
+				current[i] = gen.getWindow(start - ghost + i * Generation.WORD_SIZE);
+			long[] spare = new long[current.length];
+			for(int step = 0; step < steps; ++step) {
+				rule.evolveInto(Generation.wrap(current, localSize), spare);
+				long[] words = current;
+				current = spare;
+				spare = words;
+			}
+			Generation local = Generation.wrap(current, localSize);
+			for(int i = firstWord; i < endWord; ++i)
+				next[i] = local.getWindow(ghost + (i - firstWord) * Generation.WORD_SIZE);
+		}
+	}
+}
@@ -0,0 +1,168 @@
+import java.math.BigInteger;
+
+/**
+ * RadiusRule is the base of the general rules, whose neighborhoods reach any radius r instead of the fixed
+ * radius of ElementaryRule or TotalisticRule and whose rule numbers are too large for an int. A subclass
+ * only says which bit of the rule number gives the next state of a neighborhood; the rule is then compiled
+ * into a block table. A window of block + 2r cells decides the next states of the block cells in its middle,
+ * so the table maps every window to its block, and a word of 64 cells is evolved in 64 / block lookups taken
+ * straight from the packed words. The block is the widest of 8, 4 or 2 cells whose table has at most
+ * 2^MAX_BLOCK_WINDOW entries; rules too wide for any block fall back to the rolling neighborhood code of
+ * Rule.evolveInto, or to a rolling count of true cells in GeneralTotalisticRule.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public abstract class RadiusRule extends Rule {
+
+	/**
+	 * The widest window of cells a block table is built for, which keeps the table within 64 KB.
+	 */
+	public static final int MAX_BLOCK_WINDOW = 16;
+
+	/**
+	 * The number of cells to the left/right of a cell in its neighborhood.
+	 */
+	private int radius;
+
+	/**
+	 * The rule number.
+	 */
+	private BigInteger ruleNumber;
+
+	/**
+	 * The number of cells produced per lookup, or 0 if the rule is too wide for a block table.
+	 */
+	private int block;
+
+	/**
+	 * The block of next states of every window. Bit b of an entry is cell b of the block.
+	 */
+	private byte[] blocks;
+
+	/**
+	 * Constructs the rule and compiles its block table.
+	 *
+	 * @param radius  The number of cells to the left/right of a cell in its neighborhood.
+	 * @param ruleNumber  The rule number, already checked by the subclass.
+	 */
+	protected RadiusRule(int radius, BigInteger ruleNumber) {
+		super(ruleNumber.bitLength() < Integer.SIZE ? ruleNumber.intValue() : -1);
+		this.radius = radius;
+		this.ruleNumber = ruleNumber;
+		for(int cells = Byte.SIZE; cells > 1 && block == 0; cells /= 2)
+			if(cells + 2 * radius <= MAX_BLOCK_WINDOW)
+				block = cells;
+		if(block > 0)
+			blocks = compileBlocks();
+	}
+
+	/**
+	 * Returns the rule number, which tells the next state of every neighborhood apart.
+	 *
+	 * @return Returns the rule number.
+	 */
+	public BigInteger getRuleNumber() {
+		return ruleNumber;
+	}
+
+	/**
+	 * Returns the number of cells to the left/right of a cell in its neighborhood.
+	 */
+	public int getRadius() {
+		return radius;
+	}
+
+	/**
+	 * Returns the number of cells produced per lookup in the block table.
+	 *
+	 * @return Returns the block size, or 0 if the rule has no block table.
+	 */
+	public int getBlockSize() {
+		return block;
+	}
+
+	/**
+	 * Returns the index of the bit of the rule number that holds the next state of a neighborhood. The
+	 * block table is compiled while the rule is constructed, so this must not read fields of the subclass.
+	 *
+	 * @param code  The neighborhood, leftmost cell in the most significant of its 2 * radius + 1 bits.
+	 * @return Returns the index of the rule bit.
+	 */
+	abstract int ruleBit(long code);
+
+	/**
+	 * Return the cell states in the neighborhood of the cell with the given index.
+	 */
+	public boolean[] getNeighborhood(int idx, Generation gen) {
+		return getNeighborhoodByRadius(idx, radius, gen);
+	}
+
+	/**
+	 * Evolves the neighborhood by looking up its bit of the rule number.
+	 */
+	public boolean evolve(boolean[] neighborhood) {
+		long code = 0;
+		for(boolean state : neighborhood)
+			code = (code << 1) | (state ? 1 : 0);
+		return ruleNumber.testBit(ruleBit(code));
+	}
+
+	/**
+	 * Evolves the generation a block of cells per lookup, reading each word's windows from the 128 cells
+	 * starting radius cells before it. Rules without a block table use Rule.evolveInto.
+	 */
+	void evolveInto(Generation gen, long[] next) {
+		if(block == 0) {
+			super.evolveInto(gen, next);
+			return;
+		}
+		int inputMask = (1 << (block + 2 * radius)) - 1;
+		for(int i = 0; i < next.length; ++i) {
+			int start = i * Generation.WORD_SIZE - radius;
+			long low = gen.getWindow(start);
+			long high = gen.getWindow(start + Generation.WORD_SIZE);
+			long word = blocks[(int) low & inputMask] & 0xFF;
+			for(int offset = block; offset < Generation.WORD_SIZE; offset += block) {
+				long input = (low >>> offset) | (high << (Generation.WORD_SIZE - offset));
+				word |= (long) (blocks[(int) input & inputMask] & 0xFF) << offset;
+			}
+			next[i] = word;
+		}
+		next[next.length - 1] &= Generation.lastWordMask(gen.size());
+	}
+
+	/**
+	 * Builds the block table. Bit j of a window is its cell j, so the neighborhood of block cell b is bits
+	 * b to b + 2 * radius, and reversing them puts its leftmost cell in the most significant bit.
+	 *
+	 * @return Returns the block table.
+	 */
+	private byte[] compileBlocks() {
+		int width = 2 * radius + 1;
+		long neighborhoodMask = (1L << width) - 1;
+		byte[] table = new byte[1 << (block + 2 * radius)];
+		for(int input = 0; input < table.length; ++input) {
+			int states = 0;
+			for(int b = 0; b < block; ++b) {
+				long code = Long.reverse((input >>> b) & neighborhoodMask) >>> (Long.SIZE - width);
+				if(ruleNumber.testBit(ruleBit(code)))
+					states |= 1 << b;
+			}
+			table[input] = (byte) states;
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the symbol of a state.
+	 *
+	 * @param state  The state.
+	 * @param falseSymbol  The symbol of the false value.
+	 * @param trueSymbol  The symbol of the true value.
+	 * @return Returns the symbol of the state.
+	 */
+	static char symbol(boolean state, char falseSymbol, char trueSymbol) {
+		return state ? trueSymbol : falseSymbol;
+	}
+}
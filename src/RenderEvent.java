@@ -0,0 +1,48 @@
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * RenderEvent records the recorded generations of an automaton being rendered as text, by toString or by
+ * saveEvolution. A save covers the generations it evolves on the way as well, so the evolve events of
+ * those steps fall inside it.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+@Name("cellularautomaton.Render")
+@Label("Render")
+@Description("Generations rendered as text by Automaton.toString or written by Automaton.saveEvolution")
+class RenderEvent extends AutomatonEvent {
+
+	/**
+	 * The type of the event, which knows whether it is being recorded.
+	 */
+	private static final EventType TYPE = EventType.getEventType(RenderEvent.class);
+
+	/**
+	 * The name of the file written, or null if the text was returned.
+	 */
+	@Label("File")
+	String filename;
+
+	/**
+	 * The number of characters returned or bytes written.
+	 */
+	@Label("Size")
+	long size;
+
+	/**
+	 * Returns a new event that has begun, if render events are being recorded.
+	 *
+	 * @return Returns the event, or null if render events are not being recorded.
+	 */
+	static RenderEvent start() {
+		if(!TYPE.isEnabled())
+			return null;
+		RenderEvent event = new RenderEvent();
+		event.begin();
+		return event;
+	}
+}
@@ -1,3 +1,4 @@
+import java.math.BigInteger;
 
 /**
  * The abstract Rule class represents any rule that governs the evolution of a 1D,
@@ -12,7 +13,22 @@ public abstract class Rule {
 	/**
 	 * The number of the rule.
 	 */
-	private static int rule;
+	private int rule;
+	
+	/**
+	 * The largest radius evolved through a lookup table.
+	 */
+	public static final int MAX_TABLE_RADIUS = 10;
+	
+	/**
+	 * The rule table indexed by neighborhood code, built on first use.
+	 */
+	private boolean[] table;
+	
+	/**
+	 * The kernel that runs the inner loops of the packed engines in subclasses.
+	 */
+	private WordKernel kernel = WordKernel.getDefault();
 	
 	/**
 	 * Constructs the rule with ruleNum.
@@ -26,12 +42,22 @@ public abstract class Rule {
 	/**
 	 * Returns the rule number.
 	 * 
-	 * @return Returns the rule number.
+	 * @return Returns the rule number, or -1 if it does not fit in an int.
 	 */
 	public int getRuleNum() {
 		return rule;
 	}
 	
+	/**
+	 * Returns the rule number, however large it is. Only the general rules have numbers that do not
+	 * fit in an int.
+	 * 
+	 * @return Returns the rule number.
+	 */
+	public BigInteger getRuleNumber() {
+		return BigInteger.valueOf(rule);
+	}
+	
 	/**
 	 * Return the cell states in the neighborhood of the cell with the given index.
 	 * 
@@ -56,11 +82,121 @@ public abstract class Rule {
 	 * @return Returns the evolved generation.
 	 */
 	public Generation evolve(Generation gen) {
-		boolean[] nextGen = new boolean[gen.size()];
-	    for (int i = 0; i < gen.size(); ++i) {
-	    	nextGen[i] = evolve(getNeighborhood(i, gen));
-	    }
-	    return new Generation(nextGen);
+		long[] next = new long[gen.getWordCount()];
+		if(gen.size() > 0)
+			evolveInto(gen, next);
+		return Generation.wrap(next, gen.size());
+	}
+	
+	/**
+	 * Evolves the generation numSteps times without keeping the generations in between. The steps
+	 * alternate between two buffers, so only the returned generation is allocated.
+	 * 
+	 * @param gen  The generation which is going to evolve.
+	 * @param numSteps  How many times the generation should evolve.
+	 * @return Returns the evolved generation, or gen itself if numSteps is not positive.
+	 */
+	public Generation evolve(Generation gen, int numSteps) {
+		if(numSteps <= 0 || gen.size() == 0)
+			return gen;
+		long[] next = new long[gen.getWordCount()];
+		evolveInto(gen, next);
+		Generation current = Generation.wrap(next, gen.size());
+		long[] spare = numSteps > 1 ? new long[next.length] : null;
+		for(int step = 1; step < numSteps; ++step) {
+			evolveInto(current, spare);
+			long[] words = current.words();
+			current = Generation.wrap(spare, gen.size());
+			spare = words;
+		}
+		return current;
+	}
+	
+	/**
+	 * Writes the packed next generation into next, overwriting every word. If the rule reports its
+	 * radius, the neighborhoods are walked with a NeighborhoodCursor and looked up in the rule table,
+	 * so no memory is allocated per cell. Otherwise every cell goes through getNeighborhood and
+	 * evolve(boolean[]).
+	 * 
+	 * @param gen  The generation which is going to evolve, with at least one cell.
+	 * @param next  The array which receives the packed next generation.
+	 */
+	void evolveInto(Generation gen, long[] next) {
+		int radius = getRadius();
+		if(radius < 0 || radius > MAX_TABLE_RADIUS) {
+			for(int i = 0; i < next.length; ++i)
+				next[i] = 0;
+			for(int i = 0; i < gen.size(); ++i) {
+				if(evolve(getNeighborhood(i, gen)))
+					next[i >>> 6] |= 1L << i;
+			}
+			return;
+		}
+		boolean[] table = getTable();
+		NeighborhoodCursor cursor = new NeighborhoodCursor(gen, radius);
+		long word = 0;
+		for(int i = 0; i < gen.size(); ++i) {
+			if(table[cursor.getCode()])
+				word |= 1L << i;
+			if((i & 63) == 63) {
+				next[i >>> 6] = word;
+				word = 0;
+			}
+			cursor.advance();
+		}
+		if((gen.size() & 63) != 0)
+			next[next.length - 1] = word;
+	}
+	
+	/**
+	 * Returns the radius of the neighborhoods returned by getNeighborhood, or -1 if the rule does not
+	 * say. Rules that report a radius no larger than MAX_TABLE_RADIUS are evolved through a lookup
+	 * table instead of one getNeighborhood call per cell.
+	 * 
+	 * @return Returns the radius of the rule.
+	 */
+	public int getRadius() {
+		return -1;
+	}
+	
+	/**
+	 * Returns the kernel that runs the inner loops of the packed engines.
+	 * 
+	 * @return Returns the kernel.
+	 */
+	WordKernel getKernel() {
+		return kernel;
+	}
+	
+	/**
+	 * Sets the kernel that runs the inner loops of the packed engines.
+	 * 
+	 * @param kernel  The kernel.
+	 */
+	void setKernel(WordKernel kernel) {
+		this.kernel = kernel;
+	}
+	
+	/**
+	 * Returns the rule table indexed by neighborhood code, building it the first time. Entry code
+	 * holds evolve(boolean[]) for the neighborhood whose cells are the bits of code, leftmost cell
+	 * in the most significant bit.
+	 * 
+	 * @return Returns the rule table.
+	 */
+	boolean[] getTable() {
+		if(table == null) {
+			int width = 2 * getRadius() + 1;
+			boolean[] nextTable = new boolean[1 << width];
+			boolean[] neighborhood = new boolean[width];
+			for(int code = 0; code < nextTable.length; ++code) {
+				for(int i = 0; i < width; ++i)
+					neighborhood[i] = ((code >>> (width - 1 - i)) & 1) != 0;
+				nextTable[code] = evolve(neighborhood);
+			}
+			table = nextTable;
+		}
+		return table;
 	}
 	
 	/**
@@ -72,6 +208,42 @@ public abstract class Rule {
 	 */
 	public abstract String ruleTableString(char falseSymbol, char trueSymbol);
 	
+	/**
+	 * Expands the low numBits bits of ruleNum into word masks. Entry k is all ones if bit k of ruleNum
+	 * is set and all zeros otherwise, so a rule bit can be applied to 64 cells with a single and.
+	 * 
+	 * @param ruleNum  The number of the rule.
+	 * @param numBits  The number of rule bits to expand.
+	 * @return Returns the masks of the rule bits.
+	 */
+	static long[] ruleMasks(int ruleNum, int numBits) {
+		long[] masks = new long[numBits];
+		for(int k = 0; k < numBits; ++k)
+			masks[k] = -((ruleNum >>> k) & 1L);
+		return masks;
+	}
+	
+	/**
+	 * Looks up eight rule masks for 64 cells at once. For every bit position, the three selector
+	 * words form the index 4 * high + 2 * middle + low, and the result takes that bit from the mask
+	 * with the same index. This is a tree of bitwise multiplexers, so it never branches on the cells.
+	 * 
+	 * @param masks  The eight masks built by ruleMasks.
+	 * @param high  The most significant bit of each index.
+	 * @param middle  The middle bit of each index.
+	 * @param low  The least significant bit of each index.
+	 * @return Returns the selected bits.
+	 */
+	static long select(long[] masks, long high, long middle, long low) {
+		long m00 = masks[0] ^ ((masks[0] ^ masks[1]) & low);
+		long m01 = masks[2] ^ ((masks[2] ^ masks[3]) & low);
+		long m10 = masks[4] ^ ((masks[4] ^ masks[5]) & low);
+		long m11 = masks[6] ^ ((masks[6] ^ masks[7]) & low);
+		long m0 = m00 ^ ((m00 ^ m01) & middle);
+		long m1 = m10 ^ ((m10 ^ m11) & middle);
+		return m0 ^ ((m0 ^ m1) & high);
+	}
+	
 	/**
 	 * Return the cell states in the neighborhood of the cell with the given index and specified radius.
 	 * The radius refers to the additional number of cells to the left/right of the given index.
@@ -84,7 +256,7 @@ public abstract class Rule {
 	public static boolean[] getNeighborhoodByRadius(int idx, int radius, Generation gen) {
 		boolean[] nextNeighborhood = new boolean[radius*2+1];
 		for(int i = 0; i < nextNeighborhood.length; ++i)
-			nextNeighborhood[i] = gen.getStates()[Math.floorMod(idx - radius + i, gen.size())];
+			nextNeighborhood[i] = gen.getState(Math.floorMod(idx - radius + i, gen.size()));
 		return nextNeighborhood;
 	}
 }
@@ -1,3 +1,4 @@
+import java.math.BigInteger;
 
 /**
  * This throws an exception if the Range is outside the min and max values.
@@ -21,4 +22,14 @@ public class RuleNumException extends Exception {
 	public RuleNumException(int min, int max) {
 		super("ruleNum is outside the range [" + min + ", " + max + "].");
 	}
+	
+	/**
+	 * Prints out the ruleNum ranges of rules whose numbers do not fit in an int.
+	 * 
+	 * @param min  The lowest value the rule can be.
+	 * @param max  The highest value the rule can be.
+	 */
+	public RuleNumException(BigInteger min, BigInteger max) {
+		super("ruleNum is outside the range [" + min + ", " + max + "].");
+	}
 }
@@ -0,0 +1,550 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * RuleSweep runs every rule of a CellularAutomaton type, or a chosen subset of them, from the same initial
+ * generation in one JVM. Each rule is a task on a fork-join pool, so idle workers steal the rules that are
+ * left while slow ones are still running. A sweep can keep only the final generations, write each rule's
+ * evolution to its own text file, or write them all to one indexed file, and reports its throughput in
+ * rules and cell updates per second.
+ * <p>
+ * Elementary rules that are mirror images or complements of each other give each other's evolutions from
+ * the mirrored or complemented initial generation. So each rule is run as its canonical rule from the
+ * transformed initial generation, and rules that come down to the same canonical rule and the same
+ * initial generation share one run whose rows are transformed back for each of them. How much this saves
+ * depends on the symmetry of the initial generation: a sweep of all 256 rules from one centered cell,
+ * which is its own mirror image, evolves 160 automata, and one from a generation with no symmetry
+ * evolves all 256.
+ * <p>
+ * The indexed file starts with a header and an index, followed by the evolution of each rule as the same
+ * lines saveEvolution writes. Every rule's block has the same length, so a rule is found by its offset in
+ * the index without reading the others. All values are little-endian.
+ * <pre>
+ * offset  size  field
+ *      0     4  magic, the bytes "CASW"
+ *      4     2  version
+ *      6     1  CellularAutomaton ordinal
+ *      7     1  reserved, 0
+ *      8     4  number of rules
+ *     12     4  number of cells in each generation
+ *     16     4  number of rows of each rule
+ *     20     4  number of bytes in each row, line separator included
+ *     24        index of 12 bytes per rule, the rule number and the offset of its block
+ * </pre>
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class RuleSweep {
+
+	/**
+	 * The magic number at the start of every indexed file.
+	 */
+	static final int MAGIC = 0x57534143;
+
+	/**
+	 * The version of the indexed file format.
+	 */
+	static final short VERSION = 1;
+
+	/**
+	 * The size of the header before the index.
+	 */
+	static final int HEADER_SIZE = 24;
+
+	/**
+	 * The size of each entry of the index.
+	 */
+	static final int INDEX_ENTRY_SIZE = 12;
+
+	/**
+	 * The type of the automata.
+	 */
+	private CellularAutomaton type;
+
+	/**
+	 * The generation every rule starts from.
+	 */
+	private Generation initial;
+
+	/**
+	 * The pool that runs the rules.
+	 */
+	private ForkJoinPool pool;
+
+	/**
+	 * The rules to run, in ascending order.
+	 */
+	private int[] rules;
+
+	/**
+	 * Whether equivalent elementary rules share their runs.
+	 */
+	private boolean deduplicate = true;
+
+	/**
+	 * The false value of the automata.
+	 */
+	char falseSymbol = '0';
+
+	/**
+	 * The true value of the automata.
+	 */
+	char trueSymbol = '1';
+
+	/**
+	 * Creates a sweep of every rule of the type on the common pool.
+	 *
+	 * @param type  The type of the automata.
+	 * @param initial  The generation every rule starts from.
+	 */
+	public RuleSweep(CellularAutomaton type, Generation initial) {
+		this(type, initial, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a sweep of every rule of the type.
+	 *
+	 * @param type  The type of the automata.
+	 * @param initial  The generation every rule starts from.
+	 * @param pool  The pool that runs the rules.
+	 */
+	public RuleSweep(CellularAutomaton type, Generation initial, ForkJoinPool pool) {
+		this.type = type;
+		this.initial = initial;
+		this.pool = pool;
+		rules = new int[getRuleCount(type)];
+		for(int i = 0; i < rules.length; ++i)
+			rules[i] = i;
+	}
+
+	/**
+	 * Returns the number of rules of a type. GCA and GTCA rules are swept at the radius of their int
+	 * rule numbers, where they are the ECA and TCA rules.
+	 *
+	 * @param type  The type of the automata.
+	 * @return Returns 256 for ECA and GCA and 64 for TCA and GTCA.
+	 */
+	public static int getRuleCount(CellularAutomaton type) {
+		return type == CellularAutomaton.ECA || type == CellularAutomaton.GCA ? 256 : 64;
+	}
+
+	/**
+	 * Parses a list of rules: "all", or rule numbers and ranges separated by commas, such as "30,90,100-110".
+	 *
+	 * @param s  The list of rules.
+	 * @param type  The type of the automata.
+	 * @return Returns the rules, in ascending order without repeats.
+	 * @throws NumberFormatException If a rule number is not a number.
+	 * @throws RuleNumException If a rule number is outside the range of rules of the type.
+	 */
+	public static int[] parseRules(String s, CellularAutomaton type) throws RuleNumException {
+		boolean[] chosen = new boolean[getRuleCount(type)];
+		if(s.equalsIgnoreCase("all"))
+			s = "0-" + (chosen.length - 1);
+		for(String part : s.split(",")) {
+			int dash = part.indexOf('-', 1);
+			int first = Integer.parseInt(dash < 0 ? part.trim() : part.substring(0, dash).trim());
+			int last = dash < 0 ? first : Integer.parseInt(part.substring(dash + 1).trim());
+			if(first < 0 || last >= chosen.length || first > last)
+				throw new RuleNumException(0, chosen.length - 1);
+			for(int rule = first; rule <= last; ++rule)
+				chosen[rule] = true;
+		}
+		int[] rules = new int[chosen.length];
+		int count = 0;
+		for(int rule = 0; rule < chosen.length; ++rule)
+			if(chosen[rule])
+				rules[count++] = rule;
+		return Arrays.copyOf(rules, count);
+	}
+
+	/**
+	 * Sets the rules to run.
+	 *
+	 * @param rules  The rule numbers.
+	 * @throws RuleNumException If a rule number is outside the range of rules of the type.
+	 */
+	public void setRules(int... rules) throws RuleNumException {
+		int[] sorted = Arrays.stream(rules).sorted().distinct().toArray();
+		if(sorted.length > 0 && (sorted[0] < 0 || sorted[sorted.length - 1] >= getRuleCount(type)))
+			throw new RuleNumException(0, getRuleCount(type) - 1);
+		this.rules = sorted;
+	}
+
+	/**
+	 * Returns the rules to run.
+	 *
+	 * @return Returns the rule numbers, in ascending order.
+	 */
+	public int[] getRules() {
+		return rules.clone();
+	}
+
+	/**
+	 * Sets whether elementary rules that are equivalent under mirroring and complementing share their
+	 * runs. It is on by default; the results are the same either way.
+	 *
+	 * @param deduplicate  Whether to share the runs of equivalent rules.
+	 */
+	public void setDeduplicate(boolean deduplicate) {
+		this.deduplicate = deduplicate;
+	}
+
+	/**
+	 * Returns whether equivalent elementary rules share their runs.
+	 *
+	 * @return Returns true if equivalent rules share their runs.
+	 */
+	public boolean isDeduplicating() {
+		return deduplicate;
+	}
+
+	/**
+	 * Evolves every rule numSteps times, keeping only the final generations.
+	 *
+	 * @param numSteps  How many times each automaton should evolve.
+	 * @return Returns the final generations and the throughput.
+	 */
+	public SweepResult run(int numSteps) {
+		SweepResult result = new SweepResult(type, rules, initial.size(), numSteps);
+		sweep(result, run -> {
+			Automaton automaton = createAutomaton(run);
+			automaton.setRecordHistory(false);
+			automaton.evolve(numSteps);
+			return automaton.getCurrentGeneration();
+		});
+		return result;
+	}
+
+	/**
+	 * Evolves every rule numSteps times and writes each evolution, as saveEvolution does, to a file in the
+	 * directory named after the type and the rule, such as eca-30.txt.
+	 *
+	 * @param directory  The directory of the files.
+	 * @param numSteps  How many times each automaton should evolve.
+	 * @return Returns the final generations and the throughput.
+	 * @throws IOException If a file cannot be written.
+	 */
+	public SweepResult saveEvolutions(String directory, int numSteps) throws IOException {
+		SweepResult result = new SweepResult(type, rules, initial.size(), numSteps);
+		sweepWithIO(result, run -> {
+			Automaton automaton = createAutomaton(run);
+			EvolutionWriter[] writers = new EvolutionWriter[run.indices.length];
+			try {
+				automaton.setHistory(new TailHistory(1));
+				for(int t = 0; t < writers.length; ++t) {
+					String path = new File(directory, getFilename(type, rules[run.indices[t]])).getPath();
+					writers[t] = new EvolutionWriter(path, falseSymbol, trueSymbol);
+				}
+				for(int step = 0; step <= numSteps; ++step) {
+					if(step > 0)
+						automaton.evolve(1);
+					for(int t = 0; t < writers.length; ++t)
+						writers[t].write(run.transforms[t].apply(automaton.getCurrentGeneration()));
+				}
+				for(int t = 0; t < writers.length; ++t) {
+					EvolutionWriter writer = writers[t];
+					writers[t] = null;
+					writer.close();
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			} finally {
+				// Whatever went wrong, the files of the run are not left open on the worker.
+				for(EvolutionWriter writer : writers)
+					closeQuietly(writer);
+			}
+			return automaton.getCurrentGeneration();
+		});
+		return result;
+	}
+
+	/**
+	 * Returns the name of the file saveEvolutions writes a rule to.
+	 *
+	 * @param type  The type of the automata.
+	 * @param rule  The rule number.
+	 * @return Returns the name of the file, such as eca-30.txt.
+	 */
+	public static String getFilename(CellularAutomaton type, int rule) {
+		return type.name().toLowerCase() + "-" + rule + ".txt";
+	}
+
+	/**
+	 * Evolves every rule numSteps times and writes all the evolutions to one indexed file. The workers
+	 * write their blocks straight to their place in the file, in whatever order they finish.
+	 *
+	 * @param filename  The name of the file.
+	 * @param numSteps  How many times each automaton should evolve.
+	 * @return Returns the final generations and the throughput.
+	 * @throws IOException If the file cannot be written.
+	 * @throws IllegalArgumentException If the symbols encode to different numbers of bytes.
+	 */
+	public SweepResult saveIndexed(String filename, int numSteps) throws IOException {
+		Charset charset = Charset.defaultCharset();
+		byte[] falseBytes = String.valueOf(falseSymbol).getBytes(charset);
+		byte[] trueBytes = String.valueOf(trueSymbol).getBytes(charset);
+		byte[] lineSeparator = System.lineSeparator().getBytes(charset);
+		if(falseBytes.length != trueBytes.length)
+			throw new IllegalArgumentException("The symbols must encode to the same number of bytes.");
+		int rows = Math.max(0, numSteps) + 1;
+		int rowBytes = initial.size() * falseBytes.length + lineSeparator.length;
+		long blockBytes = (long) rows * rowBytes;
+		long dataStart = HEADER_SIZE + (long) rules.length * INDEX_ENTRY_SIZE;
+
+		ByteBuffer header = ByteBuffer.allocate((int) dataStart).order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(MAGIC).putShort(VERSION).put((byte) type.ordinal()).put((byte) 0)
+				.putInt(rules.length).putInt(initial.size()).putInt(rows).putInt(rowBytes);
+		for(int i = 0; i < rules.length; ++i)
+			header.putInt(rules[i]).putLong(dataStart + i * blockBytes);
+		header.flip();
+
+		SweepResult result = new SweepResult(type, rules, initial.size(), numSteps);
+		try (FileChannel out = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			write(out, header, 0);
+			sweepWithIO(result, run -> {
+				Automaton automaton = createAutomaton(run);
+				ByteBuffer line = ByteBuffer.allocate(rowBytes);
+				try {
+					automaton.setHistory(new TailHistory(1));
+					for(int step = 0; step < rows; ++step) {
+						if(step > 0)
+							automaton.evolve(1);
+						for(int t = 0; t < run.indices.length; ++t) {
+							Generation gen = run.transforms[t].apply(automaton.getCurrentGeneration());
+							render(gen, falseBytes, trueBytes, lineSeparator, line.array());
+							line.clear();
+							write(out, line, dataStart + run.indices[t] * blockBytes + (long) step * rowBytes);
+						}
+					}
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				return automaton.getCurrentGeneration();
+			});
+		}
+		return result;
+	}
+
+	/**
+	 * Renders a generation, followed by the line separator, into a line of bytes.
+	 *
+	 * @param gen  The generation.
+	 * @param falseBytes  The encoded false symbol.
+	 * @param trueBytes  The encoded true symbol, as long as the false symbol.
+	 * @param lineSeparator  The encoded line separator.
+	 * @param line  The line, exactly long enough.
+	 */
+	private static void render(Generation gen, byte[] falseBytes, byte[] trueBytes, byte[] lineSeparator,
+			byte[] line) {
+		int pos = 0;
+		if(falseBytes.length == 1) {
+			byte falseByte = falseBytes[0];
+			byte trueByte = trueBytes[0];
+			for(int i = 0; i < gen.size(); ++i)
+				line[i] = ((gen.getWord(i >>> 6) >>> i) & 1) != 0 ? trueByte : falseByte;
+			pos = gen.size();
+		}
+		else {
+			for(int i = 0; i < gen.size(); ++i) {
+				byte[] symbol = gen.getState(i) ? trueBytes : falseBytes;
+				System.arraycopy(symbol, 0, line, pos, symbol.length);
+				pos += symbol.length;
+			}
+		}
+		System.arraycopy(lineSeparator, 0, line, pos, lineSeparator.length);
+	}
+
+	/**
+	 * Writes all of a buffer to the channel at the given position. Positioned writes do not move the
+	 * channel, so workers can write their blocks at the same time.
+	 *
+	 * @param out  The channel.
+	 * @param buffer  The bytes to write.
+	 * @param position  The position in the file.
+	 * @throws IOException If the file cannot be written.
+	 */
+	private static void write(FileChannel out, ByteBuffer buffer, long position) throws IOException {
+		while(buffer.hasRemaining())
+			position += out.write(buffer, position);
+	}
+
+	/**
+	 * Closes a writer that is being abandoned after a failure, ignoring any further failure.
+	 *
+	 * @param writer  The writer, or null.
+	 */
+	private static void closeQuietly(EvolutionWriter writer) {
+		if(writer == null)
+			return;
+		try {
+			writer.close();
+		} catch (IOException e) {
+			// The first failure is the one reported.
+		}
+	}
+
+	/**
+	 * Creates the automaton of a run with the sweep's symbols.
+	 *
+	 * @param run  The run, whose rule is already checked.
+	 * @return Returns the automaton.
+	 */
+	private Automaton createAutomaton(Run run) {
+		try {
+			Automaton automaton = Automaton.createAutomaton(type, run.rule, run.initial);
+			automaton.falseSymbol = falseSymbol;
+			automaton.trueSymbol = trueSymbol;
+			return automaton;
+		} catch (RuleNumException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Runs the work for every rule, rethrowing the first IOException any of them met.
+	 *
+	 * @param result  The result the final generations go to.
+	 * @param work  The work for one rule.
+	 * @throws IOException If the work for a rule could not read or write a file.
+	 */
+	private void sweepWithIO(SweepResult result, RuleWork work) throws IOException {
+		try {
+			sweep(result, work);
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+	}
+
+	/**
+	 * Runs the work for every run on the pool and times it.
+	 *
+	 * @param result  The result the final generations and the time go to.
+	 * @param work  The work for one run.
+	 */
+	private void sweep(SweepResult result, RuleWork work) {
+		long start = System.nanoTime();
+		Run[] runs = plan();
+		if(runs.length > 0)
+			pool.invoke(new RuleTask(runs, result, work, 0, runs.length));
+		result.setElapsedNanos(System.nanoTime() - start);
+		result.setComputedRuns(runs.length);
+	}
+
+	/**
+	 * Groups the rules into runs. Without deduplication, or for totalistic rules, every rule is its own
+	 * run. Otherwise each elementary rule becomes its canonical rule run from the transformed initial
+	 * generation, and rules that give the same canonical rule and initial generation share a run.
+	 *
+	 * @return Returns the runs, in the order of their first rules.
+	 */
+	private Run[] plan() {
+		LinkedHashMap<List<Object>, Run> runs = new LinkedHashMap<List<Object>, Run>();
+		for(int i = 0; i < rules.length; ++i) {
+			int rule = rules[i];
+			RuleTransform transform = RuleTransform.IDENTITY;
+			if(deduplicate && type == CellularAutomaton.ECA) {
+				transform = ElementaryRule.getCanonicalTransform(rule);
+				rule = transform.apply(rule);
+			}
+			Generation start = transform.apply(initial);
+			List<Object> key = Arrays.asList(rule, start);
+			Run run = runs.get(key);
+			if(run == null) {
+				run = new Run(rule, start);
+				runs.put(key, run);
+			}
+			run.add(i, transform);
+		}
+		return runs.values().toArray(new Run[runs.size()]);
+	}
+
+	/**
+	 * One automaton to evolve and the rules of the sweep it stands for. Rule indices[t] of the sweep gives
+	 * transforms[t] of every generation of the run.
+	 */
+	private static class Run {
+
+		private final int rule;
+		private final Generation initial;
+		private int[] indices = new int[0];
+		private RuleTransform[] transforms = new RuleTransform[0];
+
+		private Run(int rule, Generation initial) {
+			this.rule = rule;
+			this.initial = initial;
+		}
+
+		private void add(int index, RuleTransform transform) {
+			indices = Arrays.copyOf(indices, indices.length + 1);
+			indices[indices.length - 1] = index;
+			transforms = Arrays.copyOf(transforms, transforms.length + 1);
+			transforms[transforms.length - 1] = transform;
+		}
+	}
+
+	/**
+	 * The work done for one run.
+	 */
+	private interface RuleWork {
+
+		/**
+		 * Evolves one run and writes whatever the sweep saves for each of its rules.
+		 *
+		 * @param run  The run.
+		 * @return Returns the final generation of the run.
+		 */
+		Generation run(Run run);
+	}
+
+	/**
+	 * Evolves a range of the runs, splitting it in halves until each task holds one run, so every run can
+	 * be stolen by an idle worker.
+	 */
+	private static class RuleTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Run[] runs;
+		private final SweepResult result;
+		private final RuleWork work;
+		private final int from;
+		private final int to;
+
+		private RuleTask(Run[] runs, SweepResult result, RuleWork work, int from, int to) {
+			this.runs = runs;
+			this.result = result;
+			this.work = work;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from == 1) {
+				Run run = runs[from];
+				Generation last = work.run(run);
+				for(int t = 0; t < run.indices.length; ++t)
+					result.setFinalGeneration(run.indices[t], run.transforms[t].apply(last));
+				return;
+			}
+			int middle = (from + to) >>> 1;
+			invokeAll(new RuleTask(runs, result, work, from, middle), new RuleTask(runs, result, work, middle, to));
+		}
+	}
+}
@@ -0,0 +1,88 @@
+
+/**
+ * RuleTransform is an enum representing the symmetries that map elementary rules onto each other. Mirroring
+ * swaps the left and right neighbors, and complementing swaps the true and false states. Each transform
+ * undoes itself, and it acts on generations as well as rules: the rule T(r) run from T(g) gives T of the
+ * generations rule r gives from g. Under these transforms the 256 elementary rules fall into 88 classes.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public enum RuleTransform {
+
+	/**
+	 * Leaves the rule and the generation as they are.
+	 */
+	IDENTITY,
+
+	/**
+	 * Swaps the left and right neighbors, and reverses the generation.
+	 */
+	MIRROR,
+
+	/**
+	 * Swaps the true and false states, and flips every cell.
+	 */
+	COMPLEMENT,
+
+	/**
+	 * Mirrors and complements.
+	 */
+	MIRROR_COMPLEMENT;
+
+	/**
+	 * Returns the transformed elementary rule number.
+	 *
+	 * @param ruleNum  The rule number, between 0 and 255.
+	 * @return Returns the number of the transformed rule.
+	 */
+	public int apply(int ruleNum) {
+		int transformed = 0;
+		for(int k = 0; k < 8; ++k) {
+			// Neighborhood k = 4 * left + 2 * center + right of the new rule reads this one of the old rule.
+			int neighborhood = mirrors() ? (k & 2) | (k >>> 2) | ((k & 1) << 2) : k;
+			if(complements())
+				neighborhood = 7 - neighborhood;
+			int bit = (ruleNum >>> neighborhood) & 1;
+			transformed |= (complements() ? 1 - bit : bit) << k;
+		}
+		return transformed;
+	}
+
+	/**
+	 * Returns the transformed generation.
+	 *
+	 * @param gen  The generation.
+	 * @return Returns the generation itself for IDENTITY and a transformed copy otherwise.
+	 */
+	public Generation apply(Generation gen) {
+		switch(this) {
+		case MIRROR:
+			return gen.mirror();
+		case COMPLEMENT:
+			return gen.complement();
+		case MIRROR_COMPLEMENT:
+			return gen.mirror().complement();
+		default:
+			return gen;
+		}
+	}
+
+	/**
+	 * Returns whether the transform mirrors.
+	 *
+	 * @return Returns true for MIRROR and MIRROR_COMPLEMENT.
+	 */
+	private boolean mirrors() {
+		return this == MIRROR || this == MIRROR_COMPLEMENT;
+	}
+
+	/**
+	 * Returns whether the transform complements.
+	 *
+	 * @return Returns true for COMPLEMENT and MIRROR_COMPLEMENT.
+	 */
+	private boolean complements() {
+		return this == COMPLEMENT || this == MIRROR_COMPLEMENT;
+	}
+}
@@ -0,0 +1,41 @@
+
+/**
+ * ScalarWordKernel evolves one word at a time with plain long arithmetic. It is the kernel used when the
+ * Vector API is not available, and it finishes the words left over by VectorWordKernel.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+class ScalarWordKernel extends WordKernel {
+
+	/**
+	 * Returns the name of the kernel.
+	 */
+	String getName() {
+		return "scalar";
+	}
+
+	/**
+	 * Evolves the words [from, to) of an elementary CA.
+	 */
+	void evolveElementary(long[] masks, long[] words, long[] next, int from, int to) {
+		for(int i = from; i < to; ++i) {
+			long center = words[i];
+			next[i] = Rule.select(masks, (center << 1) | (words[i - 1] >>> 63), center,
+					(center >>> 1) | (words[i + 1] << 63));
+		}
+	}
+
+	/**
+	 * Evolves the words [from, to) of a totalistic CA.
+	 */
+	void evolveTotalistic(long[] masks, long[] words, long[] next, int from, int to) {
+		for(int i = from; i < to; ++i) {
+			long center = words[i];
+			long before = words[i - 1];
+			long after = words[i + 1];
+			next[i] = TotalisticRule.evolveWord(masks, (center << 2) | (before >>> 62),
+					(center << 1) | (before >>> 63), center, (center >>> 1) | (after << 63), (center >>> 2) | (after << 62));
+		}
+	}
+}
@@ -0,0 +1,187 @@
+import java.util.Arrays;
+
+/**
+ * SweepResult holds what a RuleSweep produced: the final generation of every rule it ran and how long it took,
+ * from which it reports the throughput of the sweep.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class SweepResult {
+
+	/**
+	 * The type of the automata.
+	 */
+	private CellularAutomaton type;
+
+	/**
+	 * The rules that were run, in ascending order.
+	 */
+	private int[] rules;
+
+	/**
+	 * The final generation of each rule, in the order of the rules.
+	 */
+	private Generation[] finals;
+
+	/**
+	 * The number of cells in each generation.
+	 */
+	private int width;
+
+	/**
+	 * How many times each automaton evolved.
+	 */
+	private int numSteps;
+
+	/**
+	 * The wall-clock time of the sweep in nanoseconds.
+	 */
+	private long elapsedNanos;
+
+	/**
+	 * The number of automata actually evolved.
+	 */
+	private int computedRuns;
+
+	/**
+	 * Creates an empty result.
+	 *
+	 * @param type  The type of the automata.
+	 * @param rules  The rules being run, in ascending order.
+	 * @param width  The number of cells in each generation.
+	 * @param numSteps  How many times each automaton evolves.
+	 */
+	SweepResult(CellularAutomaton type, int[] rules, int width, int numSteps) {
+		this.type = type;
+		this.rules = rules.clone();
+		this.finals = new Generation[rules.length];
+		this.width = width;
+		this.numSteps = Math.max(0, numSteps);
+	}
+
+	/**
+	 * Records the final generation of a rule.
+	 *
+	 * @param index  The index of the rule.
+	 * @param gen  The final generation.
+	 */
+	void setFinalGeneration(int index, Generation gen) {
+		finals[index] = gen;
+	}
+
+	/**
+	 * Records how long the sweep took.
+	 *
+	 * @param elapsedNanos  The wall-clock time in nanoseconds.
+	 */
+	void setElapsedNanos(long elapsedNanos) {
+		this.elapsedNanos = elapsedNanos;
+	}
+
+	/**
+	 * Records how many automata were actually evolved.
+	 *
+	 * @param computedRuns  The number of runs.
+	 */
+	void setComputedRuns(int computedRuns) {
+		this.computedRuns = computedRuns;
+	}
+
+	/**
+	 * Returns how many automata were actually evolved. Equivalent rules that shared a run make this fewer
+	 * than the number of rules.
+	 *
+	 * @return Returns the number of runs.
+	 */
+	public int getComputedRuns() {
+		return computedRuns;
+	}
+
+	/**
+	 * Returns the type of the automata.
+	 *
+	 * @return Returns the cellular automaton type.
+	 */
+	public CellularAutomaton getCellularAutomaton() {
+		return type;
+	}
+
+	/**
+	 * Returns the rules that were run.
+	 *
+	 * @return Returns the rule numbers, in ascending order.
+	 */
+	public int[] getRules() {
+		return rules.clone();
+	}
+
+	/**
+	 * Returns the final generation of a rule.
+	 *
+	 * @param rule  The rule number.
+	 * @return Returns the generation after the last step.
+	 * @throws IllegalArgumentException If the rule was not run.
+	 */
+	public Generation getFinalGeneration(int rule) {
+		int index = Arrays.binarySearch(rules, rule);
+		if(index < 0)
+			throw new IllegalArgumentException("Rule " + rule + " was not run.");
+		return finals[index];
+	}
+
+	/**
+	 * Returns how many times each automaton evolved.
+	 *
+	 * @return Returns the number of steps.
+	 */
+	public int getNumSteps() {
+		return numSteps;
+	}
+
+	/**
+	 * Returns the wall-clock time of the sweep.
+	 *
+	 * @return Returns the time in nanoseconds.
+	 */
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	/**
+	 * Returns the number of cells updated over all the rules, counting the rules that shared a run as
+	 * if they had been evolved on their own.
+	 *
+	 * @return Returns the rules times the cells times the steps.
+	 */
+	public long getCellUpdates() {
+		return (long) rules.length * width * numSteps;
+	}
+
+	/**
+	 * Returns the number of rules run per second.
+	 *
+	 * @return Returns the rule throughput.
+	 */
+	public double getRulesPerSecond() {
+		return rules.length * 1e9 / Math.max(1, elapsedNanos);
+	}
+
+	/**
+	 * Returns the number of cells updated per second.
+	 *
+	 * @return Returns the cell throughput.
+	 */
+	public double getCellsPerSecond() {
+		return getCellUpdates() * 1e9 / Math.max(1, elapsedNanos);
+	}
+
+	/**
+	 * Returns a summary of the sweep and its throughput.
+	 */
+	public String toString() {
+		return String.format("%d %s rules x %d steps in %.3f s (%d runs): %.1f rules/s, %.3g cells/s",
+				rules.length, type, numSteps, elapsedNanos / 1e9, computedRuns, getRulesPerSecond(),
+				getCellsPerSecond());
+	}
+}
@@ -0,0 +1,122 @@
+
+/**
+ * TailHistory retains only the last N generations, in a ring of N + 1 generations whose words it owns. When
+ * it evolves the automaton itself, each step writes the next generation straight into the words of the slot
+ * that has just left the window, so once the ring is built it allocates nothing per step; with N = 1 the ring
+ * is a pair of buffers that trade places every step. Generations added from outside are copied into the ring.
+ * The generations it returns are its own slots and are overwritten once they leave the window, so a
+ * generation that must outlive the window should be copied.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+public class TailHistory extends GenerationHistory {
+
+	/**
+	 * The number of generations retained.
+	 */
+	private int capacity;
+
+	/**
+	 * The ring of generations, built when the first generation is added.
+	 */
+	private Generation[] slots;
+
+	/**
+	 * The slot of the last generation.
+	 */
+	private int head;
+
+	/**
+	 * The number of generations added since the history was last cleared.
+	 */
+	private int size;
+
+	/**
+	 * Creates a history that retains the last capacity generations.
+	 *
+	 * @param capacity  The number of generations retained.
+	 * @throws IllegalArgumentException If capacity is not positive.
+	 */
+	public TailHistory(int capacity) {
+		if(capacity < 1)
+			throw new IllegalArgumentException("capacity must be positive.");
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the number of generations retained.
+	 *
+	 * @return Returns the capacity.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Copies the generation into the slot after the last one.
+	 */
+	public void add(Generation gen) {
+		if(slots == null || slots[0].size() != gen.size()) {
+			slots = new Generation[capacity + 1];
+			for(int i = 0; i < slots.length; ++i)
+				slots[i] = Generation.wrap(new long[gen.getWordCount()], gen.size());
+		}
+		head = (head + 1) % slots.length;
+		System.arraycopy(gen.words(), 0, slots[head].words(), 0, gen.getWordCount());
+		slots[head].refresh();
+		++size;
+	}
+
+	/**
+	 * Evolves each generation into the slot after it, which has just left the window.
+	 */
+	boolean evolveInPlace(Rule rule, int numSteps) {
+		if(size == 0 || slots[0].size() == 0)
+			return false;
+		for(int step = 0; step < numSteps; ++step) {
+			int next = (head + 1) % slots.length;
+			rule.evolveInto(slots[head], slots[next].words());
+			slots[next].refresh();
+			head = next;
+			++size;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the retained generation at the given index.
+	 */
+	public Generation get(int index) {
+		checkIndex(index);
+		return slots[Math.floorMod(head - (size - 1 - index), slots.length)];
+	}
+
+	/**
+	 * Returns the bytes of every slot in the ring, which are held whether or not they are in the window.
+	 */
+	public long getRetainedBytes() {
+		return slots == null ? 0 : (long) slots.length * slots[0].getWordCount() * Long.BYTES;
+	}
+
+	/**
+	 * Returns the number of generations added since the history was last cleared.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the index of the oldest retained generation.
+	 */
+	public int getFirstRetained() {
+		return Math.max(0, size - capacity);
+	}
+
+	/**
+	 * Removes every generation from the history. The ring is kept for the next generations.
+	 */
+	public void clear() {
+		size = 0;
+	}
+}
@@ -33,6 +33,13 @@ public class TotalisticAutomaton extends Automaton{
 		super(filename);
 	}
 	
+	/**
+	 * Returns the type TCA.
+	 */
+	public CellularAutomaton getCellularAutomaton() {
+		return CellularAutomaton.TCA;
+	}
+	
 	/**
 	 * Creates a rule in type TCA.
 	 */
@@ -12,6 +12,11 @@ public class TotalisticRule extends Rule{
 	 */
 	private String binary;
 	
+	/**
+	 * The rule bits expanded into word masks, indexed by the number of true cells in the neighborhood.
+	 */
+	private long[] masks;
+	
 	/**
 	 * Rule must be between 0 & 63
 	 * 
@@ -22,6 +27,7 @@ public class TotalisticRule extends Rule{
 		super(ruleNum);
 		if(ruleNum < 0 || ruleNum > 63)
 			throw new RuleNumException(0, 63);
+		masks = ruleMasks(ruleNum, 8);
 	}
 	
 	/**
@@ -36,6 +42,82 @@ public class TotalisticRule extends Rule{
 		return getBinary().charAt(5-count) == '1';
 	}
 	
+	/**
+	 * Evolves the generation 64 cells at a time, writing the words of the next generation into next. The
+	 * neighbor counts of a whole word are added up bitwise from the word and its copies shifted one and
+	 * two cells to each side. Words near the ends of the generation wrap around; every other word takes
+	 * its neighbors straight from the adjacent words in the WordKernel of the rule.
+	 * 
+	 * @param gen  The generation which is going to evolve, with at least one cell.
+	 * @param next  The array which receives the packed next generation.
+	 */
+	void evolveInto(Generation gen, long[] next) {
+		long[] words = gen.words();
+		int last = words.length - 1;
+		// The word before the last one needs two cells from the last word to its right.
+		int end = gen.size() - last * Generation.WORD_SIZE < 2 ? last - 1 : last;
+		getKernel().evolveTotalistic(masks, words, next, 1, end);
+		next[0] = evolveWindow(gen, 0);
+		for(int i = Math.max(end, 1); i <= last; ++i)
+			next[i] = evolveWindow(gen, i);
+	}
+	
+	/**
+	 * Evolves one word, reading its neighbors through the wrapping window of the generation.
+	 * 
+	 * @param gen  The generation which is going to evolve.
+	 * @param idx  The index of the word.
+	 * @return Returns the next states of the cells in the word.
+	 */
+	private long evolveWindow(Generation gen, int idx) {
+		int start = idx * Generation.WORD_SIZE;
+		return evolveWord(gen.getWindow(start - 2), gen.getWindow(start - 1), gen.getWord(idx),
+				gen.getWindow(start + 1), gen.getWindow(start + 2));
+	}
+	
+	/**
+	 * Applies the rule to 64 cells at once. The five neighborhood words are summed with two full
+	 * adders into a three bit count per cell, and the count selects the rule bit.
+	 * 
+	 * @param left2  The cells two to the left.
+	 * @param left1  The cells one to the left.
+	 * @param center  The cells.
+	 * @param right1  The cells one to the right.
+	 * @param right2  The cells two to the right.
+	 * @return Returns the next states of the cells.
+	 */
+	long evolveWord(long left2, long left1, long center, long right1, long right2) {
+		return evolveWord(masks, left2, left1, center, right1, right2);
+	}
+	
+	/**
+	 * Applies the rule given by its masks to 64 cells at once.
+	 * 
+	 * @param masks  The eight rule masks.
+	 * @param left2  The cells two to the left.
+	 * @param left1  The cells one to the left.
+	 * @param center  The cells.
+	 * @param right1  The cells one to the right.
+	 * @param right2  The cells two to the right.
+	 * @return Returns the next states of the cells.
+	 */
+	static long evolveWord(long[] masks, long left2, long left1, long center, long right1, long right2) {
+		long half = left2 ^ left1;
+		long partial = half ^ center;
+		long carry1 = (left2 & left1) | (center & half);
+		long half2 = partial ^ right1;
+		long ones = half2 ^ right2;
+		long carry2 = (partial & right1) | (right2 & half2);
+		return select(masks, carry1 & carry2, carry1 ^ carry2, ones);
+	}
+	
+	/**
+	 * Returns the radius of the neighborhoods (TCA).
+	 */
+	public int getRadius() {
+		return 2;
+	}
+	
 	/**
 	 * Return the cell states in the neighborhood of the cell with the given index (TCA).
 	 */
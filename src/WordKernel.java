@@ -0,0 +1,83 @@
+
+/**
+ * WordKernel runs the inner loops of the packed rule engines: the words of a generation whose neighbors lie in
+ * the words on either side of them. ElementaryRule and TotalisticRule hand these interior words to a kernel and
+ * handle the wrapping words at the ends themselves. The default kernel uses the Java Vector API when the
+ * jdk.incubator.vector module is present (run with --add-modules jdk.incubator.vector) and the vector kernel
+ * was built, and falls back to the scalar kernel otherwise. Every kernel produces exactly the same words.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+abstract class WordKernel {
+
+	/**
+	 * The name of the vector kernel, which is only loaded when its module is present.
+	 */
+	private static final String VECTOR_KERNEL = "VectorWordKernel";
+
+	/**
+	 * The module the vector kernel needs.
+	 */
+	private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+	/**
+	 * The kernel every rule starts with.
+	 */
+	private static final WordKernel DEFAULT = loadDefault();
+
+	/**
+	 * Returns the kernel every rule starts with.
+	 *
+	 * @return Returns the vector kernel if it can be used, otherwise the scalar kernel.
+	 */
+	static WordKernel getDefault() {
+		return DEFAULT;
+	}
+
+	/**
+	 * Loads the vector kernel by name, so that nothing links against the incubator module unless it is present.
+	 *
+	 * @return Returns the kernel.
+	 */
+	private static WordKernel loadDefault() {
+		if(ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent()) {
+			try {
+				return (WordKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// The kernel was left out of the build, so use the scalar one.
+			}
+		}
+		return new ScalarWordKernel();
+	}
+
+	/**
+	 * Returns the name of the kernel.
+	 *
+	 * @return Returns the name.
+	 */
+	abstract String getName();
+
+	/**
+	 * Evolves the words [from, to) of an elementary CA. Words from - 1 and to must exist.
+	 *
+	 * @param masks  The eight rule masks built by Rule.ruleMasks.
+	 * @param words  The packed generation.
+	 * @param next  The array which receives the packed next generation.
+	 * @param from  The first word to evolve, at least 1.
+	 * @param to  The word after the last word to evolve, at most words.length - 1.
+	 */
+	abstract void evolveElementary(long[] masks, long[] words, long[] next, int from, int to);
+
+	/**
+	 * Evolves the words [from, to) of a totalistic CA. Words from - 1 and to must exist, and every cell
+	 * in them must be a real cell.
+	 *
+	 * @param masks  The eight rule masks built by Rule.ruleMasks.
+	 * @param words  The packed generation.
+	 * @param next  The array which receives the packed next generation.
+	 * @param from  The first word to evolve, at least 1.
+	 * @param to  The word after the last word to evolve, at most words.length - 1.
+	 */
+	abstract void evolveTotalistic(long[] masks, long[] words, long[] next, int from, int to);
+}
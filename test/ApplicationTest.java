@@ -1,9 +1,15 @@
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -191,6 +197,53 @@ public class ApplicationTest {
 		assertEquals("", getErrorOutput());
 	}
 	
+	@Test
+	void testSweepRun() throws IOException {
+		String[] args = {"eca", "22,30", "0", "1", "0001000", "3"};
+		
+		Application app = new Application(args);
+		app.run();
+		
+		assertTrue(getOutput().startsWith("2 ECA rules x 3 steps in "));
+		assertEquals("", getErrorOutput());
+		assertEquals(
+				"0001000" + System.lineSeparator() +
+				"0011100" + System.lineSeparator() +
+				"0100010" + System.lineSeparator() +
+				"1110111" + System.lineSeparator(), 
+				new String(Files.readAllBytes(new File("eca-22.txt").toPath())));
+		assertTrue(new File("eca-30.txt").delete());
+		assertTrue(new File("eca-22.txt").delete());
+	}
+	
+	@Test
+	void testStdoutCharset() {
+		String[] properties = {"stdout.encoding", "sun.stdout.encoding"};
+		String[] saved = new String[properties.length];
+		for(int i = 0; i < properties.length; ++i) {
+			saved[i] = System.getProperty(properties[i]);
+			System.clearProperty(properties[i]);
+		}
+		try {
+			assertEquals(Charset.defaultCharset(), Application.getStdoutCharset());
+			System.setProperty("sun.stdout.encoding", "ISO-8859-1");
+			assertEquals(StandardCharsets.ISO_8859_1, Application.getStdoutCharset());
+			System.setProperty("stdout.encoding", "UTF-16LE");
+			assertEquals(StandardCharsets.UTF_16LE, Application.getStdoutCharset());
+
+			// Check edge cases.
+			System.setProperty("stdout.encoding", "no-such-charset");
+			assertEquals(StandardCharsets.ISO_8859_1, Application.getStdoutCharset());
+		} finally {
+			for(int i = 0; i < properties.length; ++i) {
+				if(saved[i] == null)
+					System.clearProperty(properties[i]);
+				else
+					System.setProperty(properties[i], saved[i]);
+			}
+		}
+	}
+
 	@Test
 	void testParseArgeInvalidArgsEvolve() {
 		String[] args = {"eca", "22", "0", "1", "0001000", "X"};
@@ -0,0 +1,116 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.Test;
+
+class AutomatonEventTest {
+
+	@Test
+	void testEvolve() throws RuleNumException, IOException {
+		List<RecordedEvent> events = record("cellularautomaton.Evolve", () -> {
+			Automaton automaton = Automaton.createAutomaton(CellularAutomaton.TCA, 22, new Generation("0001000", '1'));
+			automaton.evolve(3);
+			automaton.evolve(0);
+			automaton.evolve(2);
+		});
+		assertEquals(2, events.size());
+		assertAutomaton(events.get(0), 22, "TCA", 7, 0, 3);
+		assertEquals(3, events.get(0).getInt("steps"));
+		assertAutomaton(events.get(1), 22, "TCA", 7, 3, 5);
+		assertEquals(2, events.get(1).getInt("steps"));
+		assertNull(events.get(0).getStackTrace());
+	}
+
+	@Test
+	void testLoad() throws RuleNumException, IOException {
+		List<RecordedEvent> events = record("cellularautomaton.Load", () -> new ElementaryAutomaton("test/eca-test-input.txt"));
+		assertEquals(1, events.size());
+		assertAutomaton(events.get(0), 40, "ECA", 9, 0, 0);
+		assertEquals("test/eca-test-input.txt", events.get(0).getString("filename"));
+	}
+
+	@Test
+	void testRender() throws RuleNumException, IOException {
+		File file = new File("testRenderEvent.txt");
+		List<RecordedEvent> events = record("cellularautomaton.Render", () -> {
+			Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30, new Generation("0001000", '1'));
+			automaton.evolve(2);
+			automaton.toString();
+			automaton.saveEvolution(file.getPath(), 3);
+		});
+		assertEquals(2, events.size());
+		assertAutomaton(events.get(0), 30, "ECA", 7, 0, 2);
+		assertNull(events.get(0).getString("filename"));
+		assertEquals(3 * 7 + 2 * System.lineSeparator().length(), events.get(0).getLong("size"));
+		// The save covers the steps it evolved on the way.
+		assertAutomaton(events.get(1), 30, "ECA", 7, 0, 5);
+		assertEquals(file.getPath(), events.get(1).getString("filename"));
+		assertEquals(file.length(), events.get(1).getLong("size"));
+		file.delete();
+	}
+
+	/**
+	 * Checks the fields every automaton event has.
+	 *
+	 * @param event  The event.
+	 * @param ruleNum  The expected rule number.
+	 * @param type  The expected type.
+	 * @param width  The expected width.
+	 * @param firstStep  The expected first step.
+	 * @param lastStep  The expected last step.
+	 */
+	private static void assertAutomaton(RecordedEvent event, int ruleNum, String type, int width, int firstStep, int lastStep) {
+		assertEquals(ruleNum, event.getInt("ruleNum"));
+		assertEquals(type, event.getString("type"));
+		assertEquals(width, event.getInt("width"));
+		assertEquals(firstStep, event.getInt("firstStep"));
+		assertEquals(lastStep, event.getInt("lastStep"));
+		assertTrue(event.getDuration().toNanos() >= 0);
+	}
+
+	/**
+	 * Returns the events of one type recorded while a job runs, in the order they ended.
+	 *
+	 * @param name  The name of the event type.
+	 * @param job  The job.
+	 * @return Returns the events.
+	 * @throws RuleNumException If the job throws it.
+	 * @throws IOException If the job throws it or the recording cannot be read.
+	 */
+	private static List<RecordedEvent> record(String name, Job job) throws RuleNumException, IOException {
+		Path path = Path.of("testAutomatonEvent.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(name).withoutThreshold();
+			recording.start();
+			job.run();
+			recording.stop();
+			recording.dump(path);
+		}
+		// Events are enabled unless configured otherwise, so the others are recorded too.
+		List<RecordedEvent> events = new ArrayList<RecordedEvent>();
+		for(RecordedEvent event : RecordingFile.readAllEvents(path))
+			if(event.getEventType().getName().equals(name))
+				events.add(event);
+		path.toFile().delete();
+		events.sort((a, b) -> a.getEndTime().compareTo(b.getEndTime()));
+		return events;
+	}
+
+	/**
+	 * A piece of work that may throw what the automata throw.
+	 */
+	private interface Job {
+		void run() throws RuleNumException, IOException;
+	}
+}
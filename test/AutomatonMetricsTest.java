@@ -0,0 +1,123 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+class AutomatonMetricsTest {
+
+	@Test
+	void testEvolve() throws RuleNumException, IOException {
+		AutomatonMetrics metrics = new AutomatonMetrics();
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30, new Generation("0001000", '1'));
+		assertNull(automaton.getMetricsListener());
+		automaton.setMetricsListener(metrics);
+		assertEquals(metrics, automaton.getMetricsListener());
+
+		automaton.evolve(10);
+		automaton.evolve(0);
+		automaton.evolve(5);
+		assertEquals(15, metrics.getGenerationsComputed());
+		assertEquals(15 * 7, metrics.getCellsUpdated());
+		assertEquals(2, metrics.getEvolveCalls());
+		assertTrue(metrics.getEvolveNanos() > 0);
+		assertEquals((double) metrics.getEvolveNanos() / 15, metrics.getMeanStepNanos());
+		// Sixteen generations of one word each.
+		assertEquals(16 * Long.BYTES, metrics.getHistoryBytesRetained());
+
+		long steps = 0;
+		for(long count : metrics.getStepNanosHistogram())
+			steps += count;
+		assertEquals(15, steps);
+
+		automaton.setHistory(new TailHistory(1));
+		automaton.evolve(3);
+		assertEquals(18, metrics.getGenerationsComputed());
+		assertEquals(2 * Long.BYTES, metrics.getHistoryBytesRetained());
+
+		metrics.reset();
+		assertEquals(0, metrics.getGenerationsComputed());
+		assertEquals(0, metrics.getMeanStepNanos());
+		assertArrayEquals(new long[AutomatonMetrics.BUCKETS], metrics.getStepNanosHistogram());
+
+		automaton.setMetricsListener(null);
+		automaton.evolve(3);
+		assertEquals(0, metrics.getGenerationsComputed());
+	}
+
+	@Test
+	void testBytesWritten() throws RuleNumException, IOException {
+		AutomatonMetrics metrics = new AutomatonMetrics();
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.TCA, 22, new Generation("0001000", '1'));
+		automaton.setMetricsListener(metrics);
+		File file = new File("testMetricsBytesWritten.txt");
+		automaton.saveEvolution(file.getPath(), 4);
+		assertEquals(file.length(), metrics.getBytesWritten());
+		assertEquals(4, metrics.getGenerationsComputed());
+		automaton.saveEvolution(file.getPath());
+		assertEquals(file.length() * 2, metrics.getBytesWritten());
+		file.delete();
+	}
+
+	@Test
+	void testHistogram() {
+		assertEquals(0, AutomatonMetrics.bucket(0));
+		assertEquals(1, AutomatonMetrics.bucket(1));
+		assertEquals(10, AutomatonMetrics.bucket(1000));
+		assertEquals(AutomatonMetrics.BUCKETS - 1, AutomatonMetrics.bucket(Long.MAX_VALUE));
+
+		AutomatonMetrics metrics = new AutomatonMetrics();
+		assertEquals(0, metrics.getStepNanosPercentile(50));
+		metrics.stepsEvolved(90, 0, 90 * 100);
+		metrics.stepsEvolved(10, 0, 10 * 5000);
+		metrics.stepsEvolved(0, 0, 123);
+		assertEquals(100, metrics.getGenerationsComputed());
+		assertEquals(90, metrics.getStepNanosHistogram()[7]);
+		assertEquals(10, metrics.getStepNanosHistogram()[13]);
+		assertEquals(128, metrics.getStepNanosPercentile(0));
+		assertEquals(128, metrics.getStepNanosPercentile(90));
+		assertEquals(8192, metrics.getStepNanosPercentile(91));
+		assertEquals(8192, metrics.getStepNanosPercentile(100));
+
+		// Check edge cases.
+		try {
+			metrics.getStepNanosPercentile(101);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("percentile must be between 0 and 100.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testRegister() throws JMException {
+		AutomatonMetrics metrics = new AutomatonMetrics();
+		metrics.stepsEvolved(4, 40, 400);
+		ObjectName name = metrics.register("test run");
+		assertEquals(name, metrics.getObjectName());
+		assertEquals(new ObjectName("cellularautomaton:type=Automaton,name=\"test run\""), name);
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		assertEquals(4L, server.getAttribute(name, "GenerationsComputed"));
+		assertEquals(40L, server.getAttribute(name, "CellsUpdated"));
+		server.invoke(name, "reset", null, null);
+		assertEquals(0L, server.getAttribute(name, "GenerationsComputed"));
+
+		// Registering again moves the metrics to the new name.
+		ObjectName renamed = metrics.register("renamed");
+		assertFalse(server.isRegistered(name));
+		assertTrue(server.isRegistered(renamed));
+		metrics.unregister();
+		assertFalse(server.isRegistered(renamed));
+		assertNull(metrics.getObjectName());
+	}
+}
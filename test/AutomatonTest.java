@@ -1,5 +1,6 @@
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -85,6 +86,192 @@ class AutomatonTest {
 		assertEquals(evolution, automaton.toString());
 	}
 	
+	@Test
+	void testParallelism() throws RuleNumException {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 22,
+				new Generation("000000010000000", '1'));
+		assertEquals(1, automaton.getParallelism());
+		automaton.setParallelism(4);
+		assertEquals(4, automaton.getParallelism());
+		automaton.evolve(7);
+		assertEquals("111011101110111", automaton.getGeneration(7).getStates('0', '1'));
+		automaton.setParallelism(1);
+		assertEquals(1, automaton.getParallelism());
+	}
+
+	@Test
+	void testMappedHistory() throws RuleNumException, IOException {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 22,
+				new Generation("000000010000000", '1'));
+		automaton.evolve(2);
+		File file = new File("testMappedHistory-automaton.bin");
+		automaton.setHistory(new MappedHistory(file, 15));
+		assertTrue(automaton.getHistory() instanceof MappedHistory);
+		assertEquals(2, automaton.getTotalSteps());
+		automaton.evolve(5);
+		assertEquals(7, automaton.getTotalSteps());
+		assertEquals("111011101110111", automaton.getGeneration(7).getStates('0', '1'));
+		assertEquals("000001000100000", automaton.getGeneration(2).getStates('0', '1'));
+		assertEquals(8, automaton.toString().split(System.lineSeparator()).length);
+		automaton.getHistory().close();
+		file.delete();
+	}
+
+	@Test
+	void testDeltaHistory() throws RuleNumException, IOException {
+		Automaton expected = Automaton.createAutomaton(CellularAutomaton.TCA, 22,
+				new Generation("000000000000000100000000000000", '1'));
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.TCA, 22,
+				new Generation("000000000000000100000000000000", '1'));
+		automaton.evolve(3);
+		automaton.setHistory(new DeltaHistory(4));
+		expected.evolve(40);
+		automaton.evolve(37);
+		assertEquals(40, automaton.getTotalSteps());
+		assertEquals(expected.toString(), automaton.toString());
+		assertEquals(expected.getGeneration(13), automaton.getGeneration(13));
+	}
+
+	@Test
+	void testStream() throws RuleNumException, IOException {
+		Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, 90,
+				new Generation("000000000000000100000000000000", '1'));
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 90,
+				new Generation("000000000000000100000000000000", '1'));
+		expected.evolve(40);
+		automaton.evolve(3);
+		assertEquals(expected.getGeneration(3), automaton.stream().findFirst().get());
+		assertEquals(expected.getGeneration(20), automaton.stream().skip(17).findFirst().get());
+		assertEquals(expected.getGeneration(40), automaton.iterator().skip(37).next());
+		// Streaming neither evolves the automaton nor records anything.
+		assertEquals(3, automaton.getTotalSteps());
+		assertEquals(4, automaton.getHistory().size());
+
+		// A rewritten tail slot does not change a stream that has already started.
+		automaton.setHistory(new TailHistory(1));
+		GenerationIterator iterator = automaton.iterator();
+		automaton.evolve(5);
+		assertEquals(expected.getGeneration(3), iterator.next());
+		assertEquals(expected.getGeneration(4), iterator.next());
+	}
+
+	@Test
+	void testCheckpointHistory() throws RuleNumException, IOException {
+		Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, 30,
+				new Generation("000000000000000100000000000000", '1'));
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30,
+				new Generation("000000000000000100000000000000", '1'));
+		automaton.setHistory(new CheckpointHistory(8, 4));
+		expected.evolve(50);
+		automaton.evolve(50);
+		assertEquals(50, automaton.getTotalSteps());
+		assertEquals(expected.toString(), automaton.toString());
+		assertEquals(expected.getGeneration(37), automaton.getGeneration(37));
+	}
+
+	@Test
+	void testTailHistory() throws RuleNumException, IOException {
+		Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, 30,
+				new Generation("000000000000000100000000000000", '1'));
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30,
+				new Generation("000000000000000100000000000000", '1'));
+		automaton.evolve(2);
+		automaton.setHistory(new TailHistory(3));
+		expected.evolve(50);
+		automaton.evolve(48);
+		assertEquals(50, automaton.getTotalSteps());
+		assertEquals(48, automaton.getFirstRetainedStep());
+		assertEquals(expected.getCurrentGeneration(), automaton.getCurrentGeneration());
+		assertEquals(expected.getGeneration(48), automaton.getGeneration(48));
+		assertEquals(expected.getGeneration(49).getStates('0', '1') + System.lineSeparator(),
+				automaton.toString().split(System.lineSeparator())[1] + System.lineSeparator());
+		assertEquals(3, automaton.toString().split(System.lineSeparator()).length);
+
+		try {
+			automaton.getGeneration(47);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Generation 47 was not recorded.", e.getMessage());
+		}
+
+		assertEquals(expected.getGeneration(53), automaton.getGeneration(53));
+		assertEquals(51, automaton.getFirstRetainedStep());
+	}
+
+	@Test
+	void testRecordHistory() throws RuleNumException {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 22,
+				new Generation("000000010000000", '1'));
+		assertTrue(automaton.isRecordingHistory());
+		automaton.evolve(2);
+		automaton.setRecordHistory(false);
+		assertFalse(automaton.isRecordingHistory());
+		assertEquals(2, automaton.getTotalSteps());
+		assertEquals("000001000100000", automaton.toString());
+
+		assertEquals(5, automaton.evolve(5));
+		assertEquals(7, automaton.getTotalSteps());
+		assertEquals("111011101110111", automaton.toString());
+		assertEquals("000000000000000", automaton.getGeneration(8).getStates('0', '1'));
+		assertEquals(8, automaton.getTotalSteps());
+
+		try {
+			automaton.getGeneration(3);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Generation 3 was not recorded.", e.getMessage());
+		}
+
+		automaton.setRecordHistory(true);
+		automaton.evolve(1);
+		assertEquals(9, automaton.getTotalSteps());
+		assertEquals("000000000000000" + System.lineSeparator() + "000000000000000", automaton.toString());
+	}
+
+	@Test
+	void testCycleDetection() throws RuleNumException {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 184,
+				new Generation("1100100000", '1'));
+		automaton.evolve(3);
+		assertFalse(automaton.isDetectingCycles());
+		assertEquals(-1, automaton.getTransientLength());
+		assertEquals(-1, automaton.getPeriod());
+
+		automaton.setCycleDetection(true);
+		assertTrue(automaton.isDetectingCycles());
+		automaton.evolve(40);
+		// After one step the three cars on the ten cell ring all move right forever.
+		assertEquals(10, automaton.getPeriod());
+		assertEquals(1, automaton.getTransientLength());
+		assertEquals(43, automaton.getTotalSteps());
+
+		Generation gen = automaton.getGeneration(2000000003);
+		assertEquals(automaton.getGeneration(3), gen);
+		assertEquals(43, automaton.getTotalSteps());
+
+		automaton.setRecordHistory(false);
+		automaton.evolve(1000000000);
+		assertEquals(automaton.getGeneration(1000000043), automaton.getGeneration(33));
+	}
+
+	@Test
+	void testCycleDetectionStartedLate() throws RuleNumException, IOException {
+		Generation initial = new Generation("1100100000", '1');
+		Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, 184, initial);
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 184, initial);
+		automaton.setHistory(new TailHistory(2));
+		automaton.evolve(20);
+		assertEquals(19, automaton.getFirstRetainedStep());
+
+		automaton.setCycleDetection(true);
+		automaton.evolve(40);
+		// The ring is in its cycle long before step 19, but the earliest step the detector saw is 19.
+		assertEquals(10, automaton.getPeriod());
+		assertEquals(19, automaton.getTransientLength());
+		assertEquals(expected.getGeneration(25), automaton.getGeneration(25));
+		assertEquals(expected.getGeneration(1003), automaton.getGeneration(1003));
+	}
+
 	@Test
 	void testGetCurrentGenerationZero() throws RuleNumException {
 		Automaton eca = new MockAutomaton();
@@ -116,6 +303,29 @@ class AutomatonTest {
 		file.delete();
 	}
 	
+	@Test
+	void testSaveEvolutionStreaming() throws RuleNumException, IOException {
+		Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, 30,
+				new Generation("000000000000000100000000000000", '1'));
+		expected.evolve(40);
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30,
+				new Generation("000000000000000100000000000000", '1'));
+		automaton.setHistory(new TailHistory(1));
+		automaton.evolve(10);
+		String filename = "testSaveEvolutionStreaming-output.txt";
+		automaton.saveEvolution(filename, 30);
+		assertEquals(40, automaton.getTotalSteps());
+
+		// The file holds generation 10 and the thirty generations streamed after it.
+		File file = new File(filename);
+		BufferedReader reader = new BufferedReader(new FileReader(file));
+		for(int i = 10; i <= 40; ++i)
+			assertEquals(expected.getGeneration(i).getStates('0', '1'), reader.readLine());
+		assertNull(reader.readLine());
+		reader.close();
+		file.delete();
+	}
+	
 	@Test
 	void testCreateAutomaton() throws RuleNumException {
 		Generation initial = new Generation(true, false, true);
@@ -9,12 +9,18 @@ public class CellularAutomatonTest {
 	void testConstants() {
 		assertEquals("ECA", CellularAutomaton.ECA.name());
 		assertEquals("TCA", CellularAutomaton.TCA.name());
+		assertEquals("GCA", CellularAutomaton.GCA.name());
+		assertEquals("GTCA", CellularAutomaton.GTCA.name());
+		assertEquals(1, CellularAutomaton.GCA.getRadius());
+		assertEquals(2, CellularAutomaton.GTCA.getRadius());
 	}
 	
 	@Test
 	void testParse() throws CellularAutomatonNotFoundException {
 		assertEquals(CellularAutomaton.ECA, CellularAutomaton.parse("ECA"));
 		assertEquals(CellularAutomaton.TCA, CellularAutomaton.parse("TCA"));
+		assertEquals(CellularAutomaton.GCA, CellularAutomaton.parse("gca"));
+		assertEquals(CellularAutomaton.GTCA, CellularAutomaton.parse("GTCA"));
 		
 		try {
 			CellularAutomaton.parse("I <3 Java");
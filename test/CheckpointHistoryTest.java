@@ -0,0 +1,101 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+
+class CheckpointHistoryTest {
+
+	@Test
+	void testConstructor() {
+		CheckpointHistory history = new CheckpointHistory(16, 4);
+		assertEquals(16, history.getInterval());
+		assertEquals(0, history.size());
+		assertEquals(1, CheckpointHistory.adaptive(8, 4).getInterval());
+
+		// Check edge cases.
+		try {
+			new CheckpointHistory(0, 4);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("interval must be positive.", e.getMessage());
+		}
+		try {
+			new CheckpointHistory(16, -1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("cacheSize must not be negative.", e.getMessage());
+		}
+		try {
+			CheckpointHistory.adaptive(1, 4);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("maxCheckpoints must be at least 2.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testRecompute() throws RuleNumException {
+		ElementaryRule rule = new ElementaryRule(30);
+		Generation[] expected = evolution(rule, 200);
+		for(CheckpointHistory history : new CheckpointHistory[] {new CheckpointHistory(16, 4),
+				new CheckpointHistory(7, 0), CheckpointHistory.adaptive(8, 2)}) {
+			history.setRule(rule);
+			for(Generation gen : expected)
+				history.add(gen);
+			assertEquals(expected.length, history.size());
+			// In order, backwards, and jumping around.
+			for(int i = 0; i < expected.length; ++i)
+				assertEquals(expected[i], history.get(i), "index " + i);
+			for(int i = expected.length - 1; i >= 0; --i)
+				assertEquals(expected[i], history.get(i), "index " + i);
+			for(int i = 0; i < expected.length; ++i) {
+				int index = (i * 37) % expected.length;
+				assertEquals(expected[index], history.get(index), "index " + index);
+			}
+		}
+	}
+
+	@Test
+	void testAdaptive() throws RuleNumException {
+		ElementaryRule rule = new ElementaryRule(110);
+		CheckpointHistory history = CheckpointHistory.adaptive(8, 2);
+		history.setRule(rule);
+		for(Generation gen : evolution(rule, 1000))
+			history.add(gen);
+		assertTrue(history.getCheckpointCount() <= 8);
+		assertEquals(128, history.getInterval());
+
+		history.clear();
+		assertEquals(0, history.size());
+		assertEquals(1, history.getInterval());
+		assertEquals(0, history.getCheckpointCount());
+	}
+
+	@Test
+	void testNoRule() throws RuleNumException {
+		CheckpointHistory history = new CheckpointHistory(4, 2);
+		for(Generation gen : evolution(new ElementaryRule(30), 10))
+			history.add(gen);
+		assertEquals(10, history.size());
+		history.get(4);
+		history.get(9);
+		try {
+			history.get(5);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("No rule has been set.", e.getMessage());
+		}
+	}
+
+	/**
+	 * Returns the first numGenerations generations of the rule from a single true cell.
+	 */
+	private static Generation[] evolution(Rule rule, int numGenerations) {
+		Generation[] gens = new Generation[numGenerations];
+		gens[0] = new Generation("0000000000000000000000000000000000000001000000000000000000000000000000000", '1');
+		for(int i = 1; i < numGenerations; ++i)
+			gens[i] = rule.evolve(gens[i - 1]);
+		return gens;
+	}
+}
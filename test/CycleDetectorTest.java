@@ -0,0 +1,87 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CycleDetectorTest {
+
+	@Test
+	void testConstructor() throws RuleNumException {
+		CycleDetector detector = new CycleDetector(new ElementaryRule(22), new Generation(), 3);
+		assertFalse(detector.isCycleFound());
+		assertEquals(-1, detector.getTransientLength());
+		assertEquals(-1, detector.getPeriod());
+		assertEquals(3, detector.getLastStep());
+
+		try {
+			detector.getGeneration(10);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("No cycle has been found.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testAdd() throws RuleNumException {
+		Rule rule = new ElementaryRule(22);
+		Generation gen = new Generation("000000010000000", '1');
+		CycleDetector detector = new CycleDetector(rule, gen, 0);
+		int step = 0;
+		while(!detector.add(gen = rule.evolve(gen)))
+			++step;
+		// The pattern dies out at step 8 and stays dead.
+		assertEquals(8, detector.getTransientLength());
+		assertEquals(1, detector.getPeriod());
+		assertTrue(step < 20);
+		assertEquals("000000000000000", detector.getGeneration(1000000).getStates('0', '1'));
+
+		try {
+			detector.getGeneration(7);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Generation 7 is before the cycle starts.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testMatchesBruteForce() throws RuleNumException {
+		Random random = new Random(2334);
+		for(int ruleNum : new int[] {30, 90, 110, 184}) {
+			Rule rule = new ElementaryRule(ruleNum);
+			for(int size : new int[] {3, 8, 13, 17}) {
+				boolean[] states = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					states[i] = random.nextBoolean();
+				Generation gen = new Generation(states);
+
+				// Record every generation until one repeats.
+				HashMap<Generation, Integer> seen = new HashMap<Generation, Integer>();
+				ArrayList<Generation> history = new ArrayList<Generation>();
+				Generation current = gen;
+				while(!seen.containsKey(current)) {
+					seen.put(current, history.size());
+					history.add(current);
+					current = rule.evolve(current);
+				}
+				int transientLength = seen.get(current);
+				int period = history.size() - transientLength;
+
+				CycleDetector detector = new CycleDetector(rule, gen, 0);
+				current = gen;
+				while(!detector.add(current = rule.evolve(current)));
+				assertEquals(transientLength, detector.getTransientLength(), "rule " + ruleNum + ", size " + size);
+				assertEquals(period, detector.getPeriod(), "rule " + ruleNum + ", size " + size);
+				for(int step = transientLength; step < history.size(); ++step) {
+					assertEquals(history.get(step), detector.getGeneration(step));
+					assertEquals(history.get(step), detector.getGeneration(step + 1000 * period));
+				}
+			}
+		}
+	}
+}
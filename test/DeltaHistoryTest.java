@@ -0,0 +1,122 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.Test;
+
+class DeltaHistoryTest {
+
+	@Test
+	void testConstructor() {
+		DeltaHistory history = new DeltaHistory();
+		assertEquals(DeltaHistory.DEFAULT_KEYFRAME_INTERVAL, history.getKeyframeInterval());
+		assertEquals(0, history.size());
+		assertEquals(0, history.getCompressedBytes());
+		history.close();
+
+		// Check edge cases.
+		try {
+			new DeltaHistory(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("keyframeInterval must be positive.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testAdd() throws RuleNumException {
+		Rule rule = new ElementaryRule(30);
+		ArrayList<Generation> expected = new ArrayList<Generation>();
+		Generation gen = new Generation("0000000000000000000000000000000000000000000000000000000000000000"
+				+ "00000000000000000000000000000001000000000000000000000000000000", '1');
+		DeltaHistory history = new DeltaHistory(8);
+		for(int i = 0; i < 60; ++i) {
+			expected.add(gen);
+			history.add(gen);
+			gen = rule.evolve(gen);
+		}
+		assertEquals(60, history.size());
+		assertEquals(expected.get(59), history.getLast());
+		// Read forwards, backwards and out of order, across keyframes.
+		for(int i = 0; i < 60; ++i)
+			assertEquals(expected.get(i), history.get(i));
+		for(int i = 59; i >= 0; --i)
+			assertEquals(expected.get(i), history.get(i));
+		for(int i : new int[] {17, 3, 40, 41, 8, 7, 59, 0})
+			assertEquals(expected.get(i), history.get(i));
+
+		// Check edge cases.
+		try {
+			history.add(new Generation("0101", '1'));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Generation must have 126 cells.", e.getMessage());
+		}
+		try {
+			history.get(60);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Index 60 is outside the range [0, 60).", e.getMessage());
+		}
+
+		history.clear();
+		assertEquals(0, history.size());
+		history.add(new Generation("0101", '1'));
+		assertEquals("0101", history.get(0).getStates('0', '1'));
+		history.close();
+	}
+
+	@Test
+	void testCompression() throws RuleNumException {
+		// Rule 184 moves a sparse row one cell a step, so every delta is mostly zero words.
+		Rule rule = new ElementaryRule(184);
+		StringBuilder states = new StringBuilder();
+		for(int i = 0; i < 4096; ++i)
+			states.append(i % 97 == 0 ? '1' : '0');
+		Generation gen = new Generation(states.toString(), '1');
+		DeltaHistory history = new DeltaHistory();
+		for(int i = 0; i < 256; ++i) {
+			history.add(gen);
+			gen = rule.evolve(gen);
+		}
+		long raw = 256L * gen.getWordCount() * Long.BYTES;
+		assertTrue(history.getCompressedBytes() * 10 < raw);
+		history.close();
+	}
+
+	@Test
+	void testRows() throws RuleNumException {
+		Rule rule = new TotalisticRule(22);
+		Generation gen = new Generation("00000000000000000000100000000000000000000", '1');
+		DeltaHistory history = new DeltaHistory(4);
+		for(int i = 0; i < 10; ++i) {
+			history.add(gen);
+			gen = rule.evolve(gen);
+		}
+		DeltaHistory copy = new DeltaHistory(4);
+		for(int i = 0; i < history.size(); ++i)
+			copy.addRow(history.getRow(i), 41);
+		assertEquals(history.getCompressedBytes(), copy.getCompressedBytes());
+		assertEquals(history.getLast(), copy.getLast());
+		for(int i = 0; i < 10; ++i)
+			assertEquals(history.get(i), copy.get(i));
+		// Rows keep being added as deltas after loading.
+		copy.add(gen);
+		assertEquals(gen, copy.get(10));
+
+		// Check edge cases.
+		DeltaHistory corrupt = new DeltaHistory(4);
+		corrupt.addRow(new byte[] {1, 2, 3}, 41);
+		try {
+			corrupt.get(0);
+			fail();
+		} catch (IllegalStateException e) {
+			assertEquals("A history row is corrupt.", e.getMessage());
+		}
+		history.close();
+		copy.close();
+		corrupt.close();
+	}
+}
@@ -84,4 +84,24 @@ class ElementaryAutomatonTest {
 	    assertEquals(0, eca.getTotalSteps());
 	    assertEquals("XXXXOOOOX", eca.toString());
 	}
+
+	@Test
+	void testEngine() throws RuleNumException {
+		Generation initial = new Generation("0000000000000000000000000000000010000000000000000000000000000000", '1');
+		ElementaryAutomaton standard = new ElementaryAutomaton(110, initial);
+		ElementaryAutomaton hashLife = new ElementaryAutomaton(110, initial);
+		assertEquals(ElementaryEngine.STANDARD, standard.getEngine());
+		hashLife.setEngine(ElementaryEngine.HASHLIFE);
+		assertEquals(ElementaryEngine.HASHLIFE, hashLife.getEngine());
+
+		standard.setRecordHistory(false);
+		hashLife.setRecordHistory(false);
+		assertEquals(standard.getGeneration(100000).getStates('0', '1'),
+				hashLife.getGeneration(100000).getStates('0', '1'));
+		assertEquals(100000, hashLife.getTotalSteps());
+
+		hashLife.setMaxNodes(1000);
+		assertEquals(standard.getGeneration(100123).getStates('0', '1'),
+				hashLife.getGeneration(100123).getStates('0', '1'));
+	}
 }
@@ -1,9 +1,13 @@
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 class ElementaryRuleTest {
@@ -106,4 +110,101 @@ class ElementaryRuleTest {
 		next = rule.evolve(current);
 		assertEquals("TTFTTFFF", next.getStates('F', 'T'));
 	}
+
+	@Test
+	void testEvolveGenerationMatchesNeighborhoods() throws RuleNumException {
+		Random random = new Random(2334);
+		int[] sizes = {1, 2, 3, 5, 63, 64, 65, 127, 128, 200};
+		for(int ruleNum = 0; ruleNum < 256; ++ruleNum) {
+			Rule rule = new ElementaryRule(ruleNum);
+			for(int size : sizes) {
+				boolean[] states = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					states[i] = random.nextBoolean();
+				Generation current = new Generation(states);
+
+				boolean[] expected = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					expected[i] = rule.evolve(rule.getNeighborhood(i, current));
+				assertArrayEquals(expected, rule.evolve(current).getStates(),
+						"rule " + ruleNum + ", size " + size);
+			}
+		}
+	}
+
+	@Test
+	void testEvolveSteps() throws RuleNumException {
+		Random random = new Random(2334);
+		int[] sizes = {1, 10, 64, 200, 257, 1000};
+		for(int ruleNum : new int[] {30, 45, 110, 184}) {
+			Rule rule = new ElementaryRule(ruleNum);
+			for(int size : sizes) {
+				boolean[] states = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					states[i] = random.nextBoolean();
+				Generation current = new Generation(states);
+				for(int numSteps : new int[] {1, 5, 6, 13, 40}) {
+					Generation expected = current;
+					for(int step = 0; step < numSteps; ++step)
+						expected = rule.evolve(expected);
+					assertEquals(expected.getStates('0', '1'), rule.evolve(current, numSteps).getStates('0', '1'),
+							"rule " + ruleNum + ", size " + size + ", steps " + numSteps);
+				}
+				assertEquals(current, rule.evolve(current, 0));
+			}
+		}
+	}
+
+	@Test
+	void testCanonical() throws RuleNumException {
+		ElementaryRule rule = new ElementaryRule(149);
+		assertEquals(30, rule.getCanonicalRuleNum());
+		assertEquals(RuleTransform.MIRROR_COMPLEMENT, rule.getCanonicalTransform());
+		assertEquals(30, new ElementaryRule(30).getCanonicalRuleNum());
+		assertEquals(RuleTransform.IDENTITY, new ElementaryRule(30).getCanonicalTransform());
+		assertEquals(110, new ElementaryRule(124).getCanonicalRuleNum());
+		assertEquals(RuleTransform.MIRROR, new ElementaryRule(124).getCanonicalTransform());
+		for(int ruleNum = 0; ruleNum < 256; ++ruleNum) {
+			int canonical = ElementaryRule.getCanonicalRuleNum(ruleNum);
+			assertEquals(ruleNum, ElementaryRule.getCanonicalTransform(ruleNum).apply(canonical));
+		}
+	}
+
+	@Test
+	void testSharedEngines() throws RuleNumException {
+		ElementaryRule canonical = new ElementaryRule(30);
+		for(int ruleNum : new int[] {86, 135, 149}) {
+			ElementaryRule rule = new ElementaryRule(ruleNum);
+			assertSame(canonical.getMultiStepTable(), rule.getMultiStepTable());
+			assertSame(canonical.getHashLife(), rule.getHashLife());
+		}
+		ElementaryRule small = new ElementaryRule(86);
+		small.setMaxNodes(1000);
+		assertNotSame(canonical.getHashLife(), small.getHashLife());
+		assertEquals(1000, small.getHashLife().getMaxNodes());
+	}
+
+	@Test
+	void testSharedEnginesMatchSteps() throws RuleNumException {
+		Random random = new Random(2334);
+		for(int ruleNum = 0; ruleNum < 256; ++ruleNum) {
+			ElementaryRule rule = new ElementaryRule(ruleNum);
+			ElementaryRule hashLife = new ElementaryRule(ruleNum);
+			hashLife.setEngine(ElementaryEngine.HASHLIFE);
+			// Narrow generations go through the multi-step table of the canonical rule.
+			for(int size : new int[] {1, 10, 64, 200}) {
+				boolean[] states = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					states[i] = random.nextBoolean();
+				Generation current = new Generation(states);
+				Generation expected = current;
+				for(int step = 0; step < 40; ++step)
+					expected = rule.evolve(expected);
+				assertEquals(expected.getStates('0', '1'), rule.evolve(current, 40).getStates('0', '1'),
+						"rule " + ruleNum + ", size " + size);
+				assertEquals(expected.getStates('0', '1'), hashLife.evolve(current, 40).getStates('0', '1'),
+						"rule " + ruleNum + ", size " + size);
+			}
+		}
+	}
 }
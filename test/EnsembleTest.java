@@ -0,0 +1,121 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class EnsembleTest {
+
+	@Test
+	void testTranspose() {
+		Random random = new Random(19);
+		long[] block = new long[64];
+		for(int i = 0; i < 64; ++i)
+			block[i] = random.nextLong();
+		long[] transposed = block.clone();
+		Ensemble.transpose(transposed);
+		for(int r = 0; r < 64; ++r)
+			for(int c = 0; c < 64; ++c)
+				assertEquals((block[r] >>> c) & 1, (transposed[c] >>> r) & 1);
+		Ensemble.transpose(transposed);
+		assertArrayEquals(block, transposed);
+	}
+
+	@Test
+	void testEvolve() throws RuleNumException {
+		Random random = new Random(7);
+		for(Rule rule : new Rule[] {new ElementaryRule(30), new ElementaryRule(110), new TotalisticRule(22),
+				new TotalisticRule(53)}) {
+			for(int width : new int[] {1, 2, 3, 4, 5, 63, 64, 130}) {
+				for(int members : new int[] {1, 17, 64}) {
+					Generation[] expected = new Generation[members];
+					for(int j = 0; j < members; ++j) {
+						boolean[] states = new boolean[width];
+						for(int i = 0; i < width; ++i)
+							states[i] = random.nextBoolean();
+						expected[j] = new Generation(states);
+					}
+					Ensemble ensemble = new Ensemble(rule, expected);
+					assertEquals(members, ensemble.size());
+					assertEquals(width, ensemble.getWidth());
+					assertArrayEquals(expected, ensemble.getMembers());
+					ensemble.evolve(9);
+					assertEquals(9, ensemble.getSteps());
+					Generation[] actual = ensemble.getMembers();
+					for(int j = 0; j < members; ++j) {
+						expected[j] = rule.evolve(expected[j], 9);
+						assertEquals(expected[j], actual[j]);
+						assertEquals(expected[j], ensemble.getMember(j));
+						assertEquals(expected[j].countTrue(), ensemble.countTrue()[j]);
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	void testRandom() throws RuleNumException {
+		Rule rule = new ElementaryRule(90);
+		Ensemble ensemble = Ensemble.random(rule, 40, 100, new Random(3));
+		Generation[] initial = ensemble.getMembers();
+		ensemble.evolve(50);
+		for(int j = 0; j < 40; ++j)
+			assertEquals(rule.evolve(initial[j], 50), ensemble.getMember(j));
+		// Only the 40 members have cells.
+		assertEquals(0, ensemble.getLivingMembers() >>> 40);
+
+		// Rule 0 kills every member in one step.
+		ensemble = Ensemble.random(new ElementaryRule(0), 64, 100, new Random(3));
+		ensemble.evolve(1);
+		assertEquals(0, ensemble.getLivingMembers());
+	}
+
+	@Test
+	void testEdgeCases() throws RuleNumException {
+		Rule rule = new ElementaryRule(30);
+		try {
+			new Ensemble(rule);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("An ensemble must have 1 to 64 members.", e.getMessage());
+		}
+		try {
+			Ensemble.random(rule, 65, 10, new Random());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("An ensemble must have 1 to 64 members.", e.getMessage());
+		}
+		try {
+			new Ensemble(rule, new Generation("0101", '1'), new Generation("010", '1'));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Every member must have 4 cells.", e.getMessage());
+		}
+		try {
+			new Ensemble(new Rule(5) {
+				public boolean evolve(boolean[] neighborhood) {
+					return false;
+				}
+
+				public boolean[] getNeighborhood(int idx, Generation gen) {
+					return null;
+				}
+
+				public String ruleTableString(char falseSymbol, char trueSymbol) {
+					return "";
+				}
+			}, new Generation("0101", '1'));
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Only ECA and TCA rules can evolve an ensemble.", e.getMessage());
+		}
+		try {
+			new Ensemble(rule, new Generation("0101", '1')).getMember(1);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Member 1 is outside the range [0, 1).", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,149 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class EvolutionFileTest {
+
+	@Test
+	void testSaveAndOpen() throws RuleNumException, IOException {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.TCA, 22,
+				new Generation("0000000000000000000000000000000000000000000000000000000000000000001000000000000", '1'));
+		automaton.falseSymbol = '.';
+		automaton.trueSymbol = 'O';
+		automaton.evolve(30);
+		String filename = "testEvolutionFile.bin";
+		automaton.saveBinary(filename);
+		// Two words per row for 79 cells.
+		assertEquals(EvolutionFile.HEADER_SIZE + 31 * 2 * Long.BYTES, new File(filename).length());
+
+		try (EvolutionFile file = new EvolutionFile(filename)) {
+			assertEquals(CellularAutomaton.TCA, file.getCellularAutomaton());
+			assertEquals(22, file.getRuleNum());
+			assertEquals('.', file.getFalseSymbol());
+			assertEquals('O', file.getTrueSymbol());
+			assertEquals(79, file.getWidth());
+			assertEquals(0, file.getFirstStep());
+			assertEquals(30, file.getLastStep());
+			for(int step = 30; step >= 0; --step)
+				assertEquals(automaton.getGeneration(step), file.getGeneration(step));
+
+			// Check edge cases.
+			try {
+				file.getGeneration(31);
+				fail();
+			} catch (IndexOutOfBoundsException e) {
+				assertEquals("Generation 31 is not in the file.", e.getMessage());
+			}
+		}
+		new File(filename).delete();
+	}
+
+	@Test
+	void testResume() throws RuleNumException, IOException {
+		Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, 110,
+				new Generation("00000000000000000000000000000001", '1'));
+		expected.evolve(50);
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 110,
+				new Generation("00000000000000000000000000000001", '1'));
+		automaton.evolve(10);
+		automaton.setHistory(new TailHistory(4));
+		automaton.evolve(10);
+		String filename = "testEvolutionFile-resume.bin";
+		automaton.saveBinary(filename);
+
+		try (EvolutionFile file = new EvolutionFile(filename)) {
+			assertEquals(17, file.getFirstStep());
+			assertEquals(20, file.getLastStep());
+			Automaton resumed = file.toAutomaton();
+			assertEquals(CellularAutomaton.ECA, resumed.getCellularAutomaton());
+			assertEquals(20, resumed.getTotalSteps());
+			resumed.evolve(30);
+			assertEquals(50, resumed.getTotalSteps());
+			assertEquals(expected.getGeneration(50), resumed.getCurrentGeneration());
+			assertEquals(expected.getGeneration(35), resumed.getGeneration(35));
+		}
+		new File(filename).delete();
+	}
+
+	@Test
+	void testCompressed() throws RuleNumException, IOException {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 90,
+				new Generation("0000000000000000000000000000000000000000000000000000000000000000"
+						+ "0000000000000000000000000000000000000000000000000000000000000000"
+						+ "0000000000000000000000000000000000000000000000000000000000000001", '1'));
+		automaton.evolve(100);
+		String filename = "testEvolutionFile-compressed.bin";
+		String rawname = "testEvolutionFile-raw.bin";
+		automaton.saveCompressed(filename);
+		automaton.saveBinary(rawname);
+		assertTrue(new File(filename).length() < new File(rawname).length());
+
+		try (EvolutionFile file = new EvolutionFile(filename)) {
+			assertTrue(file.isCompressed());
+			assertEquals(CellularAutomaton.ECA, file.getCellularAutomaton());
+			assertEquals(90, file.getRuleNum());
+			assertEquals(192, file.getWidth());
+			assertEquals(0, file.getFirstStep());
+			assertEquals(100, file.getLastStep());
+			for(int step = 100; step >= 0; --step)
+				assertEquals(automaton.getGeneration(step), file.getGeneration(step));
+			Automaton resumed = file.toAutomaton();
+			resumed.evolve(10);
+			automaton.evolve(10);
+			assertEquals(automaton.getCurrentGeneration(), resumed.getCurrentGeneration());
+		}
+		try (EvolutionFile file = new EvolutionFile(rawname)) {
+			assertFalse(file.isCompressed());
+		}
+
+		// Check edge cases.
+		byte[] bytes = Files.readAllBytes(new File(filename).toPath());
+		Files.write(new File(filename).toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+		IOException e = assertThrows(IOException.class, () -> new EvolutionFile(filename).close());
+		assertEquals("The evolution file is truncated.", e.getMessage());
+		new File(filename).delete();
+		new File(rawname).delete();
+	}
+
+	@Test
+	void testCompressedAcrossBuffers() throws RuleNumException, IOException {
+		String filename = "testEvolutionFile-buffers.bin";
+		Random random = new Random(2334);
+		// Rows of about a kilobyte cross the end of the read buffer at every offset, length prefixes included,
+		// and rows of random keyframes wider than the buffer are read past it.
+		for(int width : new int[] {1 << 13, EvolutionFile.READ_BUFFER_BYTES * 10}) {
+			boolean[] states = new boolean[width];
+			for(int i = 0; i < width; ++i)
+				states[i] = random.nextBoolean();
+			Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30, new Generation(states));
+			int steps = width < EvolutionFile.READ_BUFFER_BYTES ? 200 : 3;
+			automaton.evolve(steps);
+			automaton.saveCompressed(filename);
+			assertTrue(new File(filename).length() > 2 * EvolutionFile.READ_BUFFER_BYTES);
+			try (EvolutionFile file = new EvolutionFile(filename)) {
+				for(int step = 0; step <= steps; ++step)
+					assertEquals(automaton.getGeneration(step), file.getGeneration(step));
+			}
+		}
+		new File(filename).delete();
+	}
+
+	@Test
+	void testBadFiles() throws IOException {
+		String filename = "testEvolutionFile-bad.bin";
+		Files.write(new File(filename).toPath(), "110\n0 1\n0001000\n".getBytes());
+		IOException e = assertThrows(IOException.class, () -> new EvolutionFile(filename).close());
+		assertEquals("Not an evolution file.", e.getMessage());
+		new File(filename).delete();
+	}
+}
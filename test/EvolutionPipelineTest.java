@@ -0,0 +1,99 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+class EvolutionPipelineTest {
+
+	@Test
+	void testConstructor() {
+		// Check edge cases.
+		try {
+			new EvolutionPipeline(0, 1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("capacity must be positive.", e.getMessage());
+		}
+		try {
+			new EvolutionPipeline(1, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("renderers must be positive.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testMatchesPrintln() throws RuleNumException, IOException {
+		String initial = "0000000000000000000000000000000000000000000000000000000000000000000000001"
+				+ "000000000000000000000000000000000000000000000000000000000000000000000";
+		char[][] symbols = {{'0', '1'}, {'.', '\u2588'}};
+		int[][] shapes = {{1, 1}, {4, 3}, {64, 2}};
+		for(char[] pair : symbols) {
+			for(int[] shape : shapes) {
+				Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, 110, new Generation(initial, '1'));
+				expected.falseSymbol = pair[0];
+				expected.trueSymbol = pair[1];
+				expected.evolve(200);
+				ByteArrayOutputStream expectedBytes = new ByteArrayOutputStream();
+				PrintStream printer = new PrintStream(expectedBytes);
+				printer.println(expected);
+				printer.flush();
+
+				Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 110, new Generation(initial, '1'));
+				automaton.falseSymbol = pair[0];
+				automaton.trueSymbol = pair[1];
+				automaton.evolve(20);
+				ByteArrayOutputStream actualBytes = new ByteArrayOutputStream();
+				new EvolutionPipeline(shape[0], shape[1]).run(automaton, 180, actualBytes);
+				assertEquals(200, automaton.getTotalSteps());
+				assertEquals(expectedBytes.toString(), actualBytes.toString(),
+						"capacity " + shape[0] + ", renderers " + shape[1]);
+			}
+		}
+	}
+
+	@Test
+	void testCharset() throws RuleNumException, IOException {
+		for(Charset charset : new Charset[] {StandardCharsets.ISO_8859_1, StandardCharsets.UTF_8, StandardCharsets.UTF_16LE}) {
+			Automaton expected = Automaton.createAutomaton(CellularAutomaton.TCA, 22, new Generation("0001000", '1'));
+			expected.falseSymbol = '\u00b7';
+			expected.trueSymbol = '\u00e9';
+			expected.evolve(5);
+			ByteArrayOutputStream expectedBytes = new ByteArrayOutputStream();
+			PrintStream printer = new PrintStream(expectedBytes, true, charset);
+			printer.println(expected);
+
+			Automaton automaton = Automaton.createAutomaton(CellularAutomaton.TCA, 22, new Generation("0001000", '1'));
+			automaton.falseSymbol = '\u00b7';
+			automaton.trueSymbol = '\u00e9';
+			ByteArrayOutputStream actualBytes = new ByteArrayOutputStream();
+			new EvolutionPipeline(2, 2).run(automaton, 5, actualBytes, charset);
+			assertArrayEquals(expectedBytes.toByteArray(), actualBytes.toByteArray(), charset.name());
+		}
+	}
+
+	@Test
+	void testWriteFailure() throws RuleNumException {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.TCA, 22, new Generation("0001000", '1'));
+		OutputStream broken = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("The stream is broken.");
+			}
+		};
+		try {
+			new EvolutionPipeline(2, 2).run(automaton, 1000, broken);
+			fail();
+		} catch (IOException e) {
+			assertEquals("The stream is broken.", e.getMessage());
+		}
+	}
+}
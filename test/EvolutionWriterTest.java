@@ -0,0 +1,47 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class EvolutionWriterTest {
+
+	@Test
+	void testMatchesBufferedWriter() throws IOException {
+		Random random = new Random(2334);
+		Generation[] gens = new Generation[20];
+		for(int i = 0; i < gens.length; ++i) {
+			// Some rows are wider than the buffer, so they are written in several pieces.
+			boolean[] states = new boolean[i % 3 == 0 ? EvolutionWriter.BUFFER_SIZE + 77 : 1 + random.nextInt(300)];
+			for(int j = 0; j < states.length; ++j)
+				states[j] = random.nextBoolean();
+			gens[i] = new Generation(states);
+		}
+		char[][] symbols = {{'0', '1'}, {'.', 'O'}, {'\u2591', '\u2588'}, {' ', '\u00e9'}};
+		for(char[] pair : symbols) {
+			File expected = new File("testEvolutionWriter-expected.txt");
+			try (BufferedWriter bw = new BufferedWriter(new FileWriter(expected))) {
+				for(Generation gen : gens) {
+					bw.write(gen.getStates(pair[0], pair[1]));
+					bw.newLine();
+				}
+			}
+			File actual = new File("testEvolutionWriter-actual.txt");
+			EvolutionWriter writer = new EvolutionWriter(actual.getPath(), pair[0], pair[1]);
+			try (writer) {
+				for(Generation gen : gens)
+					writer.write(gen);
+			}
+			assertArrayEquals(Files.readAllBytes(expected.toPath()), Files.readAllBytes(actual.toPath()));
+			assertEquals(actual.length(), writer.getBytesWritten());
+			expected.delete();
+			actual.delete();
+		}
+	}
+}
@@ -0,0 +1,100 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.Test;
+
+class GeneralAutomatonTest {
+
+	@Test
+	void testCreateAutomaton() throws RuleNumException {
+		Generation initial = new Generation("0000000100000000", '1');
+		Automaton general = Automaton.createAutomaton(CellularAutomaton.GCA, 30, initial);
+		Automaton elementary = Automaton.createAutomaton(CellularAutomaton.ECA, 30, initial);
+		assertTrue(general instanceof GeneralAutomaton);
+		assertEquals(CellularAutomaton.GCA, general.getCellularAutomaton());
+		assertEquals(1, general.getRule().getRadius());
+		general.evolve(20);
+		elementary.evolve(20);
+		assertEquals(elementary.toString(), general.toString());
+
+		Automaton totalistic = Automaton.createAutomaton(CellularAutomaton.GTCA, 4, BigInteger.valueOf(1000), initial);
+		assertEquals(CellularAutomaton.GTCA, totalistic.getCellularAutomaton());
+		assertEquals(4, totalistic.getRule().getRadius());
+		assertEquals(1000, totalistic.getRuleNum());
+
+		BigInteger large = BigInteger.ONE.shiftLeft(100);
+		general = Automaton.createAutomaton(CellularAutomaton.GCA, 3, large, initial);
+		assertEquals(-1, general.getRuleNum());
+		assertEquals(large, general.getRuleNumber());
+
+		// Rules created by the automaton keep its radius.
+		Rule rule = ((GeneralAutomaton) general).createRule(45);
+		assertEquals(3, rule.getRadius());
+		assertEquals(BigInteger.valueOf(45), rule.getRuleNumber());
+
+		Automaton eca = Automaton.createAutomaton(CellularAutomaton.ECA, 1, BigInteger.valueOf(90), initial);
+		assertEquals(CellularAutomaton.ECA, eca.getCellularAutomaton());
+		assertEquals(90, eca.getRuleNum());
+
+		// Check edge cases.
+		try {
+			Automaton.createAutomaton(CellularAutomaton.ECA, 2, BigInteger.valueOf(90), initial);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("ECA rules have radius 1.", e.getMessage());
+		}
+
+		try {
+			Automaton.createAutomaton(CellularAutomaton.TCA, 2, large, initial);
+			fail();
+		} catch (RuleNumException e) {
+			assertEquals("ruleNum is outside the range [0, 63].", e.getMessage());
+		}
+
+		try {
+			Automaton.createAutomaton(CellularAutomaton.GTCA, 1, large, initial);
+			fail();
+		} catch (RuleNumException e) {
+			assertEquals("ruleNum is outside the range [0, 15].", e.getMessage());
+		}
+
+		try {
+			Automaton.createAutomaton(CellularAutomaton.GCA, 11, BigInteger.ZERO, initial);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("radius is outside the range [0, 10].", e.getMessage());
+		}
+	}
+
+	@Test
+	void testSaveBinary() throws RuleNumException, IOException {
+		File file = new File("testGeneralAutomaton.bin");
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.GTCA, 22, new Generation("0001000", '1'));
+		automaton.evolve(5);
+		automaton.saveBinary(file.getPath());
+		try (EvolutionFile saved = new EvolutionFile(file.getPath())) {
+			assertEquals(CellularAutomaton.GTCA, saved.getCellularAutomaton());
+			Automaton resumed = saved.toAutomaton();
+			assertEquals(CellularAutomaton.GTCA, resumed.getCellularAutomaton());
+			resumed.evolve(5);
+			automaton.evolve(5);
+			assertEquals(automaton.getCurrentGeneration(), resumed.getCurrentGeneration());
+		}
+		file.delete();
+
+		// Check edge cases.
+		automaton = Automaton.createAutomaton(CellularAutomaton.GTCA, 3, BigInteger.valueOf(22), new Generation("0001000", '1'));
+		try {
+			automaton.saveBinary(file.getPath());
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Only GTCA rules of radius 2 with int rule numbers can be saved.", e.getMessage());
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,117 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GeneralRuleTest {
+
+	@Test
+	void testConstructor() throws RuleNumException {
+		GeneralRule rule = new GeneralRule(1, 30);
+		assertTrue(rule instanceof Rule);
+		assertEquals(30, rule.getRuleNum());
+		assertEquals(BigInteger.valueOf(30), rule.getRuleNumber());
+		assertEquals(1, rule.getRadius());
+
+		BigInteger large = BigInteger.ONE.shiftLeft(127).add(BigInteger.valueOf(30));
+		rule = new GeneralRule(3, large);
+		assertEquals(-1, rule.getRuleNum());
+		assertEquals(large, rule.getRuleNumber());
+		assertEquals(new BigInteger("340282366920938463463374607431768211455"), GeneralRule.getMaxRuleNumber(3));
+
+		// Check edge cases.
+		try {
+			new GeneralRule(1, -1);
+			fail();
+		} catch (RuleNumException e) {
+			assertEquals("ruleNum is outside the range [0, 255].", e.getMessage());
+		}
+
+		try {
+			new GeneralRule(2, 1L << 32);
+			fail();
+		} catch (RuleNumException e) {
+			assertEquals("ruleNum is outside the range [0, 4294967295].", e.getMessage());
+		}
+
+		try {
+			new GeneralRule(11, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("radius is outside the range [0, 10].", e.getMessage());
+		}
+	}
+
+	@Test
+	void testBlockSize() throws RuleNumException {
+		int[] expected = {8, 8, 8, 8, 8, 4, 4, 2, 0, 0, 0};
+		for(int radius = 0; radius <= GeneralRule.MAX_RADIUS; ++radius)
+			assertEquals(expected[radius], new GeneralRule(radius, 0).getBlockSize());
+	}
+
+	@Test
+	void testMatchesElementary() throws RuleNumException {
+		Random random = new Random(2334);
+		for(int ruleNum = 0; ruleNum < 256; ++ruleNum) {
+			Rule general = new GeneralRule(1, ruleNum);
+			Rule elementary = new ElementaryRule(ruleNum);
+			assertEquals(elementary.ruleTableString('0', '1'), general.ruleTableString('0', '1'));
+			for(int size : new int[] {1, 2, 3, 63, 64, 65, 200}) {
+				Generation gen = random(size, random);
+				assertEquals(elementary.evolve(gen, 3).getStates('0', '1'), general.evolve(gen, 3).getStates('0', '1'));
+			}
+		}
+	}
+
+	@Test
+	void testEvolveMatchesNeighborhoods() throws RuleNumException {
+		Random random = new Random(2334);
+		for(int radius = 0; radius <= GeneralRule.MAX_RADIUS; ++radius) {
+			Rule rule = new GeneralRule(radius, new BigInteger(1 << (2 * radius + 1), random));
+			// Narrow generations wrap around more than once in every neighborhood.
+			for(int size : new int[] {1, 2, 5, 64, 130}) {
+				Generation gen = random(size, random);
+				boolean[] expected = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					expected[i] = rule.evolve(rule.getNeighborhood(i, gen));
+				assertEquals(new Generation(expected).getStates('0', '1'), rule.evolve(gen).getStates('0', '1'),
+						"radius " + radius + ", size " + size);
+			}
+		}
+	}
+
+	@Test
+	void testEvolveNeighborhood() throws RuleNumException {
+		// Rule 2^7 + 2^5 at radius 1 is true only for the neighborhoods 111 and 101.
+		Rule rule = new GeneralRule(1, 160);
+		assertTrue(rule.evolve(new boolean[] {true, true, true}));
+		assertTrue(rule.evolve(new boolean[] {true, false, true}));
+		assertEquals(false, rule.evolve(new boolean[] {true, true, false}));
+		assertArrayEquals(new boolean[] {true, true, true},
+				rule.getNeighborhood(0, new Generation(true, true, true, false, true)));
+	}
+
+	@Test
+	void testRuleTableString() throws RuleNumException {
+		assertEquals("T F" + System.lineSeparator() + "F T", new GeneralRule(0, 1).ruleTableString('F', 'T'));
+	}
+
+	/**
+	 * Returns a generation of random cells.
+	 *
+	 * @param size  The number of cells.
+	 * @param random  The source of the cells.
+	 * @return Returns the generation.
+	 */
+	static Generation random(int size, Random random) {
+		boolean[] states = new boolean[size];
+		for(int i = 0; i < size; ++i)
+			states[i] = random.nextBoolean();
+		return new Generation(states);
+	}
+}
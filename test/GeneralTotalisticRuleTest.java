@@ -0,0 +1,78 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class GeneralTotalisticRuleTest {
+
+	@Test
+	void testConstructor() throws RuleNumException {
+		GeneralTotalisticRule rule = new GeneralTotalisticRule(2, 22);
+		assertTrue(rule instanceof Rule);
+		assertEquals(22, rule.getRuleNum());
+		assertEquals(2, rule.getRadius());
+
+		long max = (1L << 62) - 1;
+		rule = new GeneralTotalisticRule(30, max);
+		assertEquals(-1, rule.getRuleNum());
+		assertEquals(BigInteger.valueOf(max), rule.getRuleNumber());
+		assertEquals(max, GeneralTotalisticRule.getMaxRuleNumber(30));
+
+		// Check edge cases.
+		try {
+			new GeneralTotalisticRule(2, 64);
+			fail();
+		} catch (RuleNumException e) {
+			assertEquals("ruleNum is outside the range [0, 63].", e.getMessage());
+		}
+
+		try {
+			new GeneralTotalisticRule(31, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("radius is outside the range [0, 30].", e.getMessage());
+		}
+	}
+
+	@Test
+	void testMatchesTotalistic() throws RuleNumException {
+		Random random = new Random(2334);
+		for(int ruleNum = 0; ruleNum < 64; ++ruleNum) {
+			Rule general = new GeneralTotalisticRule(2, ruleNum);
+			Rule totalistic = new TotalisticRule(ruleNum);
+			assertEquals(totalistic.ruleTableString('0', '1'), general.ruleTableString('0', '1'));
+			for(int size : new int[] {1, 2, 3, 63, 64, 65, 200}) {
+				Generation gen = GeneralRuleTest.random(size, random);
+				assertEquals(totalistic.evolve(gen, 3).getStates('0', '1'), general.evolve(gen, 3).getStates('0', '1'));
+			}
+		}
+	}
+
+	@Test
+	void testEvolveMatchesNeighborhoods() throws RuleNumException {
+		Random random = new Random(2334);
+		for(int radius = 0; radius <= GeneralTotalisticRule.MAX_RADIUS; ++radius) {
+			Rule rule = new GeneralTotalisticRule(radius, random.nextLong() & GeneralTotalisticRule.getMaxRuleNumber(radius));
+			// Narrow generations wrap around more than once in every neighborhood.
+			for(int size : new int[] {1, 2, 5, 64, 130}) {
+				Generation gen = GeneralRuleTest.random(size, random);
+				boolean[] expected = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					expected[i] = rule.evolve(rule.getNeighborhood(i, gen));
+				assertEquals(new Generation(expected).getStates('0', '1'), rule.evolve(gen).getStates('0', '1'),
+						"radius " + radius + ", size " + size);
+			}
+		}
+	}
+
+	@Test
+	void testRuleTableString() throws RuleNumException {
+		// Counts of two digits keep their states under their first digit.
+		assertEquals("11 10 9 8 7 6 5 4 3 2 1 0" + System.lineSeparator() + "1  0  0 0 0 0 0 0 0 0 0 1",
+				new GeneralTotalisticRule(5, (1L << 11) | 1).ruleTableString('0', '1'));
+	}
+}
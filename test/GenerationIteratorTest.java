@@ -0,0 +1,64 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+class GenerationIteratorTest {
+
+	@Test
+	void testNext() throws RuleNumException {
+		Rule rule = new ElementaryRule(30);
+		Generation gen = new Generation("0000000000000001000000000000000", '1');
+		GenerationIterator iterator = new GenerationIterator(rule, null, gen, 5);
+		assertEquals(5, iterator.getStep());
+		for(int i = 0; i < 20; ++i) {
+			assertTrue(iterator.hasNext());
+			assertEquals(gen, iterator.next());
+			gen = rule.evolve(gen);
+		}
+		assertEquals(25, iterator.getStep());
+	}
+
+	@Test
+	void testSkip() throws RuleNumException {
+		Rule rule = new TotalisticRule(22);
+		Generation first = new Generation("000000000000000000000000000000000000000010000000000000000000000000000", '1');
+		GenerationIterator iterator = new GenerationIterator(rule, null, first, 0);
+		iterator.skip(0).skip(10);
+		assertEquals(10, iterator.getStep());
+		assertEquals(rule.evolve(first, 10), iterator.next());
+		// Skipping after a call to next starts from the generation it returned.
+		iterator.skip(4);
+		assertEquals(15, iterator.getStep());
+		assertEquals(rule.evolve(first, 15), iterator.next());
+		assertEquals(rule.evolve(first, 16), iterator.next());
+
+		// Check edge cases.
+		try {
+			iterator.skip(-1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("numSteps must not be negative.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testStream() throws RuleNumException {
+		Rule rule = new ElementaryRule(110);
+		Generation first = new Generation("00000000000000000000000000000000000000001", '1');
+		List<Generation> gens = new GenerationIterator(rule, null, first, 0).stream().limit(6)
+				.collect(Collectors.toList());
+		assertEquals(6, gens.size());
+		for(int i = 0; i < 6; ++i)
+			assertEquals(rule.evolve(first, i), gens.get(i));
+
+		// Rule 128 shrinks a block by a cell on each side every step until it dies out.
+		long alive = new GenerationIterator(new ElementaryRule(128), null,
+				new Generation("0001111111000", '1'), 0).stream().takeWhile(gen -> gen.countTrue() > 0).count();
+		assertEquals(4, alive);
+	}
+}
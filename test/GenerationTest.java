@@ -1,6 +1,7 @@
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
@@ -106,4 +107,87 @@ class GenerationTest {
 		cellStates[0] = false;
 		assertTrue(gen.getState(0));
 	}
+
+	@Test
+	void testPackedWords() {
+		Generation gen = new Generation("1100000000000000000000000000000000000000000000000000000000000001" + "101", '1');
+		assertEquals(67, gen.size());
+		assertEquals(2, gen.getWordCount());
+		assertEquals(0x8000000000000003L, gen.getWord(0));
+		assertEquals(0b101L, gen.getWord(1));
+		assertEquals(5, gen.countTrue());
+		assertTrue(gen.getState(63));
+		assertTrue(gen.getState(64));
+		assertFalse(gen.getState(65));
+
+		gen = new Generation(new boolean[0]);
+		assertEquals(0, gen.size());
+		assertEquals(0, gen.countTrue());
+		assertEquals("", gen.getStates('0', '1'));
+	}
+
+	@Test
+	void testWrap() {
+		long[] words = {-1L, -1L};
+		Generation gen = Generation.wrap(words, 70);
+		assertEquals(70, gen.size());
+		assertEquals(70, gen.countTrue());
+		assertEquals(0x3FL, gen.getWord(1));
+	}
+
+	@Test
+	void testEquals() {
+		Generation gen = new Generation("0110", '1');
+		assertEquals(new Generation(false, true, true, false), gen);
+		assertEquals(new Generation(false, true, true, false).hashCode(), gen.hashCode());
+		assertNotEquals(new Generation("01100", '1'), gen);
+		assertNotEquals(new Generation("0111", '1'), gen);
+		assertNotEquals("0110", gen);
+	}
+
+	@Test
+	void testGetWindow() {
+		Generation gen = new Generation("10001", '1');
+		// Bit i of the window is cell (start + i) mod 5.
+		assertEquals(0b10001L, gen.getWindow(0) & 0x1F);
+		assertEquals(0b00011L, gen.getWindow(-1) & 0x1F);
+		assertEquals(0b11000L, gen.getWindow(1) & 0x1F);
+		assertEquals(gen.getWindow(2), gen.getWindow(7));
+
+		boolean[] states = new boolean[200];
+		for(int i = 0; i < states.length; i += 3)
+			states[i] = true;
+		gen = new Generation(states);
+		for(int start = -70; start < 270; ++start) {
+			long window = gen.getWindow(start);
+			for(int i = 0; i < 64; ++i)
+				assertEquals(states[Math.floorMod(start + i, 200)], (window & (1L << i)) != 0);
+		}
+	}
+
+	@Test
+	void testMirror() {
+		assertEquals("0011101", new Generation("1011100", '1').mirror().getStates('0', '1'));
+		assertEquals("1", new Generation("1", '1').mirror().getStates('0', '1'));
+		// Generations over several words, with and without padding.
+		for(int size : new int[] {63, 64, 65, 128, 200}) {
+			boolean[] states = new boolean[size];
+			for(int i = 0; i < size; ++i)
+				states[i] = i % 3 == 0 || i % 7 == 1;
+			boolean[] reversed = new boolean[size];
+			for(int i = 0; i < size; ++i)
+				reversed[i] = states[size - 1 - i];
+			Generation mirrored = new Generation(states).mirror();
+			assertEquals(new Generation(reversed), mirrored);
+			assertEquals(new Generation(states), mirrored.mirror());
+		}
+	}
+
+	@Test
+	void testComplement() {
+		assertEquals("0100011", new Generation("1011100", '1').complement().getStates('0', '1'));
+		Generation gen = new Generation(new boolean[70]);
+		assertEquals(70, gen.complement().countTrue());
+		assertEquals(gen, gen.complement().complement());
+	}
 }
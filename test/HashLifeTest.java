@@ -0,0 +1,69 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class HashLifeTest {
+
+	@Test
+	void testConstructor() throws RuleNumException {
+		HashLife hashLife = new HashLife(new ElementaryRule(110));
+		assertEquals(0, hashLife.getNodeCount());
+
+		// Check edge cases.
+		try {
+			new HashLife(new ElementaryRule(110), 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("maxNodes must be positive.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testEvolve() throws RuleNumException {
+		Generation current = new Generation("000000010000000", '1');
+		HashLife hashLife = new HashLife(new ElementaryRule(22));
+		assertEquals(current, hashLife.evolve(current, 0));
+		assertEquals("111011101110111", hashLife.evolve(current, 7).getStates('0', '1'));
+		assertEquals("000000000000000", hashLife.evolve(current, 100).getStates('0', '1'));
+	}
+
+	@Test
+	void testEvolveMatchesStandard() throws RuleNumException {
+		Random random = new Random(2334);
+		int[] sizes = {1, 5, 64, 65, 333, 1000};
+		int[] steps = {16, 17, 100, 1000, 4321};
+		for(int ruleNum : new int[] {30, 90, 110, 184}) {
+			ElementaryRule rule = new ElementaryRule(ruleNum);
+			for(int size : sizes) {
+				boolean[] states = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					states[i] = random.nextBoolean();
+				Generation current = new Generation(states);
+				for(int numSteps : steps) {
+					assertEquals(rule.evolveStandard(current, numSteps).getStates('0', '1'),
+							new HashLife(rule).evolve(current, numSteps).getStates('0', '1'),
+							"rule " + ruleNum + ", size " + size + ", steps " + numSteps);
+				}
+			}
+		}
+	}
+
+	@Test
+	void testMaxNodes() throws RuleNumException {
+		Random random = new Random(2334);
+		boolean[] states = new boolean[2000];
+		for(int i = 0; i < states.length; ++i)
+			states[i] = random.nextInt(10) < 3;
+		Generation current = new Generation(states);
+		ElementaryRule rule = new ElementaryRule(110);
+
+		HashLife hashLife = new HashLife(rule, 500);
+		assertEquals(rule.evolveStandard(current, 5000).getStates('0', '1'),
+				hashLife.evolve(current, 5000).getStates('0', '1'));
+		assertTrue(hashLife.getNodeCount() <= 500);
+	}
+}
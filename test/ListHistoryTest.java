@@ -0,0 +1,34 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+
+class ListHistoryTest {
+
+	@Test
+	void testAddAndGet() {
+		ListHistory history = new ListHistory();
+		assertEquals(0, history.size());
+		Generation first = new Generation(true, false);
+		Generation second = new Generation(false, true);
+		history.add(first);
+		history.add(second);
+		assertEquals(2, history.size());
+		assertSame(first, history.get(0));
+		assertSame(second, history.getLast());
+		assertEquals(2 * Long.BYTES, history.getRetainedBytes());
+
+		history.clear();
+		assertEquals(0, history.size());
+		assertEquals(0, history.getRetainedBytes());
+
+		// Check edge cases.
+		try {
+			history.get(0);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Index 0 is outside the range [0, 0).", e.getMessage());
+		}
+	}
+}
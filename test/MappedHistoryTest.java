@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MappedHistoryTest {
+
+	@Test
+	void testAddAndGet() throws IOException {
+		File file = new File("testMappedHistory.bin");
+		try (MappedHistory history = new MappedHistory(file, 100)) {
+			assertEquals(100, history.getWidth());
+			assertEquals(0, history.size());
+			Random random = new Random(2334);
+			Generation[] expected = new Generation[50];
+			for(int i = 0; i < expected.length; ++i) {
+				boolean[] states = new boolean[100];
+				for(int j = 0; j < states.length; ++j)
+					states[j] = random.nextBoolean();
+				expected[i] = new Generation(states);
+				history.add(expected[i]);
+			}
+			assertEquals(50, history.size());
+			for(int i = 0; i < expected.length; ++i)
+				assertEquals(expected[i], history.get(i));
+			assertEquals(expected[49], history.getLast());
+
+			history.clear();
+			assertEquals(0, history.size());
+			history.add(expected[7]);
+			assertEquals(expected[7], history.get(0));
+
+			// Check edge cases.
+			try {
+				history.get(1);
+				fail();
+			} catch (IndexOutOfBoundsException e) {
+				assertEquals("Index 1 is outside the range [0, 1).", e.getMessage());
+			}
+			try {
+				history.add(new Generation(true, false));
+				fail();
+			} catch (IllegalArgumentException e) {
+				assertEquals("Generation must have 100 cells.", e.getMessage());
+			}
+		}
+		file.delete();
+	}
+
+	@Test
+	void testSegments() throws IOException {
+		File file = new File("testMappedHistorySegments.bin");
+		// Two rows of three words fit in each segment, so every other row maps a new segment.
+		try (MappedHistory history = new MappedHistory(file, 150, 50)) {
+			for(int i = 0; i < 7; ++i) {
+				boolean[] states = new boolean[150];
+				states[i * 20] = true;
+				history.add(new Generation(states));
+			}
+			for(int i = 0; i < 7; ++i) {
+				Generation gen = history.get(i);
+				assertEquals(1, gen.countTrue());
+				assertTrue(gen.getState(i * 20));
+			}
+		}
+		assertEquals(4 * 48, file.length());
+		file.delete();
+	}
+}
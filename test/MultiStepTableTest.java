@@ -0,0 +1,72 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class MultiStepTableTest {
+
+	@Test
+	void testConstructor() throws RuleNumException {
+		ElementaryRule rule = new ElementaryRule(110);
+		MultiStepTable table = new MultiStepTable(rule, 7, 2);
+		assertEquals(7, table.getSteps());
+		assertEquals(2, table.getCells());
+
+		// Check edge cases.
+		try {
+			new MultiStepTable(rule, 0, 8);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("steps must be positive.", e.getMessage());
+		}
+
+		try {
+			new MultiStepTable(rule, 2, 6);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("cells must divide 64.", e.getMessage());
+		}
+
+		try {
+			new MultiStepTable(rule, 5, 16);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("cells + 2 * steps must not exceed 24.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testEvolve() throws RuleNumException {
+		ElementaryRule rule = new ElementaryRule(22);
+		MultiStepTable table = new MultiStepTable(rule, 2, 8);
+		Generation next = table.evolve(new Generation("000000010000000", '1'));
+		assertEquals("000001000100000", next.getStates('0', '1'));
+	}
+
+	@Test
+	void testEvolveMatchesSteps() throws RuleNumException {
+		Random random = new Random(2334);
+		int[][] shapes = {{7, 2}, {2, 8}, {6, 4}, {1, 16}};
+		int[] sizes = {1, 3, 16, 63, 64, 65, 300};
+		for(int ruleNum : new int[] {22, 30, 90, 110, 184}) {
+			ElementaryRule rule = new ElementaryRule(ruleNum);
+			for(int[] shape : shapes) {
+				MultiStepTable table = new MultiStepTable(rule, shape[0], shape[1]);
+				for(int size : sizes) {
+					boolean[] states = new boolean[size];
+					for(int i = 0; i < size; ++i)
+						states[i] = random.nextBoolean();
+					Generation gen = new Generation(states);
+
+					Generation expected = gen;
+					for(int step = 0; step < shape[0]; ++step)
+						expected = rule.evolve(expected);
+					assertEquals(expected.getStates('0', '1'), table.evolve(gen).getStates('0', '1'),
+							"rule " + ruleNum + ", steps " + shape[0] + ", size " + size);
+				}
+			}
+		}
+	}
+}
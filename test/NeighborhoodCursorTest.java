@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class NeighborhoodCursorTest {
+
+	@Test
+	void testConstructor() {
+		NeighborhoodCursor cursor = new NeighborhoodCursor(new Generation("0110", '1'), 1);
+		assertEquals(0, cursor.getIndex());
+		assertEquals(1, cursor.getRadius());
+		assertTrue(cursor.hasCell());
+		// The neighborhood of cell 0 wraps around to cell 3: 0 0 1.
+		assertEquals(0b001, cursor.getCode());
+
+		// Check edge cases.
+		try {
+			new NeighborhoodCursor(new Generation(), -1);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("radius is outside the range [0, 15].", e.getMessage());
+		}
+
+		try {
+			new NeighborhoodCursor(new Generation(), 16);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("radius is outside the range [0, 15].", e.getMessage());
+		}
+	}
+
+	@Test
+	void testAdvance() {
+		NeighborhoodCursor cursor = new NeighborhoodCursor(new Generation("0110", '1'), 1);
+		cursor.advance();
+		assertEquals(1, cursor.getIndex());
+		assertEquals(0b011, cursor.getCode());
+		cursor.advance();
+		assertEquals(0b110, cursor.getCode());
+		cursor.advance();
+		assertEquals(0b100, cursor.getCode());
+		assertTrue(cursor.hasCell());
+		cursor.advance();
+		assertFalse(cursor.hasCell());
+	}
+
+	@Test
+	void testMatchesNeighborhoodByRadius() {
+		Random random = new Random(2334);
+		int[] sizes = {1, 2, 3, 7, 64, 65, 150};
+		for(int radius = 0; radius <= 4; ++radius) {
+			for(int size : sizes) {
+				boolean[] states = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					states[i] = random.nextBoolean();
+				Generation gen = new Generation(states);
+
+				NeighborhoodCursor cursor = new NeighborhoodCursor(gen, radius);
+				for(int i = 0; i < size; ++i, cursor.advance()) {
+					boolean[] neighborhood = Rule.getNeighborhoodByRadius(i, radius, gen);
+					int code = 0;
+					for(boolean state : neighborhood)
+						code = (code << 1) | (state ? 1 : 0);
+					assertEquals(code, cursor.getCode(), "radius " + radius + ", size " + size + ", cell " + i);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class ParallelEvolverTest {
+
+	@Test
+	void testConstructor() throws RuleNumException {
+		ParallelEvolver evolver = new ParallelEvolver(new ElementaryRule(110), 3);
+		assertEquals(3, evolver.getParallelism());
+		evolver.shutdown();
+
+		// Check edge cases.
+		try {
+			new ParallelEvolver(new ElementaryRule(110), new ForkJoinPool(2), 0, 0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("stepsPerExchange must be positive.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testEvolveMatchesSerial() throws RuleNumException {
+		Random random = new Random(2334);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		int minWords = 3 * ParallelEvolver.MIN_TILE_WORDS;
+		int[] sizes = {minWords * Generation.WORD_SIZE, minWords * Generation.WORD_SIZE + 37};
+		Rule[] rules = {new ElementaryRule(30), new ElementaryRule(110), new TotalisticRule(22)};
+		for(Rule rule : rules) {
+			ParallelEvolver evolver = new ParallelEvolver(rule, pool, 5, 0);
+			for(int size : sizes) {
+				boolean[] states = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					states[i] = random.nextBoolean();
+				Generation current = new Generation(states);
+				for(int numSteps : new int[] {1, 5, 13}) {
+					Generation expected = current;
+					for(int i = 0; i < numSteps; ++i)
+						expected = rule.evolve(expected);
+					assertEquals(expected, evolver.evolve(current, numSteps),
+							"rule " + rule.getRuleNum() + ", size " + size + ", steps " + numSteps);
+				}
+			}
+		}
+		pool.shutdown();
+	}
+
+	@Test
+	void testEvolveSerialFallback() throws RuleNumException {
+		ElementaryRule rule = new ElementaryRule(90);
+		ParallelEvolver evolver = new ParallelEvolver(rule, 2);
+		Generation current = new Generation("000000010000000", '1');
+		assertEquals(current, evolver.evolve(current, 0));
+		assertEquals(rule.evolve(current, 6), evolver.evolve(current, 6));
+		evolver.shutdown();
+	}
+}
@@ -0,0 +1,211 @@
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigInteger;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The performance tier: throughput floors, allocation ceilings and scaling checks that catch a return of
+ * per-cell allocation or quadratic behavior. The floors sit far below what the word engine does even on
+ * the scalar kernel, so they only trip when something is badly wrong, not when a machine is slow.
+ * Maven leaves these tests out unless the performance profile is active.
+ */
+@Tag("performance")
+class PerformanceTest {
+
+	/**
+	 * The fewest cell updates per second a step of a word engine or a block table may manage. The scalar word engine does
+	 * several billion; the old per-cell neighborhood path did a few million.
+	 */
+	private static final double MIN_CELLS_PER_SECOND = 5e8;
+
+	/**
+	 * How much more time eight times the work may take; linear work takes eight times as long and
+	 * quadratic work sixty-four.
+	 */
+	private static final double MAX_SCALING = 24;
+
+	private static com.sun.management.ThreadMXBean threads;
+
+	@BeforeAll
+	static void checkAllocationCounting() {
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+		threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported());
+		threads.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	@Test
+	void testElementaryThroughput() throws RuleNumException {
+		assertThroughput(new ElementaryRule(30));
+	}
+
+	@Test
+	void testTotalisticThroughput() throws RuleNumException {
+		assertThroughput(new TotalisticRule(22));
+	}
+
+	@Test
+	void testGeneralThroughput() throws RuleNumException {
+		// Every radius up to 7 has a block table, so the widest of them is the slowest.
+		assertThroughput(new GeneralRule(7, GeneralRule.getMaxRuleNumber(7).divide(BigInteger.valueOf(3))));
+		assertThroughput(new GeneralTotalisticRule(7, 12345));
+	}
+
+	@Test
+	void testStepAllocation() throws RuleNumException {
+		for(Rule rule : new Rule[] {new ElementaryRule(30), new TotalisticRule(22)}) {
+			Generation gen = random(1 << 16);
+			// One step allocates the words of the next generation and little else.
+			long perStep = allocatedBytes(() -> rule.evolve(gen), 200) / 200;
+			assertTrue(perStep <= gen.getWordCount() * Long.BYTES + 256, name(rule) + " allocated " + perStep + " bytes per step.");
+			// Many steps at once alternate between two buffers, wrapping each step in a small Generation.
+			long perRun = allocatedBytes(() -> rule.evolve(gen, 100), 20) / 20;
+			assertTrue(perRun <= 2 * gen.getWordCount() * Long.BYTES + 100 * 64, name(rule) + " allocated " + perRun + " bytes per run.");
+		}
+	}
+
+	@Test
+	void testTailHistoryAllocation() throws RuleNumException, java.io.IOException {
+		for(CellularAutomaton type : CellularAutomaton.values()) {
+			Automaton automaton = Automaton.createAutomaton(type, type == CellularAutomaton.ECA ? 30 : 22, random(1 << 14));
+			automaton.setHistory(new TailHistory(1));
+			// A tail history evolves into its own buffers, so a step allocates nothing at all.
+			long perStep = allocatedBytes(() -> automaton.evolve(1), 5000) / 5000;
+			assertTrue(perStep <= 16, type + " allocated " + perStep + " bytes per step.");
+		}
+	}
+
+	@Test
+	void testMetricsAllocation() throws RuleNumException, java.io.IOException {
+		Automaton automaton = Automaton.createAutomaton(CellularAutomaton.ECA, 30, random(1 << 14));
+		automaton.setHistory(new TailHistory(1));
+		automaton.setMetricsListener(new AutomatonMetrics());
+		// Timing a step and counting it allocate nothing either.
+		long perStep = allocatedBytes(() -> automaton.evolve(1), 5000) / 5000;
+		assertTrue(perStep <= 16, "A step with metrics allocated " + perStep + " bytes.");
+	}
+
+	@Test
+	void testRenderAllocation() {
+		Generation gen = random(1 << 16);
+		// A char per cell for the array and a byte per cell for the compact String.
+		long perRender = allocatedBytes(() -> gen.getStates('0', '1'), 50) / 50;
+		assertTrue(perRender <= 4L * gen.size() + 256, "Rendering allocated " + perRender + " bytes.");
+	}
+
+	@Test
+	void testStepScaling() throws RuleNumException {
+		for(Rule rule : new Rule[] {new ElementaryRule(110), new TotalisticRule(53)}) {
+			Generation small = random(1 << 14);
+			Generation large = random(1 << 17);
+			long smallNanos = bestNanos(() -> rule.evolve(small, 50));
+			long largeNanos = bestNanos(() -> rule.evolve(large, 50));
+			assertTrue(largeNanos <= MAX_SCALING * smallNanos,
+					name(rule) + " took " + largeNanos + " ns for 8x the cells of " + smallNanos + " ns.");
+		}
+	}
+
+	@Test
+	void testHistoryScaling() throws RuleNumException {
+		Generation initial = random(1 << 10);
+		long shortNanos = bestNanos(() -> evolveRecorded(initial, 500));
+		long longNanos = bestNanos(() -> evolveRecorded(initial, 4000));
+		assertTrue(longNanos <= MAX_SCALING * shortNanos,
+				"Recording took " + longNanos + " ns for 8x the steps of " + shortNanos + " ns.");
+	}
+
+	/**
+	 * Checks the cell updates per second of many steps of a rule on a wide generation.
+	 *
+	 * @param rule  The rule.
+	 */
+	private static void assertThroughput(Rule rule) {
+		Generation gen = random(1 << 16);
+		int steps = 200;
+		long nanos = bestNanos(() -> rule.evolve(gen, steps));
+		double cellsPerSecond = (double) gen.size() * steps * 1e9 / nanos;
+		assertTrue(cellsPerSecond >= MIN_CELLS_PER_SECOND, name(rule) + " updated only " + cellsPerSecond + " cells/s.");
+	}
+
+	/**
+	 * Returns the name of a rule for failure messages.
+	 *
+	 * @param rule  The rule.
+	 * @return Returns the class name and rule number.
+	 */
+	private static String name(Rule rule) {
+		return rule.getClass().getSimpleName() + " " + rule.getRuleNum();
+	}
+
+	/**
+	 * Evolves a new automaton with the default history.
+	 *
+	 * @param initial  The initial generation.
+	 * @param steps  The number of steps.
+	 */
+	private static void evolveRecorded(Generation initial, int steps) {
+		try {
+			Automaton.createAutomaton(CellularAutomaton.ECA, 30, initial).evolve(steps);
+		} catch (RuleNumException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Returns the bytes the current thread allocates running an operation the given number of times, the
+	 * least of several rounds. The Vector API kernel allocates until it is compiled, which can take
+	 * several rounds on a busy machine, so the early rounds only let it be compiled.
+	 *
+	 * @param operation  The operation.
+	 * @param times  How many times to run it in each round.
+	 * @return Returns the bytes allocated by the runs of the leanest round.
+	 */
+	private static long allocatedBytes(Runnable operation, int times) {
+		long id = Thread.currentThread().getId();
+		long least = Long.MAX_VALUE;
+		for(int round = 0; round < 10; ++round) {
+			long before = threads.getThreadAllocatedBytes(id);
+			for(int i = 0; i < times; ++i)
+				operation.run();
+			least = Math.min(least, threads.getThreadAllocatedBytes(id) - before);
+		}
+		return least;
+	}
+
+	/**
+	 * Returns the shortest of several timed runs of an operation, after a few to let it be compiled.
+	 *
+	 * @param operation  The operation.
+	 * @return Returns the shortest time in nanoseconds.
+	 */
+	private static long bestNanos(Runnable operation) {
+		for(int i = 0; i < 5; ++i)
+			operation.run();
+		long best = Long.MAX_VALUE;
+		for(int i = 0; i < 7; ++i) {
+			long start = System.nanoTime();
+			operation.run();
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		return Math.max(1, best);
+	}
+
+	/**
+	 * Returns a generation of random cells.
+	 *
+	 * @param size  The number of cells.
+	 * @return Returns the generation.
+	 */
+	private static Generation random(int size) {
+		java.util.Random random = new java.util.Random(size);
+		boolean[] states = new boolean[size];
+		for(int i = 0; i < size; ++i)
+			states[i] = random.nextBoolean();
+		return new Generation(states);
+	}
+}
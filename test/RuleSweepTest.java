@@ -0,0 +1,168 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.Test;
+
+class RuleSweepTest {
+
+	private static final Generation INITIAL = new Generation("0000000000000000000010000000000000000000", '1');
+
+	@Test
+	void testParseRules() throws RuleNumException {
+		assertEquals(256, RuleSweep.parseRules("all", CellularAutomaton.ECA).length);
+		assertEquals(64, RuleSweep.parseRules("ALL", CellularAutomaton.TCA).length);
+		assertArrayEquals(new int[] {30, 90, 100, 101, 102, 110}, RuleSweep.parseRules("110,30, 90,100-102,101",
+				CellularAutomaton.ECA));
+
+		// Check edge cases.
+		try {
+			RuleSweep.parseRules("60-64", CellularAutomaton.TCA);
+			fail();
+		} catch (RuleNumException e) {
+			assertEquals("ruleNum is outside the range [0, 63].", e.getMessage());
+		}
+		try {
+			RuleSweep.parseRules("-1,3", CellularAutomaton.ECA);
+			fail();
+		} catch (RuleNumException e) {
+			assertEquals("ruleNum is outside the range [0, 255].", e.getMessage());
+		}
+	}
+
+	@Test
+	void testRun() throws RuleNumException {
+		ForkJoinPool pool = new ForkJoinPool(3);
+		RuleSweep sweep = new RuleSweep(CellularAutomaton.ECA, INITIAL, pool);
+		assertEquals(256, sweep.getRules().length);
+		SweepResult result = sweep.run(25);
+		assertEquals(256, result.getRules().length);
+		assertEquals(256L * 40 * 25, result.getCellUpdates());
+		assertTrue(result.getElapsedNanos() > 0);
+		assertTrue(result.getRulesPerSecond() > 0);
+		assertTrue(result.getCellsPerSecond() > 0);
+		for(int rule : new int[] {0, 30, 90, 110, 255}) {
+			Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, rule, INITIAL);
+			expected.evolve(25);
+			assertEquals(expected.getCurrentGeneration(), result.getFinalGeneration(rule));
+		}
+		pool.shutdown();
+
+		sweep = new RuleSweep(CellularAutomaton.TCA, INITIAL);
+		sweep.setRules(22, 2, 22);
+		assertArrayEquals(new int[] {2, 22}, sweep.getRules());
+		result = sweep.run(10);
+		assertEquals(CellularAutomaton.TCA, result.getCellularAutomaton());
+		assertEquals(new TotalisticRule(22).evolve(INITIAL, 10), result.getFinalGeneration(22));
+
+		// Check edge cases.
+		try {
+			result.getFinalGeneration(3);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("Rule 3 was not run.", e.getMessage());
+		}
+		try {
+			sweep.setRules(64);
+			fail();
+		} catch (RuleNumException e) {
+			assertEquals("ruleNum is outside the range [0, 63].", e.getMessage());
+		}
+	}
+
+	@Test
+	void testDeduplicate() throws RuleNumException, IOException {
+		Generation centered = new Generation("00000000000000000000" + "1" + "00000000000000000000", '1');
+		Generation random = new Generation("0110100011101011010011000101110111010010010001010111011", '1');
+		for(Generation initial : new Generation[] {centered, random}) {
+			RuleSweep sweep = new RuleSweep(CellularAutomaton.ECA, initial);
+			assertTrue(sweep.isDeduplicating());
+			SweepResult shared = sweep.run(20);
+			sweep.setDeduplicate(false);
+			SweepResult separate = sweep.run(20);
+			assertEquals(256, separate.getComputedRuns());
+			for(int rule = 0; rule < 256; ++rule)
+				assertEquals(separate.getFinalGeneration(rule), shared.getFinalGeneration(rule));
+			if(initial == centered)
+				// One centered cell is its own mirror image, so mirrored rules share their runs.
+				assertEquals(160, shared.getComputedRuns());
+			else
+				assertEquals(256, shared.getComputedRuns());
+		}
+
+		// Rules 30 and 86 share one run, whose rows are mirrored for 86.
+		RuleSweep sweep = new RuleSweep(CellularAutomaton.ECA, centered);
+		sweep.setRules(30, 86);
+		assertEquals(1, sweep.saveEvolutions(".", 9).getComputedRuns());
+		for(int rule : new int[] {30, 86}) {
+			Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, rule, centered);
+			expected.evolve(9);
+			File file = new File(RuleSweep.getFilename(CellularAutomaton.ECA, rule));
+			assertEquals(expected.toString() + System.lineSeparator(), new String(Files.readAllBytes(file.toPath())));
+			file.delete();
+		}
+		String filename = "testRuleSweep-shared.bin";
+		sweep.saveIndexed(filename, 9);
+		String text = new String(Files.readAllBytes(new File(filename).toPath()));
+		for(int rule : new int[] {30, 86}) {
+			Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, rule, centered);
+			expected.evolve(9);
+			assertTrue(text.contains(expected.toString() + System.lineSeparator()));
+		}
+		new File(filename).delete();
+	}
+
+	@Test
+	void testSaveEvolutions() throws RuleNumException, IOException {
+		RuleSweep sweep = new RuleSweep(CellularAutomaton.ECA, INITIAL);
+		sweep.setRules(30, 90);
+		sweep.falseSymbol = '.';
+		sweep.trueSymbol = 'O';
+		sweep.saveEvolutions(".", 12);
+		for(int rule : new int[] {30, 90}) {
+			Automaton expected = Automaton.createAutomaton(CellularAutomaton.ECA, rule, INITIAL);
+			expected.falseSymbol = '.';
+			expected.trueSymbol = 'O';
+			expected.evolve(12);
+			File file = new File(RuleSweep.getFilename(CellularAutomaton.ECA, rule));
+			assertEquals("eca-" + rule + ".txt", file.getName());
+			assertEquals(expected.toString() + System.lineSeparator(), new String(Files.readAllBytes(file.toPath())));
+			file.delete();
+		}
+	}
+
+	@Test
+	void testSaveIndexed() throws RuleNumException, IOException {
+		RuleSweep sweep = new RuleSweep(CellularAutomaton.TCA, INITIAL);
+		sweep.setRules(10, 20, 22);
+		String filename = "testRuleSweep.bin";
+		sweep.saveIndexed(filename, 7);
+		ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(new File(filename).toPath())).order(ByteOrder.LITTLE_ENDIAN);
+		assertEquals(RuleSweep.MAGIC, bytes.getInt(0));
+		assertEquals(RuleSweep.VERSION, bytes.getShort(4));
+		assertEquals(CellularAutomaton.TCA.ordinal(), bytes.get(6));
+		assertEquals(3, bytes.getInt(8));
+		assertEquals(40, bytes.getInt(12));
+		assertEquals(8, bytes.getInt(16));
+		int rowBytes = bytes.getInt(20);
+		assertEquals(40 + System.lineSeparator().length(), rowBytes);
+		for(int i = 0; i < 3; ++i) {
+			int rule = bytes.getInt(RuleSweep.HEADER_SIZE + i * RuleSweep.INDEX_ENTRY_SIZE);
+			long offset = bytes.getLong(RuleSweep.HEADER_SIZE + i * RuleSweep.INDEX_ENTRY_SIZE + 4);
+			Automaton expected = Automaton.createAutomaton(CellularAutomaton.TCA, rule, INITIAL);
+			expected.evolve(7);
+			String block = new String(bytes.array(), (int) offset, 8 * rowBytes);
+			assertEquals(expected.toString() + System.lineSeparator(), block);
+		}
+		assertEquals(RuleSweep.HEADER_SIZE + 3 * RuleSweep.INDEX_ENTRY_SIZE + 3 * 8 * rowBytes, bytes.capacity());
+		new File(filename).delete();
+	}
+}
@@ -5,6 +5,7 @@ import static org.junit.jupiter.api.Assertions.fail;
 
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -57,6 +58,16 @@ class RuleTest {
 		assertEquals("LLLLLLLLLLLL", next.getStates('L', 'R'));
 	}
 
+	@Test
+	void testEvolveSteps() {
+		Generation current = new Generation("11010001101", '1');
+		Rule rule = new MajorityRule();
+		Generation expected = rule.evolve(rule.evolve(rule.evolve(current)));
+		assertEquals(expected.getStates('0', '1'), rule.evolve(current, 3).getStates('0', '1'));
+		assertEquals(current, rule.evolve(current, 0));
+		assertEquals(current, rule.evolve(current, -2));
+	}
+
 	@Test
 	void testGetNeighborhoodByRadius() {
 		Generation current = new Generation("10001001", '1');
@@ -86,6 +97,30 @@ class RuleTest {
 		}, result);
 	}
 	
+	@Test
+	void testGetRadius() {
+		assertEquals(-1, new MockRule().getRadius());
+		assertEquals(2, new MajorityRule().getRadius());
+	}
+
+	@Test
+	void testEvolveGenerationByTable() {
+		Random random = new Random(2334);
+		Rule rule = new MajorityRule();
+		int[] sizes = {1, 2, 5, 63, 64, 65, 200};
+		for(int size : sizes) {
+			boolean[] states = new boolean[size];
+			for(int i = 0; i < size; ++i)
+				states[i] = random.nextBoolean();
+			Generation current = new Generation(states);
+
+			boolean[] expected = new boolean[size];
+			for(int i = 0; i < size; ++i)
+				expected[i] = rule.evolve(rule.getNeighborhood(i, current));
+			assertArrayEquals(expected, rule.evolve(current).getStates(), "size " + size);
+		}
+	}
+
 	// Extend Rule with a concrete class to test the non-abstract methods.
 	private static class MockRule extends Rule {
 
@@ -108,4 +143,37 @@ class RuleTest {
 			return null;
 		}
 	}
+
+	// A rule that reports its radius, so it evolves through the rule table.
+	private static class MajorityRule extends Rule {
+
+		public MajorityRule() {
+			super(0);
+		}
+
+		@Override
+		public boolean evolve(boolean[] neighborhood) {
+			int count = 0;
+			for(boolean state : neighborhood) {
+				if(state)
+					++count;
+			}
+			return count > neighborhood.length / 2 != neighborhood[0];
+		}
+
+		@Override
+		public boolean[] getNeighborhood(int idx, Generation gen) {
+			return getNeighborhoodByRadius(idx, 2, gen);
+		}
+
+		@Override
+		public int getRadius() {
+			return 2;
+		}
+
+		@Override
+		public String ruleTableString(char falseSymbol, char trueSymbol) {
+			return null;
+		}
+	}
 }
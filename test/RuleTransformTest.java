@@ -0,0 +1,51 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RuleTransformTest {
+
+	@Test
+	void testApplyRule() {
+		assertEquals(30, RuleTransform.IDENTITY.apply(30));
+		assertEquals(86, RuleTransform.MIRROR.apply(30));
+		assertEquals(135, RuleTransform.COMPLEMENT.apply(30));
+		assertEquals(149, RuleTransform.MIRROR_COMPLEMENT.apply(30));
+		assertEquals(124, RuleTransform.MIRROR.apply(110));
+		assertEquals(137, RuleTransform.COMPLEMENT.apply(110));
+		HashSet<Integer> canonical = new HashSet<Integer>();
+		for(int rule = 0; rule < 256; ++rule) {
+			for(RuleTransform transform : RuleTransform.values())
+				assertEquals(rule, transform.apply(transform.apply(rule)));
+			canonical.add(ElementaryRule.getCanonicalRuleNum(rule));
+		}
+		assertEquals(88, canonical.size());
+	}
+
+	@Test
+	void testApplyGeneration() throws RuleNumException {
+		Generation gen = new Generation("0010111", '1');
+		assertEquals(gen, RuleTransform.IDENTITY.apply(gen));
+		assertEquals("1110100", RuleTransform.MIRROR.apply(gen).getStates('0', '1'));
+		assertEquals("1101000", RuleTransform.COMPLEMENT.apply(gen).getStates('0', '1'));
+		assertEquals("0001011", RuleTransform.MIRROR_COMPLEMENT.apply(gen).getStates('0', '1'));
+	}
+
+	@Test
+	void testEquivalentEvolutions() throws RuleNumException {
+		Random random = new Random(20);
+		boolean[] states = new boolean[77];
+		for(int i = 0; i < states.length; ++i)
+			states[i] = random.nextBoolean();
+		Generation gen = new Generation(states);
+		for(int rule = 0; rule < 256; ++rule) {
+			Generation expected = new ElementaryRule(rule).evolve(gen, 5);
+			for(RuleTransform transform : RuleTransform.values()) {
+				Generation actual = new ElementaryRule(transform.apply(rule)).evolve(transform.apply(gen), 5);
+				assertEquals(transform.apply(expected), actual);
+			}
+		}
+	}
+}
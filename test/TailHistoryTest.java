@@ -0,0 +1,74 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.Test;
+
+class TailHistoryTest {
+
+	@Test
+	void testConstructor() {
+		TailHistory history = new TailHistory(3);
+		assertEquals(3, history.getCapacity());
+		assertEquals(0, history.size());
+		assertEquals(0, history.getFirstRetained());
+
+		// Check edge cases.
+		try {
+			new TailHistory(0);
+			fail();
+		} catch (IllegalArgumentException e) {
+			assertEquals("capacity must be positive.", e.getMessage());
+		}
+	}
+
+	@Test
+	void testAdd() {
+		TailHistory history = new TailHistory(2);
+		history.add(new Generation("1000", '1'));
+		history.add(new Generation("0100", '1'));
+		history.add(new Generation("0010", '1'));
+		assertEquals(3, history.size());
+		assertEquals(1, history.getFirstRetained());
+		assertEquals("0100", history.get(1).getStates('0', '1'));
+		assertEquals("0010", history.getLast().getStates('0', '1'));
+		// The ring holds one generation more than the window.
+		assertEquals(3 * Long.BYTES, history.getRetainedBytes());
+
+		// Check edge cases.
+		try {
+			history.get(0);
+			fail();
+		} catch (IndexOutOfBoundsException e) {
+			assertEquals("Index 0 is outside the range [1, 3).", e.getMessage());
+		}
+
+		history.clear();
+		assertEquals(0, history.size());
+		history.add(new Generation("0001", '1'));
+		assertEquals("0001", history.get(0).getStates('0', '1'));
+	}
+
+	@Test
+	void testEvolveInPlace() throws RuleNumException {
+		for(Rule rule : new Rule[] {new ElementaryRule(30), new TotalisticRule(22)}) {
+			Generation expected = new Generation("0000000000000000000000000000000000000000000000000000000000000000"
+					+ "0000000000000001000000000000000000000000000000", '1');
+			TailHistory history = new TailHistory(1);
+			assertFalse(history.evolveInPlace(rule, 5));
+			history.add(expected);
+			Generation slot = history.getLast();
+			assertTrue(history.evolveInPlace(rule, 101));
+			for(int i = 0; i < 101; ++i)
+				expected = rule.evolve(expected);
+			assertEquals(102, history.size());
+			assertEquals(101, history.getFirstRetained());
+			assertEquals(expected, history.getLast());
+			// With one generation retained, the history alternates between two buffers.
+			assertTrue(history.evolveInPlace(rule, 1));
+			assertSame(slot, history.getLast());
+		}
+	}
+}
@@ -4,6 +4,8 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
 class TotalisticRuleTest {
@@ -167,4 +169,25 @@ class TotalisticRuleTest {
 		Generation next = rule.evolve(current);
 		assertEquals("11011111111011111000100000111010", next.getStates('0', '1'));
 	}
+
+	@Test
+	void testEvolveGenerationMatchesNeighborhoods() throws RuleNumException {
+		Random random = new Random(2334);
+		int[] sizes = {1, 2, 3, 4, 5, 63, 64, 65, 66, 127, 128, 129, 193, 200};
+		for(int ruleNum = 0; ruleNum < 64; ++ruleNum) {
+			Rule rule = new TotalisticRule(ruleNum);
+			for(int size : sizes) {
+				boolean[] states = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					states[i] = random.nextBoolean();
+				Generation current = new Generation(states);
+
+				boolean[] expected = new boolean[size];
+				for(int i = 0; i < size; ++i)
+					expected[i] = rule.evolve(rule.getNeighborhood(i, current));
+				assertArrayEquals(expected, rule.evolve(current).getStates(),
+						"rule " + ruleNum + ", size " + size);
+			}
+		}
+	}
 }
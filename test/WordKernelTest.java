@@ -0,0 +1,61 @@
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class WordKernelTest {
+
+	@Test
+	void testGetDefault() {
+		WordKernel kernel = WordKernel.getDefault();
+		if(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent())
+			assertTrue(kernel.getName().startsWith("vector"));
+		else
+			assertEquals("scalar", kernel.getName());
+		assertEquals("scalar", new ScalarWordKernel().getName());
+	}
+
+	@Test
+	void testKernelsMatch() {
+		Random random = new Random(2334);
+		WordKernel scalar = new ScalarWordKernel();
+		WordKernel kernel = WordKernel.getDefault();
+		for(int length : new int[] {2, 3, 4, 7, 10, 33, 100}) {
+			long[] words = new long[length];
+			for(int i = 0; i < length; ++i)
+				words[i] = random.nextLong();
+			for(int ruleNum = 0; ruleNum < 256; ruleNum += 7) {
+				long[] masks = Rule.ruleMasks(ruleNum, 8);
+				long[] expected = new long[length];
+				long[] actual = new long[length];
+				scalar.evolveElementary(masks, words, expected, 1, length - 1);
+				kernel.evolveElementary(masks, words, actual, 1, length - 1);
+				assertArrayEquals(expected, actual, "ECA rule " + ruleNum + ", length " + length);
+				scalar.evolveTotalistic(masks, words, expected, 1, length - 1);
+				kernel.evolveTotalistic(masks, words, actual, 1, length - 1);
+				assertArrayEquals(expected, actual, "TCA rule " + ruleNum + ", length " + length);
+			}
+		}
+	}
+
+	@Test
+	void testRulesMatchNeighborhoods() throws RuleNumException {
+		Random random = new Random(2334);
+		boolean[] states = new boolean[1000];
+		for(int i = 0; i < states.length; ++i)
+			states[i] = random.nextBoolean();
+		Generation gen = new Generation(states);
+		for(Rule rule : new Rule[] {new ElementaryRule(110), new TotalisticRule(22)}) {
+			for(WordKernel kernel : new WordKernel[] {new ScalarWordKernel(), WordKernel.getDefault()}) {
+				rule.setKernel(kernel);
+				boolean[] expected = new boolean[states.length];
+				for(int i = 0; i < states.length; ++i)
+					expected[i] = rule.evolve(rule.getNeighborhood(i, gen));
+				assertArrayEquals(expected, rule.evolve(gen).getStates(), kernel.getName());
+			}
+		}
+	}
+}
@@ -0,0 +1,106 @@
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorWordKernel evolves as many words at once as the widest vector registers of the machine hold, four on
+ * AVX2 and eight on AVX-512. The neighbor words are read with loads shifted one word to either side, and then
+ * the same shifts, adders and multiplexers as the scalar engines run across all lanes. Words left over at the
+ * end are finished by the scalar kernel. The class needs the jdk.incubator.vector module to compile and run,
+ * so it sits in its own source root that only the Maven build compiles, and WordKernel only loads it when that
+ * module is present.
+ *
+ * @author Joshua Wiseman
+ * @version 0.1
+ */
+class VectorWordKernel extends WordKernel {
+
+	/**
+	 * The preferred vector shape of the machine.
+	 */
+	private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+	/**
+	 * The kernel that finishes the words left over.
+	 */
+	private final ScalarWordKernel scalar = new ScalarWordKernel();
+
+	/**
+	 * Returns the name of the kernel.
+	 */
+	String getName() {
+		return "vector" + SPECIES.vectorBitSize();
+	}
+
+	/**
+	 * Evolves the words [from, to) of an elementary CA.
+	 */
+	void evolveElementary(long[] masks, long[] words, long[] next, int from, int to) {
+		LongVector m0 = LongVector.broadcast(SPECIES, masks[0]);
+		LongVector m1 = LongVector.broadcast(SPECIES, masks[1]);
+		LongVector m2 = LongVector.broadcast(SPECIES, masks[2]);
+		LongVector m3 = LongVector.broadcast(SPECIES, masks[3]);
+		LongVector m4 = LongVector.broadcast(SPECIES, masks[4]);
+		LongVector m5 = LongVector.broadcast(SPECIES, masks[5]);
+		LongVector m6 = LongVector.broadcast(SPECIES, masks[6]);
+		LongVector m7 = LongVector.broadcast(SPECIES, masks[7]);
+		int i = from;
+		for(int bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+			LongVector center = LongVector.fromArray(SPECIES, words, i);
+			LongVector before = LongVector.fromArray(SPECIES, words, i - 1);
+			LongVector after = LongVector.fromArray(SPECIES, words, i + 1);
+			LongVector left = center.lanewise(VectorOperators.LSHL, 1).or(before.lanewise(VectorOperators.LSHR, 63));
+			LongVector right = center.lanewise(VectorOperators.LSHR, 1).or(after.lanewise(VectorOperators.LSHL, 63));
+			// The multiplexer tree of Rule.select.
+			LongVector low0 = mux(mux(m0, m1, right), mux(m2, m3, right), center);
+			LongVector low1 = mux(mux(m4, m5, right), mux(m6, m7, right), center);
+			mux(low0, low1, left).intoArray(next, i);
+		}
+		scalar.evolveElementary(masks, words, next, i, to);
+	}
+
+	/**
+	 * Evolves the words [from, to) of a totalistic CA.
+	 */
+	void evolveTotalistic(long[] masks, long[] words, long[] next, int from, int to) {
+		// A count of four or five never sets the twos bit, so masks 6 and 7 are never selected.
+		LongVector m0 = LongVector.broadcast(SPECIES, masks[0]);
+		LongVector m1 = LongVector.broadcast(SPECIES, masks[1]);
+		LongVector m2 = LongVector.broadcast(SPECIES, masks[2]);
+		LongVector m3 = LongVector.broadcast(SPECIES, masks[3]);
+		LongVector m4 = LongVector.broadcast(SPECIES, masks[4]);
+		LongVector m5 = LongVector.broadcast(SPECIES, masks[5]);
+		int i = from;
+		for(int bound = to - SPECIES.length(); i <= bound; i += SPECIES.length()) {
+			LongVector center = LongVector.fromArray(SPECIES, words, i);
+			LongVector before = LongVector.fromArray(SPECIES, words, i - 1);
+			LongVector after = LongVector.fromArray(SPECIES, words, i + 1);
+			LongVector left2 = center.lanewise(VectorOperators.LSHL, 2).or(before.lanewise(VectorOperators.LSHR, 62));
+			LongVector left1 = center.lanewise(VectorOperators.LSHL, 1).or(before.lanewise(VectorOperators.LSHR, 63));
+			LongVector right1 = center.lanewise(VectorOperators.LSHR, 1).or(after.lanewise(VectorOperators.LSHL, 63));
+			LongVector right2 = center.lanewise(VectorOperators.LSHR, 2).or(after.lanewise(VectorOperators.LSHL, 62));
+			// The same two full adders as TotalisticRule.evolveWord.
+			LongVector half = left2.lanewise(VectorOperators.XOR, left1);
+			LongVector partial = half.lanewise(VectorOperators.XOR, center);
+			LongVector carry1 = left2.and(left1).or(center.and(half));
+			LongVector half2 = partial.lanewise(VectorOperators.XOR, right1);
+			LongVector ones = half2.lanewise(VectorOperators.XOR, right2);
+			LongVector carry2 = partial.and(right1).or(right2.and(half2));
+			LongVector low = mux(mux(m0, m1, ones), mux(m2, m3, ones), carry1.lanewise(VectorOperators.XOR, carry2));
+			mux(low, mux(m4, m5, ones), carry1.and(carry2)).intoArray(next, i);
+		}
+		scalar.evolveTotalistic(masks, words, next, i, to);
+	}
+
+	/**
+	 * Takes each bit from one when the selector bit is set and from zero otherwise.
+	 *
+	 * @param zero  The bits chosen by clear selector bits.
+	 * @param one  The bits chosen by set selector bits.
+	 * @param selector  The selector bits.
+	 * @return Returns the chosen bits.
+	 */
+	private static LongVector mux(LongVector zero, LongVector one, LongVector selector) {
+		return zero.lanewise(VectorOperators.XOR, zero.lanewise(VectorOperators.XOR, one).and(selector));
+	}
+}